@@ -0,0 +1,13 @@
+package ru.practicum.shareit.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveBookingApp {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveBookingApp.class, args);
+    }
+
+}
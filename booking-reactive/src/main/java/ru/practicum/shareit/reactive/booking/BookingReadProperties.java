@@ -0,0 +1,13 @@
+package ru.practicum.shareit.reactive.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.reactive.bookings")
+public class BookingReadProperties {
+    // сколько строк драйвер запрашивает у базы за раз; следующая порция — только по спросу подписчика
+    private int fetchSize = 256;
+}
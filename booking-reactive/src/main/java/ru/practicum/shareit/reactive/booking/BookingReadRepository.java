@@ -0,0 +1,96 @@
+package ru.practicum.shareit.reactive.booking;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.reactive.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.reactive.booking.dto.ItemDto;
+import ru.practicum.shareit.reactive.booking.dto.UserDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Чтение бронирований одним запросом с join вещи и арендатора, строки отдаются потоком по спросу.
+ * Условия состояний и сортировка совпадают с BookingRepository модуля server.
+ */
+@Repository
+@RequiredArgsConstructor
+@EnableConfigurationProperties(BookingReadProperties.class)
+public class BookingReadRepository {
+    private static final String SELECT = "SELECT b.id, b.start_dt, b.end_dt, b.status, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, " +
+            "i.available AS item_available, i.owner_id AS item_owner_id, i.request_id AS item_request_id, " +
+            "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email " +
+            "FROM bookings b " +
+            "JOIN items i ON i.id = b.item_id " +
+            "JOIN users u ON u.id = b.booker_id ";
+
+    private final DatabaseClient client;
+    private final BookingReadProperties properties;
+
+    public Mono<Boolean> userExists(long userId) {
+        return client.sql("SELECT id FROM users WHERE id = :id AND deleted = FALSE")
+                .bind("id", userId)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Flux<BookingOutputDto> findAllByBooker(long bookerId, BookingState state) {
+        String order = state == BookingState.REJECTED ? "b.end_dt DESC" : "b.start_dt DESC";
+        return query("b.booker_id = :userId", state, order, bookerId);
+    }
+
+    public Flux<BookingOutputDto> findAllByOwner(long ownerId, BookingState state) {
+        return query("i.owner_id = :userId", state, "b.start_dt DESC", ownerId);
+    }
+
+    private Flux<BookingOutputDto> query(String userCondition, BookingState state, String order, long userId) {
+        String sql = SELECT + "WHERE " + userCondition + stateCondition(state) + " ORDER BY " + order;
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql)
+                .filter((statement, next) -> next.execute(statement.fetchSize(properties.getFetchSize())))
+                .bind("userId", userId);
+        if (state == BookingState.WAITING || state == BookingState.REJECTED) {
+            spec = spec.bind("status", state.name());
+        }
+        return spec.map(BookingReadRepository::toDto).all();
+    }
+
+    private static String stateCondition(BookingState state) {
+        return switch (state) {
+            case ALL -> "";
+            case CURRENT -> " AND CURRENT_TIMESTAMP BETWEEN b.start_dt AND b.end_dt";
+            case PAST -> " AND CURRENT_TIMESTAMP > b.end_dt";
+            case FUTURE -> " AND CURRENT_TIMESTAMP < b.start_dt";
+            case WAITING, REJECTED -> " AND b.status = :status";
+        };
+    }
+
+    private static BookingOutputDto toDto(Readable row) {
+        ItemDto item = new ItemDto();
+        item.setId(row.get("item_id", Long.class));
+        item.setName(row.get("item_name", String.class));
+        item.setDescription(row.get("item_description", String.class));
+        item.setAvailable(row.get("item_available", Boolean.class));
+        item.setOwner(row.get("item_owner_id", Long.class));
+        item.setRequestId(row.get("item_request_id", Long.class));
+
+        UserDto booker = new UserDto();
+        booker.setId(row.get("booker_id", Long.class));
+        booker.setName(row.get("booker_name", String.class));
+        booker.setEmail(row.get("booker_email", String.class));
+
+        BookingOutputDto booking = new BookingOutputDto();
+        booking.setId(row.get("id", Long.class));
+        booking.setStart(row.get("start_dt", LocalDateTime.class));
+        booking.setEnd(row.get("end_dt", LocalDateTime.class));
+        booking.setStatus(row.get("status", String.class));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        return booking;
+    }
+}
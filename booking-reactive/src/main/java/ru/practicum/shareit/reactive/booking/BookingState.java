@@ -0,0 +1,13 @@
+package ru.practicum.shareit.reactive.booking;
+
+/**
+ * Те же состояния, что и у {@code ru.practicum.shareit.booking.BookingState} в модуле server.
+ */
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED
+}
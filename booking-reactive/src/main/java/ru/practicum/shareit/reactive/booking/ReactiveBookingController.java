@@ -0,0 +1,55 @@
+package ru.practicum.shareit.reactive.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.reactive.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.reactive.exception.NotFoundException;
+import ru.practicum.shareit.reactive.exception.ValidationException;
+
+/**
+ * Неблокирующие аналоги GET /bookings и GET /bookings/owner модуля server. При Accept: application/x-ndjson
+ * бронирования пишутся в ответ по одному по мере чтения из базы.
+ */
+@RestController
+@RequestMapping(path = "/bookings", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+    private final BookingReadRepository bookingReadRepository;
+
+    @GetMapping
+    public Flux<BookingOutputDto> getAllByBooker(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                 @RequestHeader("X-Sharer-User-Id") long bookerId) {
+        BookingState bookingState = parseState(state);
+        return requireUser(bookerId)
+                .thenMany(bookingReadRepository.findAllByBooker(bookerId, bookingState));
+    }
+
+    @GetMapping("/owner")
+    public Flux<BookingOutputDto> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        BookingState bookingState = parseState(state);
+        return requireUser(ownerId)
+                .thenMany(bookingReadRepository.findAllByOwner(ownerId, bookingState));
+    }
+
+    private Mono<Void> requireUser(long userId) {
+        return bookingReadRepository.userExists(userId)
+                .flatMap(exists -> exists ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException(String.format("Пользователь %d не найден", userId))));
+    }
+
+    private static BookingState parseState(String state) {
+        try {
+            return BookingState.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(String.format("Неизвестный тип состояния бронирования: %s", state));
+        }
+    }
+}
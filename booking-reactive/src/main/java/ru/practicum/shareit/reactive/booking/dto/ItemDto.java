@@ -0,0 +1,25 @@
+package ru.practicum.shareit.reactive.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Повторяет форму ItemDto модуля server; бронирования, комментарии и просмотры вещи в списках бронирований
+ * не заполняются и там, поэтому здесь они всегда null.
+ */
+@Getter
+@Setter
+public class ItemDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Long owner;
+    private Boolean available;
+    private Long requestId;
+    private BookingOutputDto lastBooking;
+    private BookingOutputDto nextBooking;
+    private List<Object> comments;
+    private Long views;
+}
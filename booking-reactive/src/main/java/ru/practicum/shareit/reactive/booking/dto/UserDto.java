@@ -0,0 +1,12 @@
+package ru.practicum.shareit.reactive.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserDto {
+    private Long id;
+    private String email;
+    private String name;
+}
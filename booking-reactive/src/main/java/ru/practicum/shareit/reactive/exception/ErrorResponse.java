@@ -0,0 +1,16 @@
+package ru.practicum.shareit.reactive.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ErrorResponse {
+    // название ошибки
+    String error;
+    // подробное описание
+    String description;
+
+    public ErrorResponse(String error, String description) {
+        this.error = error;
+        this.description = description;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.reactive.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
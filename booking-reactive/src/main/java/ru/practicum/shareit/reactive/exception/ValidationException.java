@@ -0,0 +1,8 @@
+package ru.practicum.shareit.reactive.exception;
+
+public class ValidationException extends RuntimeException {
+
+    public ValidationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.reactive;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнивает GET /bookings/owner сервлетного модуля server и реактивного модуля на одной базе.
+ * Оба приложения должны быть запущены заранее; данные создаются через API модуля server.
+ */
+class BookingReadBenchmarkIT {
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final int BOOKINGS = 50;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void compareOwnerBookingReads() throws Exception {
+		String servletUrl = System.getProperty("benchmark.servlet.url", "http://localhost:9090");
+		String reactiveUrl = System.getProperty("benchmark.reactive.url", "http://localhost:8081");
+		int concurrency = Integer.getInteger("benchmark.concurrency", 200);
+		int requests = Integer.getInteger("benchmark.requests", 20000);
+
+		long ownerId = seed(servletUrl);
+		String servlet = run("servlet", servletUrl, ownerId, concurrency, requests);
+		String reactive = run("reactive", reactiveUrl, ownerId, concurrency, requests);
+
+		Files.createDirectories(Path.of("target"));
+		Files.writeString(Path.of("target", "booking-read-benchmark.txt"),
+				String.format("concurrency=%d%nrequests=%d%nbookings-per-response=%d%n%s%s",
+						concurrency, requests, BOOKINGS, servlet, reactive));
+	}
+
+	private long seed(String baseUrl) throws Exception {
+		long ownerId = createUser(baseUrl);
+		long bookerId = createUser(baseUrl);
+		long itemId = id(post(baseUrl + "/items", ownerId,
+				"{\"name\":\"Палатка\",\"description\":\"Четырёхместная палатка\",\"available\":true}"));
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		for (int i = 0; i < BOOKINGS; i++) {
+			post(baseUrl + "/bookings", bookerId, String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+					itemId, start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+		}
+		return ownerId;
+	}
+
+	private String run(String name, String baseUrl, long ownerId, int concurrency, int requests)
+			throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/owner"))
+				.header("X-Sharer-User-Id", String.valueOf(ownerId))
+				.build();
+		// прогрев: JIT и пулы соединений обоих приложений
+		for (int i = 0; i < 200; i++) {
+			client.send(request, HttpResponse.BodyHandlers.discarding());
+		}
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		long started = System.nanoTime();
+		try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+			Future<?>[] workers = new Future<?>[concurrency];
+			for (int w = 0; w < concurrency; w++) {
+				workers[w] = executor.submit(() -> {
+					for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+						long sent = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[i] = System.nanoTime() - sent;
+					}
+					return null;
+				});
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		long elapsed = System.nanoTime() - started;
+		Arrays.sort(latencies);
+		return String.format("%s.throughput-rps=%.1f%n%s.p50-ms=%.2f%n%s.p99-ms=%.2f%n%s.errors=%d%n",
+				name, requests / (elapsed / 1e9),
+				name, percentile(latencies, 0.50),
+				name, percentile(latencies, 0.99),
+				name, errors.get());
+	}
+
+	private long createUser(String baseUrl) throws Exception {
+		return id(post(baseUrl + "/users", null,
+				String.format("{\"name\":\"Bench\",\"email\":\"%s@bench.test\"}", UUID.randomUUID())));
+	}
+
+	private String post(String url, Long userId, String body) throws Exception {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+		if (userId != null) {
+			builder.header("X-Sharer-User-Id", String.valueOf(userId));
+		}
+		HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		return response.body();
+	}
+
+	private static long id(String json) {
+		Matcher matcher = ID.matcher(json);
+		if (!matcher.find()) {
+			throw new IllegalStateException("В ответе нет id: " + json);
+		}
+		return Long.parseLong(matcher.group(1));
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.reactive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.reactive.booking.BookingState;
+import ru.practicum.shareit.reactive.booking.dto.BookingOutputDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Фильтрация и сортировка по состояниям на встроенной H2 со схемой модуля server. Ожидания повторяют
+ * BookingServiceImpl модуля server: CURRENT — начало и конец включительно, списки по убыванию начала,
+ * кроме REJECTED арендатора — по убыванию конца.
+ */
+@SpringBootTest(properties = "spring.sql.init.schema-locations=file:../server/src/main/resources/schema.sql")
+@AutoConfigureWebTestClient
+class ReactiveBookingStateTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private WebTestClient client;
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	private long ownerId;
+	private long bookerId;
+	private long past;
+	private long current;
+	private long waiting;
+	private long rejectedLong;
+	private long rejectedShort;
+	private long otherBooker;
+
+	@BeforeEach
+	void createBookingsInEveryState() {
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		ownerId = createUser();
+		bookerId = createUser();
+		long otherId = createUser();
+		long itemId = createItem(ownerId);
+		past = createBooking(itemId, bookerId, now.minusDays(3), now.minusDays(2), "APPROVED");
+		current = createBooking(itemId, bookerId, now.minusDays(1), now.plusDays(1), "APPROVED");
+		waiting = createBooking(itemId, bookerId, now.plusDays(1), now.plusDays(2), "WAITING");
+		// начинается раньше, а кончается позже второго отклонённого: порядок по началу и по концу различается
+		rejectedLong = createBooking(itemId, bookerId, now.plusDays(3), now.plusDays(10), "REJECTED");
+		rejectedShort = createBooking(itemId, bookerId, now.plusDays(4), now.plusDays(5), "REJECTED");
+		otherBooker = createBooking(itemId, otherId, now.plusDays(6), now.plusDays(7), "APPROVED");
+	}
+
+	@Test
+	void bookerStatesMatchServletSemantics() {
+		assertEquals(List.of(rejectedShort, rejectedLong, waiting, current, past),
+				ids("/bookings", bookerId, BookingState.ALL));
+		assertEquals(List.of(current), ids("/bookings", bookerId, BookingState.CURRENT));
+		assertEquals(List.of(past), ids("/bookings", bookerId, BookingState.PAST));
+		assertEquals(List.of(rejectedShort, rejectedLong, waiting), ids("/bookings", bookerId, BookingState.FUTURE));
+		assertEquals(List.of(waiting), ids("/bookings", bookerId, BookingState.WAITING));
+		assertEquals(List.of(rejectedLong, rejectedShort), ids("/bookings", bookerId, BookingState.REJECTED));
+	}
+
+	@Test
+	void ownerStatesMatchServletSemantics() {
+		assertEquals(List.of(otherBooker, rejectedShort, rejectedLong, waiting, current, past),
+				ids("/bookings/owner", ownerId, BookingState.ALL));
+		assertEquals(List.of(current), ids("/bookings/owner", ownerId, BookingState.CURRENT));
+		assertEquals(List.of(past), ids("/bookings/owner", ownerId, BookingState.PAST));
+		assertEquals(List.of(otherBooker, rejectedShort, rejectedLong, waiting),
+				ids("/bookings/owner", ownerId, BookingState.FUTURE));
+		assertEquals(List.of(waiting), ids("/bookings/owner", ownerId, BookingState.WAITING));
+		assertEquals(List.of(rejectedShort, rejectedLong), ids("/bookings/owner", ownerId, BookingState.REJECTED));
+	}
+
+	@Test
+	void bookingCarriesItemAndBookerInServletShape() {
+		client.get().uri("/bookings?state=CURRENT")
+				.header(USER_HEADER, String.valueOf(bookerId))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$[0].status").isEqualTo("APPROVED")
+				.jsonPath("$[0].item.owner").isEqualTo(ownerId)
+				.jsonPath("$[0].item.name").isEqualTo("Байдарка")
+				// поле есть, как у ItemDto модуля server, но в списках бронирований не заполняется
+				.jsonPath("$[0].item").value(hasEntry("views", null))
+				.jsonPath("$[0].booker.id").isEqualTo(bookerId);
+	}
+
+	@Test
+	void unknownStateAndUserAreRejected() {
+		client.get().uri("/bookings?state=SOON")
+				.header(USER_HEADER, String.valueOf(bookerId))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.description").isEqualTo("Неизвестный тип состояния бронирования: SOON");
+		client.get().uri("/bookings/owner")
+				.header(USER_HEADER, String.valueOf(Long.MAX_VALUE))
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private List<Long> ids(String path, long userId, BookingState state) {
+		return client.get().uri(path + "?state=" + state)
+				.header(USER_HEADER, String.valueOf(userId))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(BookingOutputDto.class)
+				.returnResult().getResponseBody().stream()
+				.map(BookingOutputDto::getId)
+				.toList();
+	}
+
+	private long createBooking(long itemId, long userId, LocalDateTime start, LocalDateTime end, String status) {
+		return databaseClient.sql("INSERT INTO bookings (start_dt, end_dt, item_id, booker_id, status) " +
+						"VALUES (:start, :end, :itemId, :bookerId, :status)")
+				.bind("start", start)
+				.bind("end", end)
+				.bind("itemId", itemId)
+				.bind("bookerId", userId)
+				.bind("status", status)
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get("id", Long.class))
+				.one()
+				.block();
+	}
+
+	private long createItem(long userId) {
+		return databaseClient.sql("INSERT INTO items (name, description, available, owner_id) " +
+						"VALUES ('Байдарка', 'Двухместная байдарка', TRUE, :ownerId)")
+				.bind("ownerId", userId)
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get("id", Long.class))
+				.one()
+				.block();
+	}
+
+	private long createUser() {
+		return databaseClient.sql("INSERT INTO users (name, email) VALUES ('Reactive', :email)")
+				.bind("email", UUID.randomUUID() + "@reactive.test")
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get("id", Long.class))
+				.one()
+				.block();
+	}
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.client.ServerClient;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(path = "/bookings")
+public class BookingController {
+    private final ServerClient serverClient;
+
+    @PostMapping
+    public ResponseEntity<byte[]> saveNewBooking(@Valid @RequestBody BookingDto bookingDto,
+                                                 @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) {
+        return serverClient.post("/bookings", bookingDto);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public ResponseEntity<byte[]> approve(@PathVariable @Positive long bookingId,
+                                          @RequestParam(name = "approved") Boolean isApproved,
+                                          @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) {
+        return serverClient.exchange(HttpMethod.PATCH, ServerClient.currentPathAndQuery(), null, null);
+    }
+
+    @GetMapping("/{bookingId}")
+    public ResponseEntity<byte[]> getBookingById(@PathVariable @Positive long bookingId,
+                                                 @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) {
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> getAllByBooker(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                 @RequestHeader(ServerClient.USER_HEADER) @Positive long bookerId) {
+        BookingState.parse(state);
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+
+    // long-poll не кешируется и не должен превышать response-timeout шлюза
+    @GetMapping("/changes")
+    public ResponseEntity<byte[]> getChanges(@RequestHeader(ServerClient.USER_HEADER) @Positive long userId,
+                                             @RequestParam(required = false) @PositiveOrZero Long since,
+                                             @RequestParam(defaultValue = "100") @Positive @Max(1000) int size,
+                                             @RequestParam(defaultValue = "0") @PositiveOrZero @Max(25) int timeout) {
+        return serverClient.exchange(HttpMethod.GET, ServerClient.currentPathAndQuery(), null, null);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) throws IOException {
+        return serverClient.stream(ServerClient.currentPathAndQuery());
+    }
+
+    @GetMapping("/owner")
+    public ResponseEntity<byte[]> getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                @RequestHeader(ServerClient.USER_HEADER) @Positive long ownerId) {
+        BookingState.parse(state);
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+}
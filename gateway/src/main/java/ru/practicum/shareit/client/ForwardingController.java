@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Всё, что не проверяется шлюзом отдельными контроллерами, пересылается основному сервису как есть.
+ * Более конкретные сопоставления контроллеров ресурсов имеют приоритет над {@code /**}.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ForwardingController {
+    private final ServerClient serverClient;
+
+    @RequestMapping("/**")
+    public ResponseEntity<byte[]> forward(HttpServletRequest request,
+                                          @RequestBody(required = false) byte[] body) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        String pathAndQuery = ServerClient.currentPathAndQuery();
+        if (method == HttpMethod.GET) {
+            return serverClient.get(pathAndQuery);
+        }
+        MediaType contentType = request.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM
+                : MediaType.parseMediaType(request.getContentType());
+        return serverClient.exchange(method, pathAndQuery, body, contentType);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.gateway")
+public class GatewayProperties {
+    private String serverUrl = "http://localhost:9090";
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private Pool pool = new Pool();
+    private Cache cache = new Cache();
+    private Stream stream = new Stream();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxTotal = 200;
+        private int maxPerRoute = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private Duration ttl = Duration.ofSeconds(5);
+        private long maxSize = 10_000;
+        // шаблоны путей (Ant), GET по которым можно отдавать из кэша
+        private List<String> paths = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        // отдельный пул: долгие SSE-соединения не занимают соединения обычных запросов
+        private int maxConnections = 10_000;
+        // без данных дольше этого (сервер шлёт heartbeat) соединение считается оборванным
+        private Duration idleTimeout = Duration.ofSeconds(60);
+        private Duration maxDuration = Duration.ofMinutes(35);
+    }
+}
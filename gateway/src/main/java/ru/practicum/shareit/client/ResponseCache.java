@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Локальный кэш успешных ответов на GET. Ответ зависит от пользователя (владелец видит бронирования вещи),
+ * поэтому пользователь входит в ключ. Любая успешная запись через шлюз сбрасывает кэш целиком: связи между
+ * ресурсами (бронирование меняет вещь, комментарий — вещь) проще не отслеживать при коротком TTL.
+ * Записи в обход шлюза видны не позже чем через TTL.
+ */
+@Component
+public class ResponseCache {
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<String> paths;
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+
+    public ResponseCache(GatewayProperties properties, MeterRegistry meterRegistry) {
+        this.paths = List.copyOf(properties.getCache().getPaths());
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getCache().getTtl())
+                .maximumSize(properties.getCache().getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    public boolean isCacheable(String path) {
+        return paths.stream().anyMatch(pattern -> matcher.match(pattern, path));
+    }
+
+    public ResponseEntity<byte[]> get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, ResponseEntity<byte[]> response) {
+        cache.put(key, response);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public static String key(String userId, String pathAndQuery, String accept) {
+        return userId + ' ' + pathAndQuery + ' ' + accept;
+    }
+}
@@ -0,0 +1,289 @@
+package ru.practicum.shareit.client;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Пересылает запросы основному сервису через пул постоянных соединений. Заголовки пользователя,
+ * типа содержимого и идентификатор запроса берутся из текущего входящего запроса; ответ сервиса
+ * (статус, тип, тело) возвращается клиенту как есть.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GatewayProperties.class)
+public class ServerClient implements DisposableBean {
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final List<String> FORWARDED_HEADERS = List.of(USER_HEADER, HttpHeaders.ACCEPT, "X-Request-Id",
+            "Idempotency-Key");
+
+    private final CloseableHttpClient httpClient;
+    private final CloseableHttpClient streamClient;
+    private final CloseableHttpAsyncClient uploadClient;
+    private final ExecutorService uploadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RestClient restClient;
+    private final String serverUrl;
+    private final ResponseCache cache;
+
+    public ServerClient(GatewayProperties properties, ResponseCache cache, RestClient.Builder builder) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getPool().getMaxTotal())
+                .setMaxConnPerRoute(properties.getPool().getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .build();
+        this.streamClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getStream().getMaxConnections())
+                        .setMaxConnPerRoute(properties.getStream().getMaxConnections())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                                .setSocketTimeout(Timeout.of(properties.getStream().getIdleTimeout()))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(properties.getStream().getIdleTimeout()))
+                        .build())
+                .build();
+        this.uploadClient = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getStream().getMaxConnections())
+                        .setMaxConnPerRoute(properties.getStream().getMaxConnections())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                                .setSocketTimeout(Timeout.of(properties.getStream().getIdleTimeout()))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(properties.getStream().getIdleTimeout()))
+                        .build())
+                .build();
+        this.uploadClient.start();
+        this.serverUrl = properties.getServerUrl();
+        this.restClient = builder
+                .baseUrl(properties.getServerUrl())
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+        this.cache = cache;
+    }
+
+    public ResponseEntity<byte[]> get(String pathAndQuery) {
+        HttpServletRequest request = currentRequest();
+        int query = pathAndQuery.indexOf('?');
+        if (!cache.isCacheable(query < 0 ? pathAndQuery : pathAndQuery.substring(0, query))) {
+            return exchange(HttpMethod.GET, pathAndQuery, null, null);
+        }
+        String key = ResponseCache.key(request.getHeader(USER_HEADER), pathAndQuery,
+                request.getHeader(HttpHeaders.ACCEPT));
+        ResponseEntity<byte[]> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ResponseEntity<byte[]> response = exchange(HttpMethod.GET, pathAndQuery, null, null);
+        if (response.getStatusCode().value() == 200) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    public ResponseEntity<byte[]> post(String pathAndQuery, Object body) {
+        return exchange(HttpMethod.POST, pathAndQuery, body, MediaType.APPLICATION_JSON);
+    }
+
+    public ResponseEntity<byte[]> patch(String pathAndQuery, Object body) {
+        return exchange(HttpMethod.PATCH, pathAndQuery, body, MediaType.APPLICATION_JSON);
+    }
+
+    public ResponseEntity<byte[]> exchange(HttpMethod method, String pathAndQuery, Object body,
+                                           MediaType contentType) {
+        HttpServletRequest request = currentRequest();
+        RestClient.RequestBodySpec spec = restClient.method(method)
+                .uri(pathAndQuery)
+                .headers(headers -> FORWARDED_HEADERS.forEach(name -> {
+                    String value = request.getHeader(name);
+                    if (value != null) {
+                        headers.set(name, value);
+                    }
+                }));
+        if (body != null) {
+            spec.contentType(contentType).body(body);
+        }
+        ResponseEntity<byte[]> response = spec.exchange((clientRequest, clientResponse) -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (clientResponse.getHeaders().getContentType() != null) {
+                headers.setContentType(clientResponse.getHeaders().getContentType());
+            }
+            return new ResponseEntity<>(read(clientResponse.getBody()), headers, clientResponse.getStatusCode());
+        });
+        if (method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateAll();
+        }
+        return response;
+    }
+
+    /**
+     * Потоковый ответ сервиса (SSE): тело передаётся клиенту по мере поступления, без буферизации и кэша.
+     * Соединение с сервисом закрывается, когда сервис завершает поток или клиент отключается.
+     */
+    public ResponseEntity<StreamingResponseBody> stream(String pathAndQuery) throws IOException {
+        HttpServletRequest request = currentRequest();
+        HttpGet get = new HttpGet(serverUrl + pathAndQuery);
+        FORWARDED_HEADERS.forEach(name -> {
+            String value = request.getHeader(name);
+            if (value != null) {
+                get.setHeader(name, value);
+            }
+        });
+        ClassicHttpResponse response = streamClient.executeOpen(null, get, null);
+        HttpHeaders headers = new HttpHeaders();
+        Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, contentType.getValue());
+        }
+        headers.setCacheControl(CacheControl.noStore());
+        StreamingResponseBody body = out -> {
+            try (response; InputStream in = response.getEntity() == null ? InputStream.nullInputStream()
+                    : response.getEntity().getContent()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatusCode.valueOf(response.getCode()));
+    }
+
+    /**
+     * Потоковая загрузка (импорт): тело запроса передаётся сервису по мере чтения, ответ — клиенту по мере
+     * поступления, одновременно. Сервис отвечает на каждую пачку, не дочитав загрузку, поэтому нужен асинхронный
+     * клиент: блокирующий читает ответ только после отправки всего тела, и на большом файле ответ сервиса
+     * заполняет буферы сокетов, сервис перестаёт читать, а шлюз — отправлять.
+     */
+    public void upload(String pathAndQuery, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        BasicHttpRequest post = new BasicHttpRequest(Method.POST, URI.create(serverUrl + pathAndQuery));
+        FORWARDED_HEADERS.forEach(name -> {
+            String value = request.getHeader(name);
+            if (value != null) {
+                post.setHeader(name, value);
+            }
+        });
+        UploadBodyProducer body = new UploadBodyProducer(request.getContentType() == null
+                ? MediaType.APPLICATION_OCTET_STREAM_VALUE : request.getContentType());
+        UploadResponseConsumer result = new UploadResponseConsumer();
+        Future<Void> exchange = uploadClient.execute(new BasicRequestProducer(post, body), result, null);
+        Future<?> sending = uploadExecutor.submit(() -> {
+            body.transfer(request.getInputStream(), exchange);
+            return null;
+        });
+        try {
+            result.writeTo(response, exchange);
+            sending.get();
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Загрузка прервана");
+        } catch (ExecutionException e) {
+            exchange.cancel(true);
+            awaitQuietly(sending);
+            if (response.isCommitted()) {
+                // ответ уже идёт клиенту: остаётся оборвать соединение
+                throw new IOException("Обрыв потоковой загрузки", e.getCause());
+            }
+            throw new ResourceAccessException("Сбой потоковой загрузки: " + e.getCause().getMessage(),
+                    e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+        }
+        if (response.getStatus() / 100 == 2) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+        streamClient.close();
+        uploadClient.close(CloseMode.GRACEFUL);
+        uploadExecutor.close();
+    }
+
+    // чтение тела не держит ответ: оно завершается вместе с обменом, ошибка уже получена из обмена
+    private static void awaitQuietly(Future<?> task) throws InterruptedIOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Загрузка прервана");
+        } catch (ExecutionException e) {
+            log.debug("Чтение тела загрузки прервано: {}", e.getCause().getMessage());
+        }
+    }
+
+    private static byte[] read(InputStream body) throws IOException {
+        return body == null ? new byte[0] : StreamUtils.copyToByteArray(body);
+    }
+
+    /**
+     * Путь и строка запроса текущего входящего запроса — для пересылки без изменений.
+     */
+    public static String currentPathAndQuery() {
+        HttpServletRequest request = currentRequest();
+        return request.getQueryString() == null ? request.getRequestURI()
+                : request.getRequestURI() + '?' + request.getQueryString();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Потоковые ответы ({@link ServerClient#stream}) копируются блокирующим чтением, по потоку на соединение.
+ * Виртуальные потоки делают тысячи простаивающих SSE-подписок дешёвыми и не занимают общий пул задач.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class StreamingConfig implements WebMvcConfigurer {
+    private final GatewayProperties properties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new VirtualThreadTaskExecutor("gateway-stream-"));
+        configurer.setDefaultTimeout(properties.getStream().getMaxDuration().toMillis());
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тело потоковой загрузки для асинхронного клиента. Поток, читающий входящий запрос, кладёт куски в ограниченную
+ * очередь, поток ввода-вывода клиента забирает их, когда сокет готов к записи. Ни одна сторона не ждёт другую,
+ * удерживая блокировку: классический мост httpcore5 (SharedOutputBuffer) в этом месте взаимоблокируется.
+ */
+final class UploadBodyProducer implements AsyncEntityProducer {
+    private static final int CHUNK_SIZE = 8192;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    private static final long POLL_MILLIS = 100;
+
+    // 16 кусков по 8 КБ: столько тела шлюз держит в памяти на одну загрузку
+    private final BlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(16);
+    private final String contentType;
+    private volatile DataStreamChannel channel;
+    // только поток ввода-вывода
+    private ByteBuffer current;
+    private boolean ended;
+
+    UploadBodyProducer(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Читает тело до конца в очередь. Прекращает чтение, если обмен с сервисом уже завершился, например сервис
+     * ответил ошибкой, не дочитав тело.
+     */
+    void transfer(InputStream in, Future<?> exchange) throws IOException, InterruptedException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            if (!offer(ByteBuffer.wrap(Arrays.copyOf(buffer, read)), exchange)) {
+                return;
+            }
+        }
+        offer(END, exchange);
+    }
+
+    private boolean offer(ByteBuffer chunk, Future<?> exchange) throws InterruptedException {
+        while (!chunks.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (exchange.isDone()) {
+                return false;
+            }
+        }
+        DataStreamChannel output = channel;
+        if (output != null) {
+            output.requestOutput();
+        }
+        return true;
+    }
+
+    @Override
+    public void produce(DataStreamChannel channel) throws IOException {
+        this.channel = channel;
+        while (!ended) {
+            if (current == null) {
+                current = chunks.poll();
+            }
+            if (current == null) {
+                return;
+            }
+            if (current == END) {
+                ended = true;
+                channel.endStream();
+                return;
+            }
+            channel.write(current);
+            if (current.hasRemaining()) {
+                return;
+            }
+            current = null;
+        }
+    }
+
+    @Override
+    public int available() {
+        // пока канал не получен, клиент должен вызвать produce хотя бы раз
+        return !ended && (channel == null || current != null || !chunks.isEmpty()) ? 1 : 0;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public void failed(Exception cause) {
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return null;
+    }
+
+    @Override
+    public void releaseResources() {
+        chunks.clear();
+    }
+}
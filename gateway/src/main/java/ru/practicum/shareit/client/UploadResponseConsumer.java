@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ответ на потоковую загрузку. Поток ввода-вывода клиента только складывает заголовок и куски тела в очередь,
+ * а пишет их клиенту шлюза поток запроса ({@link #writeTo}) — медленный клиент не останавливает поток
+ * ввода-вывода. Окно приёма соединения пополняется только на уже записанные байты, поэтому сверх записанного
+ * в очереди лежит не больше начального окна.
+ */
+final class UploadResponseConsumer implements AsyncResponseConsumer<Void> {
+    private static final Object END = new Object();
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    // записанные клиенту байты, на которые окно ещё не пополнено
+    private final AtomicInteger credit = new AtomicInteger();
+    private volatile CapacityChannel capacity;
+    private volatile FutureCallback<Void> callback;
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails details, HttpContext context,
+                                FutureCallback<Void> callback) {
+        this.callback = callback;
+        events.add(response);
+        if (details == null) {
+            events.add(END);
+            callback.completed(null);
+        }
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        capacity = capacityChannel;
+        grant(capacityChannel);
+    }
+
+    private void grant(CapacityChannel capacityChannel) throws IOException {
+        int bytes = credit.getAndSet(0);
+        if (bytes > 0) {
+            capacityChannel.update(bytes);
+        }
+    }
+
+    @Override
+    public void consume(ByteBuffer src) {
+        byte[] chunk = new byte[src.remaining()];
+        src.get(chunk);
+        events.add(chunk);
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+        events.add(END);
+        callback.completed(null);
+    }
+
+    @Override
+    public void failed(Exception cause) {
+    }
+
+    @Override
+    public void releaseResources() {
+    }
+
+    /**
+     * Переносит статус и тип ответа сервиса в ответ шлюза и копирует тело с flush после каждого куска,
+     * чтобы клиент видел результаты пачек сразу. Возвращается, когда сервис завершил ответ.
+     */
+    void writeTo(HttpServletResponse response, Future<Void> exchange)
+            throws IOException, InterruptedException, ExecutionException {
+        OutputStream out = null;
+        Object event;
+        while ((event = events.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) != END) {
+            if (event == null) {
+                if (exchange.isDone() && events.isEmpty()) {
+                    exchange.get();
+                    throw new IOException("Ответ сервиса оборвался");
+                }
+            } else if (event instanceof HttpResponse head) {
+                response.setStatus(head.getCode());
+                Header type = head.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+                if (type != null) {
+                    response.setContentType(type.getValue());
+                }
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            } else {
+                byte[] chunk = (byte[]) event;
+                if (out == null) {
+                    out = response.getOutputStream();
+                }
+                out.write(chunk);
+                out.flush();
+                credit.addAndGet(chunk.length);
+                CapacityChannel capacityChannel = capacity;
+                if (capacityChannel != null) {
+                    grant(capacityChannel);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+
+/**
+ * Ошибки, обнаруженные самим шлюзом; ответы основного сервиса, включая ошибки, передаются клиенту как есть.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ErrorHandler {
+    @ExceptionHandler({ValidationException.class, ConstraintViolationException.class,
+            MethodArgumentNotValidException.class, HandlerMethodValidationException.class,
+            MissingRequestHeaderException.class, MissingServletRequestParameterException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleBadRequest(final Exception e) {
+        log.error("Ошибка валидации: {}", e.getMessage());
+        return new ErrorResponse("Ошибка валидации", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handle(final ConditionsNotMetException e) {
+        log.error("Ошибка валидации: {}", e.getMessage());
+        return new ErrorResponse("Ошибка валидации", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handle(final ResourceAccessException e) {
+        log.error("Основной сервис недоступен: {}", e.getMessage());
+        return new ErrorResponse("Сервис недоступен", e.getMessage());
+    }
+}
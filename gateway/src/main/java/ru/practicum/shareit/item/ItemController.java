@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.client.ServerClient;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/items")
+public class ItemController {
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ServerClient serverClient;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getItem(@PathVariable("id") @Positive Long itemId,
+                                          @RequestHeader(ServerClient.USER_HEADER) long userId) {
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+
+    /**
+     * Пустая строка поиска ничего не находит — отвечаем сразу, не обращаясь к сервису.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchItems(@RequestParam @NotNull String text) {
+        if (text.isBlank()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(EMPTY_LIST);
+        }
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<byte[]> suggest(@RequestParam @NotNull String prefix,
+                                          @RequestParam(required = false) @Positive Integer limit) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(EMPTY_LIST);
+        }
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+
+    @PostMapping
+    public ResponseEntity<byte[]> saveNewItem(@RequestHeader(ServerClient.USER_HEADER) @Positive Long userId,
+                                              @Valid @RequestBody ItemDto itemDto) {
+        return serverClient.post("/items", itemDto);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<byte[]> updateItem(@PathVariable("id") @Positive Long itemId,
+                                             @RequestHeader(ServerClient.USER_HEADER) @Positive Long userId,
+                                             @Valid @RequestBody ItemUpdateDto itemDto) {
+        return serverClient.patch("/items/" + itemId, itemDto);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public ResponseEntity<byte[]> addComment(@PathVariable @Positive long itemId,
+                                             @Valid @RequestBody CommentDto commentDto,
+                                             @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) {
+        return serverClient.post("/items/" + itemId + "/comment", commentDto);
+    }
+}
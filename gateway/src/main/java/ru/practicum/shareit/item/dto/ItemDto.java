@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ItemDto {
+    @NotBlank
+    @Size(max = 500)
+    private String name;
+    @NotBlank
+    @Size(max = 2000)
+    private String description;
+    @NotNull
+    private Boolean available;
+    private Long requestId;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ItemUpdateDto {
+    @Size(max = 500)
+    private String name;
+    @Size(max = 2000)
+    private String description;
+    private Boolean available;
+}
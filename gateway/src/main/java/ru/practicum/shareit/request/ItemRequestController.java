@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.client.ServerClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(path = "/requests")
+public class ItemRequestController {
+    private final ServerClient serverClient;
+
+    @PostMapping
+    public ResponseEntity<byte[]> saveNewRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+                                                 @RequestHeader(ServerClient.USER_HEADER) @Positive long userId) {
+        return serverClient.post("/requests", itemRequestDto);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<byte[]> getOtherRequests(@RequestHeader(ServerClient.USER_HEADER) @Positive long userId,
+                                                   @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return serverClient.get(ServerClient.currentPathAndQuery());
+    }
+}
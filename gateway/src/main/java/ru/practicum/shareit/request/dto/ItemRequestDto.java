@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ItemRequestDto {
+    @NotBlank
+    @Size(max = 2000)
+    private String description;
+}
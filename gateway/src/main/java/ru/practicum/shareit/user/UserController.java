@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.client.ServerClient;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import java.io.IOException;
+import java.util.Objects;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/users")
+public class UserController {
+    private final ServerClient serverClient;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getUser(@PathVariable("id") @Positive Long userId) {
+        return serverClient.get("/users/" + userId);
+    }
+
+    @PostMapping
+    public ResponseEntity<byte[]> saveNewUser(@Valid @RequestBody UserDto userDto) {
+        return serverClient.post("/users", userDto);
+    }
+
+    // импорт идёт потоком в обе стороны: тело не проверяется и не буферизуется шлюзом
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serverClient.upload(ServerClient.currentPathAndQuery(), request, response);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<byte[]> update(@PathVariable("id") @Positive Long userId,
+                                         @Valid @RequestBody UserUpdateDto userDto) {
+        if (Objects.isNull(userDto.getEmail()) && Objects.isNull(userDto.getName())) {
+            throw new ConditionsNotMetException("Должно быть заполнено поле email либо name!");
+        }
+        return serverClient.patch("/users/" + userId, userDto);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserDto {
+    @NotBlank
+    @Email
+    @Size(max = 500)
+    private String email;
+    @NotBlank
+    @Size(max = 255)
+    private String name;
+}
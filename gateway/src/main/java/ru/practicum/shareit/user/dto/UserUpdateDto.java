@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserUpdateDto {
+    @Email
+    @Size(max = 500)
+    private String email;
+    @Size(max = 255)
+    private String name;
+}
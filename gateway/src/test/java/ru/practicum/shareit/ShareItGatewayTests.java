@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// основной сервис не запущен: проверяется только то, что шлюз решает сам
+@SpringBootTest
+@AutoConfigureMockMvc
+class ShareItGatewayTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void blankSearchIsAnsweredWithoutServer() throws Exception {
+		mvc.perform(get("/items/search").param("text", " "))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
+	}
+
+	@Test
+	void unknownBookingStateIsRejected() throws Exception {
+		mvc.perform(get("/bookings/owner").param("state", "SOMETIME").header("X-Sharer-User-Id", 1))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void invalidBookingIsRejected() throws Exception {
+		mvc.perform(post("/bookings").header("X-Sharer-User-Id", 1)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"itemId\":1,\"start\":\"2100-01-02T10:00:00\",\"end\":\"2100-01-01T10:00:00\"}"))
+				.andExpect(status().isBadRequest());
+	}
+}
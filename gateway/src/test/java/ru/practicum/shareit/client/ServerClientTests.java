@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityConsumer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// вместо основного сервиса — HTTP-сервер из JDK, шлюз запущен на настоящем порту
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServerClientTests {
+	private static final String LINE = "{\"email\":\"import@gateway.test\",\"name\":\"Импорт\"}\n";
+	// заметно больше буферов сокетов: без одновременной отправки и чтения загрузка встанет
+	private static final int LINES = 500_000;
+
+	private static final AtomicInteger itemReads = new AtomicInteger();
+	private static final AtomicInteger userReads = new AtomicInteger();
+	private static final ExecutorService executor = Executors.newCachedThreadPool();
+	private static final HttpServer server = startServer();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void serverUrl(DynamicPropertyRegistry registry) {
+		registry.add("shareit.gateway.server-url", () -> "http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stopServer() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	void importIsStreamedBothWaysWithoutBuffering() throws Exception {
+		try (CloseableHttpAsyncClient client = HttpAsyncClients.createDefault()) {
+			client.start();
+			BasicHttpRequest request = new BasicHttpRequest(Method.POST, URI.create(url("/users/import")));
+			AbstractClassicEntityProducer body = new AbstractClassicEntityProducer(8192,
+					ContentType.create("application/x-ndjson", StandardCharsets.UTF_8), executor) {
+				@Override
+				protected void produceData(ContentType type, OutputStream out) throws IOException {
+					byte[] line = LINE.getBytes(StandardCharsets.UTF_8);
+					for (int i = 0; i < LINES; i++) {
+						out.write(line);
+					}
+				}
+			};
+			AbstractClassicEntityConsumer<Long> lines = new AbstractClassicEntityConsumer<>(8192, executor) {
+				@Override
+				protected Long consumeData(ContentType type, InputStream in) throws IOException {
+					return in.transferTo(OutputStream.nullOutputStream());
+				}
+			};
+
+			Message<HttpResponse, Long> response = client.execute(new BasicRequestProducer(request, body),
+					new BasicResponseConsumer<>(lines), null).get(60, TimeUnit.SECONDS);
+
+			assertEquals(200, response.getHead().getCode());
+			assertEquals("application/x-ndjson", response.getHead().getFirstHeader("Content-Type").getValue());
+			assertEquals((long) LINES * LINE.getBytes(StandardCharsets.UTF_8).length, response.getBody());
+		}
+	}
+
+	@Test
+	void itemReadsReachServerToBeCountedAsViews() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		int items = itemReads.get();
+		int users = userReads.get();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(200, client.send(HttpRequest.newBuilder(URI.create(url("/items/1")))
+					.header(ServerClient.USER_HEADER, "1").build(), BodyHandlers.ofString()).statusCode());
+			assertEquals(200, client.send(HttpRequest.newBuilder(URI.create(url("/users/1"))).build(),
+					BodyHandlers.ofString()).statusCode());
+		}
+
+		// каждый просмотр вещи доходит до сервиса, пользователь по-прежнему отдаётся из кэша
+		assertEquals(items + 3, itemReads.get());
+		assertEquals(users + 1, userReads.get());
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + port + path;
+	}
+
+	private static HttpServer startServer() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.setExecutor(executor);
+			// ответ на каждую строку сразу, не дожидаясь конца загрузки, как импорт основного сервиса
+			server.createContext("/users/import", exchange -> {
+				exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+				exchange.sendResponseHeaders(200, 0);
+				try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) >= 0) {
+						out.write(buffer, 0, read);
+						out.flush();
+					}
+				}
+			});
+			server.createContext("/items/", exchange -> json(exchange, itemReads, "{\"id\":1,\"views\":0}"));
+			server.createContext("/users/", exchange -> json(exchange, userReads, "{\"id\":1}"));
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void json(HttpExchange exchange, AtomicInteger reads, String body)
+			throws IOException {
+		reads.incrementAndGet();
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
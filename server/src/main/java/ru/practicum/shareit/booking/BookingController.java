@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.service.BookingChangeFeed;
+import ru.practicum.shareit.booking.service.BookingEventStream;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.workload.Workload;
+import ru.practicum.shareit.config.workload.WorkloadGroup;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.idempotency.IdempotencyStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RequiredArgsConstructor
+@Validated
+@RestController
+@RequestMapping(path = "/bookings")
+public class BookingController {
+    private final BookingService bookingService;
+    private final IdempotencyStore idempotencyStore;
+    private final BookingChangeFeed bookingChangeFeed;
+    private final BookingEventStream bookingEventStream;
+
+    /**
+     * С заголовком Idempotency-Key повтор запроса (в том числе параллельный) не создаёт второе бронирование,
+     * а возвращает ответ первого.
+     */
+    @PostMapping
+    public BookingOutputDto saveNewBooking(@Valid @RequestBody BookingDto bookingDtoIn,
+                                           @RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestHeader(value = "Idempotency-Key", required = false)
+                                           @Size(max = 255) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /bookings", userId, bookingDtoIn,
+                () -> bookingService.save(bookingDtoIn, userId));
+    }
+
+    @PatchMapping("/{bookingId}")
+    public BookingOutputDto approve(@PathVariable long bookingId, @RequestParam(name = "approved") Boolean isApproved,
+                                    @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.approve(bookingId, isApproved, userId);
+    }
+
+    /**
+     * Параметр fields (например, fields=start,end,status) ограничивает поля ответа; вещь и арендатор
+     * загружаются и маппятся, только если запрошены.
+     */
+    @GetMapping("/{bookingId}")
+    public MappingJacksonValue getBookingById(@PathVariable long bookingId,
+                                              @RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, BookingOutputDto.class);
+        return fieldSet.apply(bookingService.getBookingById(bookingId, userId, fieldSet),
+                BookingOutputDto.FIELDS_FILTER);
+    }
+
+    /**
+     * Пакетное чтение: GET /bookings?ids=1,2,3. Бронирования, которые пользователь не может
+     * просматривать, перечисляются в forbidden, отсутствующие — в missing.
+     */
+    @GetMapping(params = "ids")
+    public MappingJacksonValue getBookings(@RequestParam @Size(min = 1, max = 100) List<Long> ids,
+                                           @RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, BookingOutputDto.class);
+        return fieldSet.apply(bookingService.getBookings(ids, userId, fieldSet), BookingOutputDto.FIELDS_FILTER);
+    }
+
+    @GetMapping
+    @Workload(WorkloadGroup.BOOKING_LISTING)
+    public MappingJacksonValue getAllByBooker(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                              @RequestHeader("X-Sharer-User-Id") long bookerId,
+                                              @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, BookingOutputDto.class);
+        return fieldSet.apply(bookingService.getAllByBooker(state, bookerId, fieldSet),
+                BookingOutputDto.FIELDS_FILTER);
+    }
+
+    /**
+     * Лента изменений: бронирования пользователя как арендатора и как владельца, созданные или сменившие
+     * статус после курсора since. При timeout > 0 и отсутствии изменений ответ ждёт их до timeout секунд.
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<BookingChangesDto> getChanges(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestParam(required = false) @PositiveOrZero Long since,
+                                                           @RequestParam(defaultValue = "100") @Positive @Max(1000)
+                                                           int size,
+                                                           @RequestParam(defaultValue = "0") @PositiveOrZero @Max(25)
+                                                           int timeout) {
+        return bookingChangeFeed.poll(userId, since, size, Duration.ofSeconds(timeout));
+    }
+
+    /**
+     * SSE-поток: новые бронирования вещей пользователя (booking-requested) и смена статуса его бронирований
+     * (booking-status).
+     */
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingEventStream.subscribe(userId);
+    }
+
+    @GetMapping("/owner")
+    @Workload(WorkloadGroup.BOOKING_LISTING)
+    public MappingJacksonValue getAllByOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                             @RequestHeader("X-Sharer-User-Id") long ownerId,
+                                             @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, BookingOutputDto.class);
+        return fieldSet.apply(bookingService.getAllByOwner(ownerId, state, fieldSet),
+                BookingOutputDto.FIELDS_FILTER);
+    }
+}
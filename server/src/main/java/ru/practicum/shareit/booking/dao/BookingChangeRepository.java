@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingChange;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingChangeRepository extends EntityRepository<BookingChange> {
+    @Query("SELECT c FROM BookingChange c " +
+            "WHERE c.seq > ?2 " +
+            "AND (c.bookerId = ?1 OR c.ownerId = ?1) " +
+            "ORDER BY c.seq")
+    List<BookingChange> findForUserAfter(long userId, long seq, Pageable pageable);
+
+    @Query("SELECT MAX(c.seq) FROM BookingChange c")
+    Optional<Long> findLastSeq();
+
+    /**
+     * Блокирует строку booking_change_lock до конца транзакции: записи журнала вставляются под ней,
+     * и seq следует порядку коммитов.
+     */
+    @Query(value = "SELECT id FROM booking_change_lock FOR UPDATE", nativeQuery = true)
+    List<Integer> lockForAppend();
+}
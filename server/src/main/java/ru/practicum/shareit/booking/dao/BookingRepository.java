@@ -1,18 +1,22 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.utils.EntityRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends EntityRepository<Booking>, BookingStatusRepository {
     List<Booking> findAllByBookerId(long bookerId, Sort start);
 
     @Query("SELECT b FROM Booking b " +
@@ -62,5 +66,44 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Optional<Booking> findFirstByItemIdAndStartAfterAndStatus(long itemId, LocalDateTime localDateTime,
                                                               BookingStatus bookingStatus, Sort end);
 
+    /**
+     * Владелец вещи бронирования без загрузки самой вещи — для проверки прав на просмотр.
+     */
+    @Query("SELECT b.item.owner.id FROM Booking b WHERE b.id = ?1")
+    Optional<Long> findOwnerIdById(long bookingId);
+
+    /**
+     * Бронирования с вещью и арендатором, загруженными одним запросом, — для использования вне транзакции.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findWithItemByIdIn(Collection<Long> ids);
+
+    List<Booking> findAllByItemIdInAndStatus(Collection<Long> itemIds, BookingStatus bookingStatus);
+
     Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime);
-}
\ No newline at end of file
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.status = ?1 " +
+            "AND b.start < ?2 " +
+            "AND b.id > ?3 " +
+            "ORDER BY b.id")
+    List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime start, long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.item.id IN ?1 " +
+            "ORDER BY b.id")
+    List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.id")
+    List<Long> findIdsByBookerId(long bookerId, Pageable pageable);
+
+    Optional<Booking> findFirstByStatusAndStartBeforeOrderByStartAsc(BookingStatus status, LocalDateTime start);
+
+    @Query("SELECT new ru.practicum.shareit.item.dao.ItemCount(b.item.id, COUNT(b)) FROM Booking b " +
+            "WHERE b.status = ?1 " +
+            "GROUP BY b.item.id")
+    List<ItemCount> countByStatusGroupByItem(BookingStatus status);
+}
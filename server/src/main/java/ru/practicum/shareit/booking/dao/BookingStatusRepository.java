@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingStatusRepository {
+    /**
+     * Переводит бронирования из {@code currentStatus} в {@code newStatus} и возвращает id тех, что действительно
+     * сменили статус. Строки блокируются до конца транзакции, поэтому параллельный вызов с теми же id
+     * (например, задача истечения на другом экземпляре) их уже не получит.
+     */
+    List<Long> updateStatus(Collection<Long> ids, BookingStatus currentStatus, BookingStatus newStatus);
+}
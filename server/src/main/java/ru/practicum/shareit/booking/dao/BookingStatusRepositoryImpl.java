@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookingStatusRepositoryImpl implements BookingStatusRepository {
+    private static final String LOCK = "SELECT id FROM bookings WHERE id IN (:ids) AND status = :currentStatus " +
+            "ORDER BY id FOR UPDATE";
+    private static final String UPDATE = "UPDATE bookings SET status = :newStatus WHERE id IN (:locked)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional
+    @Override
+    public List<Long> updateStatus(Collection<Long> ids, BookingStatus currentStatus, BookingStatus newStatus) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("currentStatus", currentStatus.name())
+                .addValue("newStatus", newStatus.name());
+        List<Long> locked = jdbcTemplate.queryForList(LOCK, params, Long.class);
+        if (!locked.isEmpty()) {
+            jdbcTemplate.update(UPDATE, params.addValue("locked", locked));
+        }
+        return locked;
+    }
+}
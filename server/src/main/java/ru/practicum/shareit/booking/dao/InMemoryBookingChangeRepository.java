@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingChange;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("in-memory")
+@Order(90)
+public class InMemoryBookingChangeRepository extends BaseInMemoryRepository<BookingChange>
+        implements BookingChangeRepository {
+
+    @Override
+    protected Long getId(BookingChange change) {
+        return change.getSeq();
+    }
+
+    @Override
+    protected void setId(BookingChange change, long id) {
+        change.setSeq(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "booking-changes";
+    }
+
+    @Override
+    public void writeEntity(BookingChange change, DataOutput out) throws IOException {
+        out.writeLong(change.getBookingId());
+        out.writeLong(change.getOwnerId());
+        out.writeLong(change.getBookerId());
+        StorageCodec.writeString(out, change.getStatus().name());
+        StorageCodec.writeDateTime(out, change.getChanged());
+    }
+
+    @Override
+    public BookingChange readEntity(long id, DataInputStream in) throws IOException {
+        BookingChange change = new BookingChange();
+        change.setSeq(id);
+        change.setBookingId(in.readLong());
+        change.setOwnerId(in.readLong());
+        change.setBookerId(in.readLong());
+        change.setStatus(BookingStatus.valueOf(StorageCodec.readString(in)));
+        change.setChanged(StorageCodec.readDateTime(in));
+        return change;
+    }
+
+    @Override
+    public List<BookingChange> findForUserAfter(long userId, long seq, Pageable pageable) {
+        return stream()
+                .filter(change -> change.getSeq() > seq)
+                .filter(change -> change.getBookerId() == userId || change.getOwnerId() == userId)
+                .sorted(Comparator.comparing(BookingChange::getSeq))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findLastSeq() {
+        return stream()
+                .map(BookingChange::getSeq)
+                .max(Comparator.naturalOrder());
+    }
+
+    // транзакций нет: запись видна сразу после сохранения, блокировать нечего
+    @Override
+    public List<Integer> lockForAppend() {
+        return List.of();
+    }
+}
@@ -0,0 +1,297 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.InMemoryItemRepository;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.InMemoryUserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.LongIndex;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("in-memory")
+@Order(40)
+@RequiredArgsConstructor
+public class InMemoryBookingRepository extends BaseInMemoryRepository<Booking> implements BookingRepository {
+
+    private final InMemoryItemRepository itemRepository;
+    private final InMemoryUserRepository userRepository;
+    private final LongIndex byBooker = new LongIndex();
+    private final LongIndex byItem = new LongIndex();
+
+    @Override
+    protected Long getId(Booking booking) {
+        return booking.getId();
+    }
+
+    @Override
+    protected void setId(Booking booking, long id) {
+        booking.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "bookings";
+    }
+
+    @Override
+    public void writeEntity(Booking booking, DataOutput out) throws IOException {
+        StorageCodec.writeDateTime(out, booking.getStart());
+        StorageCodec.writeDateTime(out, booking.getEnd());
+        out.writeLong(booking.getItem().getId());
+        out.writeLong(booking.getBooker().getId());
+        StorageCodec.writeString(out, booking.getStatus() == null ? null : booking.getStatus().name());
+    }
+
+    @Override
+    public Booking readEntity(long id, DataInputStream in) throws IOException {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(StorageCodec.readDateTime(in));
+        booking.setEnd(StorageCodec.readDateTime(in));
+        Item item = itemRepository.findInStorage(in.readLong()).orElse(null);
+        User booker = userRepository.findInStorage(in.readLong()).orElse(null);
+        if (item == null || booker == null) {
+            return null;
+        }
+        booking.setItem(item);
+        booking.setBooker(booker);
+        String status = StorageCodec.readString(in);
+        booking.setStatus(status == null ? null : BookingStatus.valueOf(status));
+        return booking;
+    }
+
+    @Override
+    protected Booking resolve(Booking booking) {
+        itemRepository.findInStorage(booking.getItem().getId()).ifPresent(booking::setItem);
+        userRepository.findInStorage(booking.getBooker().getId()).ifPresent(booking::setBooker);
+        return booking;
+    }
+
+    @Override
+    protected void onPut(Booking booking) {
+        byBooker.add(booking.getBooker().getId(), booking.getId());
+        byItem.add(booking.getItem().getId(), booking.getId());
+    }
+
+    @Override
+    protected void onRemove(Booking booking) {
+        byBooker.remove(booking.getBooker().getId(), booking.getId());
+        byItem.remove(booking.getItem().getId(), booking.getId());
+    }
+
+    @Override
+    public List<Booking> findAllByBookerId(long bookerId, Sort start) {
+        return sorted(byBooker(bookerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateCurrent(long bookerId, Sort start) {
+        return sorted(byBooker(bookerId).filter(current()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStatePast(long brokerId, Sort start) {
+        return sorted(byBooker(brokerId).filter(past()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateFuture(long bookerId, Sort start) {
+        return sorted(byBooker(bookerId).filter(future()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus bookingStatus, Sort start) {
+        return sorted(byBooker(bookerId).filter(booking -> booking.getStatus() == bookingStatus), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerId(long ownerId, Sort start) {
+        return sorted(byOwner(ownerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStateCurrent(long ownerId, Sort start) {
+        return sorted(byOwner(ownerId).filter(current()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStatePast(long ownerId, Sort start) {
+        return sorted(byOwner(ownerId).filter(past()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStateFuture(long ownerId, Sort start) {
+        return sorted(byOwner(ownerId).filter(future()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStatus(long ownerId, BookingStatus bookingStatus, Sort start) {
+        return sorted(byOwner(ownerId).filter(booking -> booking.getStatus() == bookingStatus), start);
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItemIdAndStartLessThanEqualAndStatus(long itemId, LocalDateTime localDateTime,
+                                                                             BookingStatus bookingStatus, Sort end) {
+        return byItem(itemId)
+                .filter(booking -> booking.getStatus() == bookingStatus)
+                .filter(booking -> !booking.getStart().isAfter(localDateTime))
+                .min(comparator(end));
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItemIdAndStartAfterAndStatus(long itemId, LocalDateTime localDateTime,
+                                                                     BookingStatus bookingStatus, Sort end) {
+        return byItem(itemId)
+                .filter(booking -> booking.getStatus() == bookingStatus)
+                .filter(booking -> booking.getStart().isAfter(localDateTime))
+                .min(comparator(end));
+    }
+
+    @Override
+    public Optional<Long> findOwnerIdById(long bookingId) {
+        return findById(bookingId).map(booking -> booking.getItem().getOwner().getId());
+    }
+
+    @Override
+    public List<Booking> findWithItemByIdIn(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Booking> findAllByItemIdInAndStatus(Collection<Long> itemIds, BookingStatus bookingStatus) {
+        return itemIds.stream()
+                .flatMap(this::byItem)
+                .filter(booking -> booking.getStatus() == bookingStatus)
+                .toList();
+    }
+
+    @Override
+    public Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime) {
+        return byItem(itemId)
+                .anyMatch(booking -> booking.getBooker().getId() == bookerId &&
+                        booking.getEnd().isBefore(localDateTime));
+    }
+
+    @Override
+    public List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime start, long afterId,
+                                                    Pageable pageable) {
+        return stream()
+                .filter(booking -> booking.getStatus() == status)
+                .filter(booking -> booking.getStart().isBefore(start))
+                .map(Booking::getId)
+                .filter(id -> id > afterId)
+                .sorted()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable) {
+        return itemIds.stream()
+                .flatMap(this::byItem)
+                .map(Booking::getId)
+                .sorted()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByBookerId(long bookerId, Pageable pageable) {
+        return byBooker(bookerId)
+                .map(Booking::getId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public Optional<Booking> findFirstByStatusAndStartBeforeOrderByStartAsc(BookingStatus status, LocalDateTime start) {
+        return stream()
+                .filter(booking -> booking.getStatus() == status)
+                .filter(booking -> booking.getStart().isBefore(start))
+                .min(Comparator.comparing(Booking::getStart));
+    }
+
+    @Override
+    public List<ItemCount> countByStatusGroupByItem(BookingStatus status) {
+        return stream()
+                .filter(booking -> booking.getStatus() == status)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new ItemCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public List<Long> updateStatus(Collection<Long> ids, BookingStatus currentStatus, BookingStatus newStatus) {
+        List<Long> updated = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<Booking> booking = findInStorage(id);
+            if (booking.isPresent() && booking.get().getStatus() == currentStatus) {
+                booking.get().setStatus(newStatus);
+                updateInStorage(id, booking.get());
+                updated.add(id);
+            }
+        }
+        return updated;
+    }
+
+    private Stream<Booking> byBooker(long bookerId) {
+        return streamByIds(byBooker.get(bookerId))
+                .filter(booking -> booking.getBooker().getId() == bookerId);
+    }
+
+    private Stream<Booking> byItem(long itemId) {
+        return streamByIds(byItem.get(itemId))
+                .filter(booking -> booking.getItem().getId() == itemId);
+    }
+
+    private Stream<Booking> byOwner(long ownerId) {
+        return LongStream.of(itemRepository.findIdsByOwnerId(ownerId))
+                .mapToObj(this::byItem)
+                .flatMap(bookings -> bookings)
+                .filter(booking -> booking.getItem().getOwner().getId() == ownerId);
+    }
+
+    private static List<Booking> sorted(Stream<Booking> bookings, Sort sort) {
+        return bookings.sorted(comparator(sort)).toList();
+    }
+
+    private static Predicate<Booking> current() {
+        LocalDateTime now = LocalDateTime.now();
+        return booking -> !now.isBefore(booking.getStart()) && !now.isAfter(booking.getEnd());
+    }
+
+    private static Predicate<Booking> past() {
+        LocalDateTime now = LocalDateTime.now();
+        return booking -> now.isAfter(booking.getEnd());
+    }
+
+    private static Predicate<Booking> future() {
+        LocalDateTime now = LocalDateTime.now();
+        return booking -> now.isBefore(booking.getStart());
+    }
+}
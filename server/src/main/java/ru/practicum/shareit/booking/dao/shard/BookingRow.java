@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы бронирований шарда с глобальным id; вещь и арендатор подгружаются из основной базы.
+ */
+record BookingRow(long id, LocalDateTime start, LocalDateTime end, long itemId, long bookerId,
+                  BookingStatus status) {
+}
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.ItemCount;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Одна база с частью бронирований. Внутри шарда id назначает identity-колонка, наружу отдаётся глобальный id:
+ * локальный id, сдвинутый на {@link #SHARD_BITS} бит, с номером шарда в младших битах. Поэтому по id
+ * бронирования шард находится без обращения к кольцу, а порядок глобальных id внутри шарда совпадает
+ * с порядком локальных.
+ */
+final class BookingShard {
+    static final int SHARD_BITS = 8;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final String COLUMNS = "id, start_dt, end_dt, item_id, booker_id, status";
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "start", "start_dt", "end", "end_dt",
+            "item.id", "item_id", "booker.id", "booker_id", "status", "status");
+
+    private final int id;
+    private final HikariDataSource pool;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final RowMapper<BookingRow> rowMapper;
+
+    /**
+     * @param dataSource пул шарда, возможно обёрнутый bulkhead; {@code pool} нужен только для закрытия
+     */
+    BookingShard(int id, HikariDataSource pool, DataSource dataSource) {
+        this.id = id;
+        this.pool = pool;
+        this.dataSource = dataSource;
+        this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.rowMapper = (rs, rowNum) -> new BookingRow(globalId(rs.getLong("id")),
+                rs.getTimestamp("start_dt").toLocalDateTime(),
+                rs.getTimestamp("end_dt").toLocalDateTime(),
+                rs.getLong("item_id"),
+                rs.getLong("booker_id"),
+                BookingStatus.valueOf(rs.getString("status")));
+    }
+
+    int id() {
+        return id;
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    void close() {
+        pool.close();
+    }
+
+    static int shardOf(long globalId) {
+        return (int) (globalId & (MAX_SHARDS - 1));
+    }
+
+    static long localId(long globalId) {
+        return globalId >>> SHARD_BITS;
+    }
+
+    long globalId(long localId) {
+        return localId << SHARD_BITS | id;
+    }
+
+    /**
+     * Наименьший локальный id, глобальный id которого больше {@code globalId}.
+     */
+    long localIdAfter(long globalId) {
+        return Math.floorDiv(globalId - id, MAX_SHARDS) + 1;
+    }
+
+    long insert(Booking booking) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.update("INSERT INTO bookings (start_dt, end_dt, item_id, owner_id, booker_id, status) " +
+                        "VALUES (:start, :end, :itemId, :ownerId, :bookerId, :status)",
+                params(booking), keyHolder, new String[]{"id"});
+        return globalId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+    }
+
+    int update(Booking booking) {
+        return jdbc.update("UPDATE bookings SET start_dt = :start, end_dt = :end, status = :status WHERE id = :id",
+                params(booking).addValue("id", localId(booking.getId())));
+    }
+
+    /**
+     * Возвращает строку к прежним датам и статусу — компенсация {@link #update} при откате основной транзакции.
+     */
+    void restore(BookingRow row) {
+        jdbc.update("UPDATE bookings SET start_dt = :start, end_dt = :end, status = :status WHERE id = :id",
+                new MapSqlParameterSource("start", row.start())
+                        .addValue("end", row.end())
+                        .addValue("status", row.status().name())
+                        .addValue("id", localId(row.id())));
+    }
+
+    List<BookingRow> select(String condition, MapSqlParameterSource params, Sort sort, int limit) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE " + condition + orderBy(sort) +
+                (limit > 0 ? " LIMIT " + limit : ""), params, rowMapper);
+    }
+
+    List<BookingRow> selectByIds(Collection<Long> globalIds) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM bookings WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", globalIds.stream().map(BookingShard::localId).toList()), rowMapper);
+    }
+
+    /**
+     * Глобальные id по возрастанию.
+     */
+    List<Long> selectIds(String condition, MapSqlParameterSource params, int limit) {
+        return jdbc.queryForList("SELECT id FROM bookings WHERE " + condition + " ORDER BY id LIMIT " + limit,
+                params, Long.class).stream()
+                .map(this::globalId)
+                .toList();
+    }
+
+    List<ItemCount> countByStatusGroupByItem(BookingStatus status) {
+        return jdbc.query("SELECT item_id, COUNT(*) AS cnt FROM bookings WHERE status = :status GROUP BY item_id",
+                new MapSqlParameterSource("status", status.name()),
+                (rs, rowNum) -> new ItemCount(rs.getLong("item_id"), rs.getLong("cnt")));
+    }
+
+    long count() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM bookings", Map.of(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Переводит бронирования из {@code currentStatus} в {@code newStatus} и возвращает глобальные id именно тех
+     * строк, что сменили статус: они блокируются выборкой в одной транзакции шарда с обновлением.
+     */
+    List<Long> updateStatus(Collection<Long> globalIds, BookingStatus currentStatus, BookingStatus newStatus) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                globalIds.stream().map(BookingShard::localId).toList())
+                .addValue("currentStatus", currentStatus.name())
+                .addValue("newStatus", newStatus.name());
+        List<Long> localIds = transactions.execute(tx -> {
+            List<Long> selected = jdbc.queryForList(
+                    "SELECT id FROM bookings WHERE id IN (:ids) AND status = :currentStatus FOR UPDATE",
+                    params, Long.class);
+            if (!selected.isEmpty()) {
+                jdbc.update("UPDATE bookings SET status = :newStatus WHERE id IN (:localIds)",
+                        params.addValue("localIds", selected));
+            }
+            return selected;
+        });
+        return Objects.requireNonNull(localIds).stream().map(this::globalId).toList();
+    }
+
+    int delete(Collection<Long> globalIds) {
+        return jdbc.update("DELETE FROM bookings WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", globalIds.stream().map(BookingShard::localId).toList()));
+    }
+
+    void deleteAll() {
+        jdbc.update("DELETE FROM bookings", Map.of());
+    }
+
+    /**
+     * Состав кольца, с которым шард последний раз запускался, см. {@link BookingShardRouter}.
+     */
+    Optional<String> topology() {
+        return jdbc.queryForList("SELECT topology FROM booking_shard_topology", Map.of(), String.class).stream()
+                .findFirst();
+    }
+
+    void saveTopology(String topology) {
+        transactions.executeWithoutResult(tx -> {
+            jdbc.update("DELETE FROM booking_shard_topology", Map.of());
+            jdbc.update("INSERT INTO booking_shard_topology (topology) VALUES (:topology)",
+                    new MapSqlParameterSource("topology", topology));
+        });
+    }
+
+    private static MapSqlParameterSource params(Booking booking) {
+        return new MapSqlParameterSource()
+                .addValue("start", booking.getStart())
+                .addValue("end", booking.getEnd())
+                .addValue("itemId", booking.getItem().getId())
+                .addValue("ownerId", booking.getItem().getOwner().getId())
+                .addValue("bookerId", booking.getBooker().getId())
+                .addValue("status", booking.getStatus().name());
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException(String.format(
+                        "Бронирования хранят в шарде только id, start, end, item.id, booker.id и status, а не %s",
+                        order.getProperty()));
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orderBy.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "bookings-shard-" + id;
+    }
+}
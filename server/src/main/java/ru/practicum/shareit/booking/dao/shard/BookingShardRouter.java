@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.sql.JdbcBulkheadDataSource;
+import ru.practicum.shareit.config.sql.JdbcBulkheadProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Шарды бронирований и консистентное хеширование вещей по ним. Каждый шард занимает
+ * {@code virtual-nodes} точек на кольце, вещь принадлежит шарду первой точки не меньше её хеша.
+ * Кольцо вычисляется из конфигурации, а строки между шардами не переносятся, поэтому после добавления
+ * или удаления шарда часть вещей указывала бы на шард без их бронирований. Состав кольца записывается
+ * в каждый шард, и запуск с другим составом разрешён, только пока в шардах нет ни одного бронирования.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.booking.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(BookingShardingProperties.class)
+public class BookingShardRouter implements DisposableBean {
+    private static final long NODE_SEED = 0x5DEECE66DL;
+    private static final long ITEM_SEED = 0x9E3779B97F4A7C15L;
+
+    private final Map<Integer, BookingShard> shards = new LinkedHashMap<>();
+    private final NavigableMap<Long, BookingShard> ring = new TreeMap<>();
+
+    @Autowired
+    public BookingShardRouter(BookingShardingProperties properties, ObjectProvider<JdbcBulkheadProperties> bulkhead) {
+        this(properties, bulkhead.getIfAvailable());
+    }
+
+    /**
+     * @param bulkhead настройки bulkhead перед пулами шардов или null, если он выключен
+     */
+    BookingShardRouter(BookingShardingProperties properties, JdbcBulkheadProperties bulkhead) {
+        List<BookingShardingProperties.Shard> configured = properties.getShards();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("Не задано ни одного шарда бронирований (shareit.booking.sharding.shards)");
+        }
+        try {
+            for (int i = 0; i < configured.size(); i++) {
+                BookingShardingProperties.Shard config = configured.get(i);
+                int id = config.getId() == null ? i : config.getId();
+                if (id < 0 || id >= BookingShard.MAX_SHARDS || shards.containsKey(id)) {
+                    throw new IllegalStateException(String.format(
+                            "Номер шарда бронирований %d повторяется или вне диапазона 0..%d",
+                            id, BookingShard.MAX_SHARDS - 1));
+                }
+                HikariDataSource pool = dataSource(id, config);
+                BookingShard shard = new BookingShard(id, pool, bulkhead == null ? pool
+                        : JdbcBulkheadDataSource.forSecondaryPool(pool, config.getMaximumPoolSize(),
+                        bulkhead.getAcquireTimeout()));
+                shards.put(id, shard);
+                if (properties.isInitializeSchema()) {
+                    new ResourceDatabasePopulator(new ClassPathResource("booking-shard-schema.sql"))
+                            .execute(shard.dataSource());
+                }
+                for (int node = 0; node < properties.getVirtualNodes(); node++) {
+                    ring.put(mix(((long) id << 32 | node) ^ NODE_SEED), shard);
+                }
+            }
+            checkTopology(properties.getVirtualNodes());
+        } catch (RuntimeException e) {
+            destroy();
+            throw e;
+        }
+        log.info("Бронирования распределены по {} шардам", shards.size());
+    }
+
+    BookingShard shardForItem(long itemId) {
+        Map.Entry<Long, BookingShard> node = ring.ceilingEntry(mix(itemId ^ ITEM_SEED));
+        return (node == null ? ring.firstEntry() : node).getValue();
+    }
+
+    /**
+     * Шард, в котором лежит бронирование с этим глобальным id, или null для чужого id.
+     */
+    BookingShard shardForBooking(long bookingId) {
+        return shards.get(BookingShard.shardOf(bookingId));
+    }
+
+    Collection<BookingShard> shards() {
+        return shards.values();
+    }
+
+    <K> Map<BookingShard, List<K>> groupBy(Iterable<K> keys, Function<K, BookingShard> shardOf) {
+        Map<BookingShard, List<K>> grouped = new LinkedHashMap<>();
+        for (K key : keys) {
+            BookingShard shard = shardOf.apply(key);
+            if (shard != null) {
+                grouped.computeIfAbsent(shard, s -> new ArrayList<>()).add(key);
+            }
+        }
+        return grouped;
+    }
+
+    @Override
+    public void destroy() {
+        shards.values().forEach(BookingShard::close);
+    }
+
+    /**
+     * Сверяет состав кольца с записанным в шардах: новый шард ещё пуст, но у прежних записан старый состав,
+     * а перепутанные адреса шардов видны по номеру шарда в записи.
+     */
+    private void checkTopology(int virtualNodes) {
+        String ring = shards.keySet().stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "shards=", ";virtual-nodes=" + virtualNodes));
+        boolean empty = shards.values().stream().allMatch(shard -> shard.count() == 0);
+        for (BookingShard shard : shards.values()) {
+            String expected = "shard=" + shard.id() + ";" + ring;
+            Optional<String> stored = shard.topology();
+            if (stored.isPresent() && !stored.get().equals(expected)) {
+                if (!empty) {
+                    throw new IllegalStateException(String.format(
+                            "Состав шардов бронирований изменился: в %s записано \"%s\", в конфигурации \"%s\". "
+                                    + "Бронирования не переносятся между шардами, перенесите их вручную "
+                                    + "и очистите booking_shard_topology", shard, stored.get(), expected));
+                }
+                log.warn("Шарды бронирований пусты, состав кольца {} заменён на {}", stored.get(), expected);
+            }
+            if (!stored.map(expected::equals).orElse(false)) {
+                shard.saveTopology(expected);
+            }
+        }
+    }
+
+    private static HikariDataSource dataSource(int id, BookingShardingProperties.Shard config) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("bookings-shard-" + id);
+        hikari.setJdbcUrl(config.getUrl());
+        hikari.setUsername(config.getUsername());
+        hikari.setPassword(config.getPassword());
+        hikari.setMaximumPoolSize(config.getMaximumPoolSize());
+        return new HikariDataSource(hikari);
+    }
+
+    // SplitMix64: равномерно разносит и соседние id вещей, и соседние точки одного шарда
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.sharding")
+public class BookingShardingProperties {
+    private boolean enabled = false;
+    // точек на кольце на один шард: чем больше, тем ровнее распределение вещей
+    private int virtualNodes = 128;
+    // создавать таблицу бронирований в шардах при старте
+    private boolean initializeSchema = true;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        // постоянный номер шарда 0..255: входит в id бронирований и в позиции на кольце,
+        // поэтому не должен меняться при перестановке шардов в конфигурации
+        private Integer id;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,504 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.config.workload.WorkloadContext;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Бронирования, разложенные по шардам по item_id (см. {@link BookingShardRouter}). Запросы по одной вещи
+ * и по id бронирования идут в один шард, запросы по арендатору и владельцу — во все шарды параллельно,
+ * а отсортированные ответы шардов сливаются в общий порядок. Вещи и пользователи остаются в основной базе
+ * и подгружаются к строкам шардов двумя запросами на ответ.
+ * Записи в шард не участвуют в транзакции основной базы; при её откате их отменяют компенсирующие запросы
+ * {@link #onRollback}. Основная база таблицу бронирований при шардировании не видит.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(prefix = "shareit.booking.sharding", name = "enabled", havingValue = "true")
+public class ShardedBookingRepository implements BookingRepository, DisposableBean {
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final BookingShardRouter router;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedBookingRepository(BookingShardRouter router, ItemRepository itemRepository,
+                                    UserRepository userRepository) {
+        this.router = router;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(router.shards().size() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "booking-shards-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdownNow();
+    }
+
+    @Override
+    public List<Booking> findAllByBookerId(long bookerId, Sort start) {
+        return scatterSorted("booker_id = :userId", userParams(bookerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateCurrent(long bookerId, Sort start) {
+        return scatterSorted("booker_id = :userId AND :now BETWEEN start_dt AND end_dt", nowParams(bookerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStatePast(long brokerId, Sort start) {
+        return scatterSorted("booker_id = :userId AND :now > end_dt", nowParams(brokerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStateFuture(long bookerId, Sort start) {
+        return scatterSorted("booker_id = :userId AND :now < start_dt", nowParams(bookerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus bookingStatus, Sort start) {
+        return scatterSorted("booker_id = :userId AND status = :status",
+                userParams(bookerId).addValue("status", bookingStatus.name()), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerId(long ownerId, Sort start) {
+        return scatterSorted("owner_id = :userId", userParams(ownerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStateCurrent(long ownerId, Sort start) {
+        return scatterSorted("owner_id = :userId AND :now BETWEEN start_dt AND end_dt", nowParams(ownerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStatePast(long ownerId, Sort start) {
+        return scatterSorted("owner_id = :userId AND :now > end_dt", nowParams(ownerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStateFuture(long ownerId, Sort start) {
+        return scatterSorted("owner_id = :userId AND :now < start_dt", nowParams(ownerId), start);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerIdAndStatus(long ownerId, BookingStatus bookingStatus, Sort start) {
+        return scatterSorted("owner_id = :userId AND status = :status",
+                userParams(ownerId).addValue("status", bookingStatus.name()), start);
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItemIdAndStartLessThanEqualAndStatus(long itemId, LocalDateTime localDateTime,
+                                                                             BookingStatus bookingStatus, Sort end) {
+        return firstForItem(itemId, "start_dt <= :moment", localDateTime, bookingStatus, end);
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItemIdAndStartAfterAndStatus(long itemId, LocalDateTime localDateTime,
+                                                                     BookingStatus bookingStatus, Sort end) {
+        return firstForItem(itemId, "start_dt > :moment", localDateTime, bookingStatus, end);
+    }
+
+    @Override
+    public Optional<Long> findOwnerIdById(long bookingId) {
+        return findById(bookingId).map(booking -> booking.getItem().getOwner().getId());
+    }
+
+    @Override
+    public List<Booking> findWithItemByIdIn(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Booking> findAllByItemIdInAndStatus(Collection<Long> itemIds, BookingStatus bookingStatus) {
+        Map<BookingShard, List<Long>> byShard = router.groupBy(itemIds, router::shardForItem);
+        return hydrate(gather(byShard.keySet(), shard -> shard.select("item_id IN (:itemIds) AND status = :status",
+                new MapSqlParameterSource("itemIds", byShard.get(shard)).addValue("status", bookingStatus.name()),
+                Sort.unsorted(), 0)).stream()
+                .flatMap(List::stream)
+                .toList());
+    }
+
+    @Override
+    public Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime) {
+        return !router.shardForItem(itemId).select("item_id = :itemId AND booker_id = :userId AND end_dt < :moment",
+                userParams(bookerId).addValue("itemId", itemId).addValue("moment", localDateTime),
+                Sort.unsorted(), 1).isEmpty();
+    }
+
+    @Override
+    public List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime start, long afterId,
+                                                    Pageable pageable) {
+        int limit = pageable.getPageSize();
+        return mergeIds(gather(router.shards(), shard -> shard.selectIds(
+                "status = :status AND start_dt < :moment AND id >= :fromId",
+                new MapSqlParameterSource("status", status.name())
+                        .addValue("moment", start)
+                        .addValue("fromId", shard.localIdAfter(afterId)), limit)), limit);
+    }
+
+    @Override
+    public List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable) {
+        int limit = pageable.getPageSize();
+        Map<BookingShard, List<Long>> byShard = router.groupBy(itemIds, router::shardForItem);
+        return mergeIds(gather(byShard.keySet(), shard -> shard.selectIds("item_id IN (:itemIds)",
+                new MapSqlParameterSource("itemIds", byShard.get(shard)), limit)), limit);
+    }
+
+    @Override
+    public List<Long> findIdsByBookerId(long bookerId, Pageable pageable) {
+        int limit = pageable.getPageSize();
+        return mergeIds(gather(router.shards(), shard -> shard.selectIds("booker_id = :userId",
+                userParams(bookerId), limit)), limit);
+    }
+
+    @Override
+    public Optional<Booking> findFirstByStatusAndStartBeforeOrderByStartAsc(BookingStatus status, LocalDateTime start) {
+        Sort byStart = Sort.by("start");
+        List<BookingRow> first = merge(gather(router.shards(), shard -> shard.select(
+                "status = :status AND start_dt < :moment",
+                new MapSqlParameterSource("status", status.name()).addValue("moment", start), byStart, 1)),
+                byStart, 1);
+        return hydrate(first).stream().findFirst();
+    }
+
+    @Override
+    public List<ItemCount> countByStatusGroupByItem(BookingStatus status) {
+        // вещь целиком лежит в одном шарде, так что счётчики шардов не пересекаются
+        return gather(router.shards(), shard -> shard.countByStatusGroupByItem(status)).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    @Override
+    public List<Long> updateStatus(Collection<Long> ids, BookingStatus currentStatus, BookingStatus newStatus) {
+        Map<BookingShard, List<Long>> byShard = router.groupBy(ids, router::shardForBooking);
+        List<BookingShard> shards = List.copyOf(byShard.keySet());
+        List<List<Long>> updated = gather(shards,
+                shard -> shard.updateStatus(byShard.get(shard), currentStatus, newStatus));
+        List<Long> changed = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            BookingShard shard = shards.get(i);
+            List<Long> changedInShard = updated.get(i);
+            if (!changedInShard.isEmpty()) {
+                onRollback(() -> shard.updateStatus(changedInShard, newStatus, currentStatus));
+                changed.addAll(changedInShard);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public <S extends Booking> S save(S booking) {
+        if (booking.getId() == null) {
+            BookingShard shard = router.shardForItem(booking.getItem().getId());
+            long id = shard.insert(booking);
+            booking.setId(id);
+            onRollback(() -> shard.delete(List.of(id)));
+            return booking;
+        }
+        BookingShard shard = router.shardForBooking(booking.getId());
+        List<BookingRow> previous = shard == null ? List.of() : shard.selectByIds(List.of(booking.getId()));
+        if (previous.isEmpty() || shard.update(booking) == 0) {
+            throw new EntityNotFoundException(String.valueOf(booking.getId()));
+        }
+        onRollback(() -> shard.restore(previous.getFirst()));
+        return booking;
+    }
+
+    @Override
+    public <S extends Booking> List<S> saveAll(Iterable<S> bookings) {
+        List<S> saved = new ArrayList<>();
+        bookings.forEach(booking -> saved.add(save(booking)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return findAllById(List.of(id)).stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<Booking> findAll() {
+        return findAll(BY_ID);
+    }
+
+    @Override
+    public List<Booking> findAllById(Iterable<Long> ids) {
+        Map<BookingShard, List<Long>> byShard = router.groupBy(ids, router::shardForBooking);
+        return hydrate(gather(byShard.keySet(), shard -> shard.selectByIds(byShard.get(shard))).stream()
+                .flatMap(List::stream)
+                .toList());
+    }
+
+    @Override
+    public long count() {
+        return gather(router.shards(), BookingShard::count).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteAllById(List.of(id));
+    }
+
+    @Override
+    public void delete(Booking booking) {
+        if (booking.getId() != null) {
+            deleteById(booking.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Long> bookingIds = new ArrayList<>();
+        ids.forEach(bookingIds::add);
+        Map<BookingShard, List<Long>> byShard = router.groupBy(bookingIds, router::shardForBooking);
+        gather(byShard.keySet(), shard -> shard.delete(byShard.get(shard)));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Booking> bookings) {
+        List<Long> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.getId()));
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        gather(router.shards(), shard -> {
+            shard.deleteAll();
+            return null;
+        });
+    }
+
+    @Override
+    public List<Booking> findAll(Sort sort) {
+        return scatterSorted("1 = 1", new MapSqlParameterSource(), sort);
+    }
+
+    @Override
+    public Page<Booking> findAll(Pageable pageable) {
+        List<Booking> sorted = findAll(pageable.getSort().isSorted() ? pageable.getSort() : BY_ID);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        List<Booking> content = sorted.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, sorted.size());
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public Booking getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException(String.valueOf(id)));
+    }
+
+    /**
+     * Запись в шард фиксируется сразу, поэтому при откате транзакции основной базы её отменяет компенсирующий
+     * запрос: вставленная строка удаляется, изменённая возвращается к прежним значениям. Иначе в шарде
+     * осталось бы бронирование или статус, которых сервис не сохранял.
+     */
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    private Optional<Booking> firstForItem(long itemId, String startCondition, LocalDateTime moment,
+                                           BookingStatus status, Sort sort) {
+        List<BookingRow> rows = router.shardForItem(itemId).select(
+                "item_id = :itemId AND status = :status AND " + startCondition,
+                new MapSqlParameterSource("itemId", itemId)
+                        .addValue("status", status.name())
+                        .addValue("moment", moment), sort, 1);
+        return hydrate(rows).stream().findFirst();
+    }
+
+    private List<Booking> scatterSorted(String condition, MapSqlParameterSource params, Sort sort) {
+        return hydrate(merge(gather(router.shards(), shard -> shard.select(condition, params, sort, 0)), sort, 0));
+    }
+
+    /**
+     * Выполняет запрос в каждом из шардов; единственный шард опрашивается в вызывающем потоке. Остальным потокам
+     * передаётся группа нагрузки запроса, чтобы её срок ограничивал и запросы к шардам.
+     */
+    private <R> List<R> gather(Collection<BookingShard> shards, Function<BookingShard, R> query) {
+        if (shards.size() <= 1) {
+            return shards.stream().map(query).toList();
+        }
+        List<CompletableFuture<R>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(WorkloadContext.propagate(() -> query.apply(shard)),
+                        scatterExecutor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * K-путевое слияние уже отсортированных ответов шардов; {@code limit} 0 — без ограничения.
+     */
+    private static List<BookingRow> merge(List<List<BookingRow>> parts, Sort sort, int limit) {
+        Comparator<BookingRow> order = comparator(sort);
+        int[] positions = new int[parts.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, parts.size()),
+                (a, b) -> order.compare(parts.get(a).get(positions[a]), parts.get(b).get(positions[b])));
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) {
+                heads.add(i);
+            }
+        }
+        List<BookingRow> merged = new ArrayList<>();
+        while (!heads.isEmpty() && (limit == 0 || merged.size() < limit)) {
+            int part = heads.poll();
+            merged.add(parts.get(part).get(positions[part]++));
+            if (positions[part] < parts.get(part).size()) {
+                heads.add(part);
+            }
+        }
+        return merged;
+    }
+
+    private static List<Long> mergeIds(List<List<Long>> parts, int limit) {
+        return parts.stream()
+                .flatMap(List::stream)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+
+    private static Comparator<BookingRow> comparator(Sort sort) {
+        Comparator<BookingRow> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<BookingRow> byProperty = switch (order.getProperty()) {
+                case "start" -> Comparator.comparing(BookingRow::start);
+                case "end" -> Comparator.comparing(BookingRow::end);
+                case "id" -> Comparator.comparingLong(BookingRow::id);
+                case "item.id" -> Comparator.comparingLong(BookingRow::itemId);
+                case "booker.id" -> Comparator.comparingLong(BookingRow::bookerId);
+                // как ORDER BY по строковой колонке статуса в шарде
+                case "status" -> Comparator.comparing(row -> row.status().name());
+                default -> throw new IllegalArgumentException(String.format(
+                        "Бронирования хранят в шарде только id, start, end, item.id, booker.id и status, а не %s",
+                        order.getProperty()));
+            };
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    /**
+     * Собирает сущности по строкам шардов, сохраняя порядок. Строки, чья вещь или арендатор уже удалены
+     * из основной базы, пропускаются.
+     */
+    private List<Booking> hydrate(List<BookingRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        rows.forEach(row -> {
+            itemIds.add(row.itemId());
+            userIds.add(row.bookerId());
+        });
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        List<Booking> bookings = new ArrayList<>(rows.size());
+        for (BookingRow row : rows) {
+            Item item = items.get(row.itemId());
+            User booker = users.get(row.bookerId());
+            if (item == null || booker == null) {
+                continue;
+            }
+            Booking booking = new Booking();
+            booking.setId(row.id());
+            booking.setStart(row.start());
+            booking.setEnd(row.end());
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(row.status());
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    private static MapSqlParameterSource userParams(long userId) {
+        return new MapSqlParameterSource("userId", userId);
+    }
+
+    private static MapSqlParameterSource nowParams(long userId) {
+        return userParams(userId).addValue("now", LocalDateTime.now());
+    }
+}
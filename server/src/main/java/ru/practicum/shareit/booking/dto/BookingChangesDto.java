@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Бронирования, созданные или сменившие статус после курсора, в их текущем состоянии.
+ * deleted — изменённые бронирования, которых больше нет (удалены вместе с пользователем).
+ * cursor передаётся в следующий запрос как since.
+ */
+@Getter
+@Setter
+public class BookingChangesDto {
+    private long cursor;
+    private List<BookingOutputDto> bookings;
+    private List<Long> deleted;
+}
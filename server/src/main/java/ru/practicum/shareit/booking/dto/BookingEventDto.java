@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие потока /bookings/owner/stream: новое бронирование вещи владельца или смена статуса
+ * бронирования арендатора.
+ */
+@Getter
+@Setter
+public class BookingEventDto {
+    private Long bookingId;
+    private Long itemId;
+    private BookingStatus status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
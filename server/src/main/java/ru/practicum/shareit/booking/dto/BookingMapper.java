@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.FieldSet;
 
 @UtilityClass
 public class BookingMapper {
@@ -21,13 +22,30 @@ public class BookingMapper {
     }
 
     public BookingOutputDto bookingToOutputDto(Booking booking) {
+        return bookingToOutputDto(booking, FieldSet.ALL);
+    }
+
+    /**
+     * Вещь и арендатор загружаются лениво: если они не запрошены, обращения к ним (и запросов) не будет.
+     */
+    public BookingOutputDto bookingToOutputDto(Booking booking, FieldSet fields) {
         BookingOutputDto bookingOutputDto = new BookingOutputDto();
         bookingOutputDto.setId(booking.getId());
-        bookingOutputDto.setStart(booking.getStart());
-        bookingOutputDto.setEnd(booking.getEnd());
-        bookingOutputDto.setItem(ItemMapper.itemToDto(booking.getItem()));
-        bookingOutputDto.setBooker(UserMapper.userToDto(booking.getBooker()));
-        bookingOutputDto.setStatus(booking.getStatus());
+        if (fields.contains("start")) {
+            bookingOutputDto.setStart(booking.getStart());
+        }
+        if (fields.contains("end")) {
+            bookingOutputDto.setEnd(booking.getEnd());
+        }
+        if (fields.contains("item")) {
+            bookingOutputDto.setItem(ItemMapper.itemToDto(booking.getItem()));
+        }
+        if (fields.contains("booker")) {
+            bookingOutputDto.setBooker(UserMapper.userToDto(booking.getBooker()));
+        }
+        if (fields.contains("status")) {
+            bookingOutputDto.setStatus(booking.getStatus());
+        }
         return bookingOutputDto;
     }
 }
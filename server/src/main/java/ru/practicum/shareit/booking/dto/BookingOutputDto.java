@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -10,7 +11,10 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@JsonFilter(BookingOutputDto.FIELDS_FILTER)
 public class BookingOutputDto {
+    public static final String FIELDS_FILTER = "bookingFields";
+
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала изменений бронирований: создание или смена статуса. seq возрастает с каждой записью
+ * и служит курсором ленты изменений.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "booking_changes")
+@EqualsAndHashCode(of = { "seq" })
+public class BookingChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "changed_dt", nullable = false)
+    private LocalDateTime changed;
+
+    public static BookingChange of(Booking booking) {
+        BookingChange change = new BookingChange();
+        change.setBookingId(booking.getId());
+        change.setOwnerId(booking.getItem().getOwner().getId());
+        change.setBookerId(booking.getBooker().getId());
+        change.setStatus(booking.getStatus());
+        change.setChanged(LocalDateTime.now());
+        return change;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-polling для ленты изменений бронирований. Если изменений после курсора нет, запрос не держит
+ * поток: он ждёт сигнала о коммите изменения бронирования этого пользователя (как арендатора или владельца)
+ * либо таймаута и затем повторяет запрос к журналу.
+ */
+@Component
+@EnableConfigurationProperties(BookingChangesProperties.class)
+public class BookingChangeFeed {
+    private final ConcurrentMap<Long, Set<CompletableFuture<Boolean>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final BookingService bookingService;
+    private final BookingChangesProperties properties;
+    private final Executor executor;
+
+    public BookingChangeFeed(BookingService bookingService, BookingChangesProperties properties,
+                             @Qualifier("applicationTaskExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.properties = properties;
+        this.executor = executor;
+        Gauge.builder("shareit.bookings.changes.waiting", waiting, AtomicInteger::get)
+                .description("Long-poll запросы ленты изменений, ожидающие изменений")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<BookingChangesDto> poll(long userId, Long since, int size, Duration timeout) {
+        if (since == null || timeout.isZero() || waiting.get() >= properties.getMaxWaiters()) {
+            return CompletableFuture.completedFuture(bookingService.getChanges(userId, since, size));
+        }
+        // ожидание регистрируется до запроса: изменение, закоммиченное между ними, не потеряется
+        CompletableFuture<Boolean> signal = register(userId);
+        BookingChangesDto changes;
+        try {
+            changes = bookingService.getChanges(userId, since, size);
+        } catch (RuntimeException e) {
+            signal.complete(false);
+            throw e;
+        }
+        if (!changes.getBookings().isEmpty()) {
+            signal.complete(false);
+            return CompletableFuture.completedFuture(changes);
+        }
+        signal.completeOnTimeout(false, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        // по таймауту запрос тоже повторяется, чтобы не отдать устаревший пустой ответ
+        return signal.thenCompose(changed -> CompletableFuture.supplyAsync(
+                () -> bookingService.getChanges(userId, since, size), executor));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        wakeUp(event.bookerId());
+        wakeUp(event.ownerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingDeleted(BookingDeletedEvent event) {
+        wakeUp(event.bookerId());
+        wakeUp(event.ownerId());
+    }
+
+    private CompletableFuture<Boolean> register(long userId) {
+        CompletableFuture<Boolean> signal = new CompletableFuture<>();
+        waiting.incrementAndGet();
+        waiters.compute(userId, (id, signals) -> {
+            Set<CompletableFuture<Boolean>> registered = signals == null ? ConcurrentHashMap.newKeySet() : signals;
+            registered.add(signal);
+            return registered;
+        });
+        signal.whenComplete((changed, e) -> {
+            waiting.decrementAndGet();
+            waiters.computeIfPresent(userId, (id, signals) -> {
+                signals.remove(signal);
+                return signals.isEmpty() ? null : signals;
+            });
+        });
+        return signal;
+    }
+
+    private void wakeUp(long userId) {
+        Set<CompletableFuture<Boolean>> signals = waiters.remove(userId);
+        if (signals != null) {
+            signals.forEach(signal -> signal.complete(true));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingChangeRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingChange;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Пишет журнал изменений бронирований так, чтобы seq возрастал в порядке коммитов. Записи транзакции
+ * копятся до её коммита и вставляются в beforeCommit под блокировкой строки booking_change_lock, которая
+ * держится до конца коммита. Поэтому запись с меньшим seq всегда видна раньше записи с большим,
+ * и курсор ленты не перескакивает транзакцию, закоммиченную позже.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingChangeLog {
+    private final BookingChangeRepository bookingChangeRepository;
+
+    public void append(Booking booking) {
+        append(List.of(booking));
+    }
+
+    public void append(Collection<Booking> bookings) {
+        List<BookingChange> changes = bookings.stream().map(BookingChange::of).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // хранилище в памяти: запись видна сразу после сохранения
+            bookingChangeRepository.saveAll(changes);
+            return;
+        }
+        pending().addAll(changes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BookingChange> pending() {
+        List<BookingChange> pending = (List<BookingChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<BookingChange> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                bookingChangeRepository.lockForAppend();
+                bookingChangeRepository.saveAll(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(BookingChangeLog.this);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование создано или его статус изменён. Публикуется внутри транзакции, слушатели получают его
+ * после коммита.
+ */
+public record BookingChangedEvent(long bookingId, long itemId, long ownerId, long bookerId,
+                                  BookingStatus status, LocalDateTime start, LocalDateTime end) {
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getItem().getOwner().getId(), booking.getBooker().getId(), booking.getStatus(),
+                booking.getStart(), booking.getEnd());
+    }
+}
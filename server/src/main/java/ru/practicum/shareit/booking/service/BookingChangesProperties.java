@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.changes")
+public class BookingChangesProperties {
+    // одновременно ожидающих long-poll запросов; сверх лимита запрос отвечает сразу
+    private int maxWaiters = 1000;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Бронирование удалено при очистке данных удалённого пользователя. status — статус на момент удаления.
+ */
+public record BookingDeletedEvent(long bookingId, long itemId, long ownerId, long bookerId, BookingStatus status) {
+    public static BookingDeletedEvent of(Booking booking) {
+        return new BookingDeletedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getItem().getOwner().getId(), booking.getBooker().getId(), booking.getStatus());
+    }
+}
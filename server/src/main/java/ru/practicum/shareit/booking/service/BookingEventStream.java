@@ -0,0 +1,183 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка событий бронирований по SSE. Владелец получает новые бронирования своих вещей (WAITING),
+ * арендатор — смену статуса своих бронирований. События приходят из {@link BookingChangedEvent} после коммита.
+ * Простаивающая подписка — только {@link SseEmitter} без потока. У каждого подписчика своя ограниченная
+ * очередь; её разбирает собственный пул потоков стрима, так что медленный клиент не задерживает коммит, других
+ * подписчиков и фоновые задачи приложения. Потоки платформенные: {@code ResponseBodyEmitter.send} синхронизирован
+ * и блокирующая запись в нём закрепила бы виртуальный поток за несущим.
+ * Переполненная подписка закрывается: клиент переподключается и досинхронизируется через /bookings/changes.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingStreamProperties.class)
+public class BookingEventStream implements DisposableBean {
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final UserRepository userRepository;
+    private final BookingStreamProperties properties;
+    private final ExecutorService executor;
+    private final Counter droppedCounter;
+
+    public BookingEventStream(UserRepository userRepository, BookingStreamProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getSendThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "booking-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedCounter = Counter.builder("shareit.bookings.stream.dropped")
+                .description("SSE-подписки, закрытые из-за переполнения очереди")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.stream.subscribers", connected, AtomicInteger::get)
+                .description("Открытые SSE-подписки на события бронирований")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь %d не найден", userId));
+        }
+        // место занимается до проверки, иначе одновременные подписки проходят проверку вместе и превышают лимит
+        if (connected.incrementAndGet() > properties.getMaxSubscribers()) {
+            connected.decrementAndGet();
+            throw new ConditionsNotMetException("Превышено число подписок на события бронирований");
+        }
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(properties.getTimeout().toMillis()),
+                new ArrayBlockingQueue<>(properties.getBufferSize()));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        log.debug("Пользователь {} подписался на события бронирований", userId);
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.status() == BookingStatus.WAITING) {
+            publish(event.ownerId(), "booking-requested", event);
+        } else {
+            publish(event.bookerId(), "booking-status", event);
+        }
+    }
+
+    // держит соединения через прокси и обнаруживает отключившихся клиентов
+    @Scheduled(fixedDelayString = "${shareit.booking.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    private void publish(long userId, String name, BookingChangedEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        BookingEventDto dto = new BookingEventDto();
+        dto.setBookingId(event.bookingId());
+        dto.setItemId(event.itemId());
+        dto.setStatus(event.status());
+        dto.setStart(event.start());
+        dto.setEnd(event.end());
+        userSubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event()
+                .id(String.valueOf(event.bookingId()))
+                .name(name)
+                .data(dto)));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connected.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+                log.warn("Очередь событий пользователя {} переполнена, подписка закрыта", userId);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // одновременно очередь подписчика разбирает не больше одного потока
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик {} отключился: {}", userId, e.getMessage());
+                remove(this);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingExpiryProperties.class)
+@ConditionalOnProperty(prefix = "shareit.booking.expiry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryJob {
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final BookingExpiryProperties properties;
+    private final Counter expiredCounter;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpiryJob(BookingRepository bookingRepository, BookingService bookingService,
+                            BookingExpiryProperties properties, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.properties = properties;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("Бронирования, переведённые из WAITING в EXPIRED")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.bookings.expiry.run")
+                .description("Длительность одного прохода задачи истечения бронирований")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Сколько секунд самое старое просроченное бронирование ожидает истечения")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval:PT1M}",
+            initialDelayString = "${shareit.booking.expiry.interval:PT1M}")
+    public void expireStaleBookings() {
+        runTimer.record(this::expire);
+    }
+
+    int expire() {
+        final LocalDateTime cutoff = LocalDateTime.now().minus(properties.getGracePeriod());
+        updateLag(cutoff);
+        final PageRequest chunk = PageRequest.ofSize(properties.getChunkSize());
+        long lastId = 0;
+        int expired = 0;
+        List<Long> ids = bookingRepository.findIdsByStatusAndStartBefore(BookingStatus.WAITING, cutoff, lastId, chunk);
+        while (!ids.isEmpty()) {
+            // пачка истекает в своей транзакции вместе с записями журнала; задача идёт на каждом экземпляре,
+            // но строки блокируются, и одно бронирование истекает и попадает в журнал только один раз
+            int updated = bookingService.expire(ids);
+            expiredCounter.increment(updated);
+            expired += updated;
+            lastId = ids.getLast();
+            if (ids.size() < properties.getChunkSize()) {
+                break;
+            }
+            ids = bookingRepository.findIdsByStatusAndStartBefore(BookingStatus.WAITING, cutoff, lastId, chunk);
+        }
+        if (expired > 0) {
+            log.info("Истекло бронирований в статусе WAITING: {}", expired);
+        }
+        return expired;
+    }
+
+    private void updateLag(LocalDateTime cutoff) {
+        lagSeconds.set(bookingRepository.findFirstByStatusAndStartBeforeOrderByStartAsc(BookingStatus.WAITING, cutoff)
+                .map(booking -> Duration.between(booking.getStart(), cutoff).toSeconds())
+                .orElse(0L));
+    }
+}
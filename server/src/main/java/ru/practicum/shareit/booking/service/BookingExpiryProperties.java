@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.expiry")
+public class BookingExpiryProperties {
+    // сколько бронирование может оставаться в WAITING после наступления даты начала
+    private Duration gracePeriod = Duration.ofMinutes(15);
+    // размер пачки для одного UPDATE
+    private int chunkSize = 500;
+}
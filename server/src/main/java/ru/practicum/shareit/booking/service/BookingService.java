@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.MultiGetResult;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingService {
+    BookingOutputDto save(BookingDto bookingDto, long userId);
+
+    BookingOutputDto approve(long bookingId, Boolean isApproved, long userId);
+
+    BookingOutputDto getBookingById(long bookingId, long userId, FieldSet fields);
+
+    MultiGetResult<BookingOutputDto> getBookings(List<Long> ids, long userId, FieldSet fields);
+
+    List<BookingOutputDto> getAllByBooker(String subState, long bookerId, FieldSet fields);
+
+    List<BookingOutputDto> getAllByOwner(long ownerId, String state, FieldSet fields);
+
+    /**
+     * Бронирования пользователя (как арендатора и как владельца), изменённые после курсора since.
+     * Без since возвращает текущий курсор и пустой список — точку отсчёта после полной загрузки.
+     */
+    BookingChangesDto getChanges(long userId, Long since, int size);
+
+    /**
+     * Переводит бронирования из WAITING в EXPIRED одной транзакцией вместе с записями журнала изменений
+     * и возвращает число истёкших. В журнал попадают только бронирования, сменившие статус в этом вызове.
+     */
+    int expire(Collection<Long> ids);
+}
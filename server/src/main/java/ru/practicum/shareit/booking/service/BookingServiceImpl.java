@@ -2,25 +2,39 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingChangeRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingChange;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.MultiGetResult;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
@@ -33,12 +47,15 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingChangeRepository bookingChangeRepository;
+    private final BookingChangeLog bookingChangeLog;
 
     @Override
     public BookingOutputDto save(BookingDto bookingDto, long userId) {
         User booker = getUser(userId);
         Item item = getItem(bookingDto.getItemId());
-        if (!item.getAvailable()) {
+        if (!item.getAvailable() || item.getOwner().isDeleted()) {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
         if (booker.getId().equals(item.getOwner().getId())) {
@@ -49,7 +66,8 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала бронирования должна быть до даты возврата");
         }
         Booking booking = bookingRepository.save(BookingMapper.dtoToBooking(bookingDto, booker, item));
-        log.info(String.format("Бронирование %d создано", booking.getId()));
+        log.info("Бронирование {} создано", booking.getId());
+        publishChanged(booking);
         return BookingMapper.bookingToOutputDto(booking);
     }
 
@@ -64,26 +82,50 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Подтвердить бронирование может только владелец вещи");
         }
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        log.info(String.format("Бронирование %d обновлено", booking.getId()));
-        return BookingMapper.bookingToOutputDto(bookingRepository.save(booking));
+        log.info("Бронирование {} обновлено", booking.getId());
+        Booking saved = bookingRepository.save(booking);
+        publishChanged(saved);
+        return BookingMapper.bookingToOutputDto(saved);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public BookingOutputDto getBookingById(long bookingId, long userId) {
+    public BookingOutputDto getBookingById(long bookingId, long userId, FieldSet fields) {
         Booking booking = getById(bookingId);
-        User booker = booking.getBooker();
-        User owner = getUser(booking.getItem().getOwner().getId());
-        if (booker.getId() != userId && owner.getId() != userId) {
+        // id арендатора берётся из ссылки, владелец — отдельным запросом по id: вещь и пользователи
+        // загружаются, только если их поля запрошены
+        long ownerId = bookingRepository.findOwnerIdById(bookingId).orElseThrow();
+        if (booking.getBooker().getId() != userId && ownerId != userId) {
             throw new ValidationException(String.format("Пользователь %d не может просматривать бронирование %d",
                     userId, bookingId));
         }
-        return BookingMapper.bookingToOutputDto(booking);
+        return BookingMapper.bookingToOutputDto(booking, fields);
     }
 
+    /**
+     * Бронирования по списку id одним IN-запросом. Права проверяются для каждого бронирования так же,
+     * как в {@link #getBookingById}: чужие попадают в forbidden, а не обрывают весь ответ.
+     */
     @Transactional(readOnly = true)
     @Override
-    public List<BookingOutputDto> getAllByBooker(String state, long bookerId) {
+    public MultiGetResult<BookingOutputDto> getBookings(List<Long> ids, long userId, FieldSet fields) {
+        getUser(userId);
+        final Set<Long> requested = new LinkedHashSet<>(ids);
+        final Map<Long, BookingOutputDto> found = new HashMap<>();
+        final Set<Long> forbidden = new HashSet<>();
+        for (Booking booking : bookingRepository.findWithItemByIdIn(requested)) {
+            if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
+                found.put(booking.getId(), BookingMapper.bookingToOutputDto(booking, fields));
+            } else {
+                forbidden.add(booking.getId());
+            }
+        }
+        return MultiGetResult.of(requested, found, forbidden);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingOutputDto> getAllByBooker(String state, long bookerId, FieldSet fields) {
         User booker = getUser(bookerId);
         List<Booking> bookings;
         BookingState bookingState;
@@ -105,12 +147,14 @@ public class BookingServiceImpl implements BookingService {
             case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(booker.getId(),
                     BookingStatus.REJECTED, Sort.by(DESC, "end"));
         };
-        return bookings.stream().map(BookingMapper::bookingToOutputDto).collect(Collectors.toList());
+        return bookings.stream()
+                .map(booking -> BookingMapper.bookingToOutputDto(booking, fields))
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingOutputDto> getAllByOwner(long ownerId, String state) {
+    public List<BookingOutputDto> getAllByOwner(long ownerId, String state, FieldSet fields) {
         User owner = getUser(ownerId);
         List<Booking> bookings;
         BookingState bookingState;
@@ -133,7 +177,50 @@ public class BookingServiceImpl implements BookingService {
             case REJECTED -> bookingRepository.findAllByOwnerIdAndStatus(owner.getId(),
                     BookingStatus.REJECTED, Sort.by(Sort.Direction.DESC, "start"));
         };
-        return bookings.stream().map(BookingMapper::bookingToOutputDto).collect(Collectors.toList());
+        return bookings.stream()
+                .map(booking -> BookingMapper.bookingToOutputDto(booking, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingChangesDto getChanges(long userId, Long since, int size) {
+        getUser(userId);
+        BookingChangesDto result = new BookingChangesDto();
+        if (since == null) {
+            result.setCursor(bookingChangeRepository.findLastSeq().orElse(0L));
+            result.setBookings(List.of());
+            result.setDeleted(List.of());
+            return result;
+        }
+        // seq назначается в порядке коммитов (см. BookingChangeLog), поэтому после курсора не появится
+        // запись с меньшим seq
+        List<BookingChange> changes = bookingChangeRepository.findForUserAfter(userId, since,
+                PageRequest.ofSize(size));
+        result.setCursor(changes.isEmpty() ? since : changes.getLast().getSeq());
+        // несколько изменений одного бронирования — одна запись в его текущем состоянии
+        Set<Long> changedIds = new LinkedHashSet<>();
+        changes.forEach(change -> changedIds.add(change.getBookingId()));
+        Map<Long, Booking> bookings = new HashMap<>();
+        bookingRepository.findAllById(changedIds).forEach(booking -> bookings.put(booking.getId(), booking));
+        result.setBookings(changedIds.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(BookingMapper::bookingToOutputDto)
+                .toList());
+        result.setDeleted(changedIds.stream()
+                .filter(id -> !bookings.containsKey(id))
+                .toList());
+        return result;
+    }
+
+    @Override
+    public int expire(Collection<Long> ids) {
+        List<Long> expiredIds = bookingRepository.updateStatus(ids, BookingStatus.WAITING, BookingStatus.EXPIRED);
+        if (!expiredIds.isEmpty()) {
+            bookingRepository.findWithItemByIdIn(expiredIds).forEach(this::publishChanged);
+        }
+        return expiredIds.size();
     }
 
     public Booking getById(long bookingId) {
@@ -141,8 +228,14 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException(String.format("Бронирование %d не найдено", bookingId)));
     }
 
+    // запись журнала изменений — в той же транзакции, что и само изменение
+    private void publishChanged(Booking booking) {
+        bookingChangeLog.append(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+    }
+
     private User getUser(long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
+        return userRepository.findByIdAndDeletedFalse(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь %d не найден", userId)));
     }
 
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking.stream")
+public class BookingStreamProperties {
+    // после таймаута клиент переподключается
+    private Duration timeout = Duration.ofMinutes(30);
+    // неотправленных событий на подписчика; при переполнении подписка закрывается
+    private int bufferSize = 64;
+    private int maxSubscribers = 10_000;
+    // потоки отправки событий; медленный клиент занимает один из них, пока не сработает таймаут записи
+    private int sendThreads = 4;
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Кладёт идентификатор запроса в MDC (ключ {@code requestId}) и возвращает его клиенту.
+ * Идентификатор берётся из заголовка X-Request-Id, если клиент его передал и он состоит не более чем из 64 символов
+ * {@code [A-Za-z0-9._-]}; иначе создаётся новый — чужие переводы строк и кавычки не попадают в логи и заголовки.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(MDC_KEY);
+        if (requestId == null) {
+            requestId = request.getHeader(HEADER);
+            if (!isValid(requestId)) {
+                requestId = UUID.randomUUID().toString();
+            }
+            request.setAttribute(MDC_KEY, requestId);
+            response.setHeader(HEADER, requestId);
+        }
+        MDC.put(MDC_KEY, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    // цикл вместо регулярного выражения: проверка на каждом запросе без выделений
+    static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            boolean allowed = c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+                    || c == '.' || c == '_' || c == '-';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.logging.requests")
+public class RequestLoggingProperties {
+    // доля успешных запросов, попадающих в лог; ошибки логируются всегда
+    private double sampleRate = 0.01;
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Лог запросов/ответов с выборкой. Сообщение форматируется только если запрос попал в выборку
+ * и уровень INFO включён; ответы с ошибкой сервера логируются всегда.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class SampledRequestLoggingFilter extends OncePerRequestFilter {
+    private static final String STARTED_ATTRIBUTE = SampledRequestLoggingFilter.class.getName() + ".started";
+
+    private final RequestLoggingProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long started = (Long) request.getAttribute(STARTED_ATTRIBUTE);
+        if (started == null) {
+            started = System.nanoTime();
+            request.setAttribute(STARTED_ATTRIBUTE, started);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // для асинхронных запросов ответ логируется при повторной (async) диспетчеризации
+            if (!request.isAsyncStarted()) {
+                logResponse(request, response, started);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void logResponse(HttpServletRequest request, HttpServletResponse response, long started) {
+        int status = response.getStatus();
+        if (log.isInfoEnabled() && (status >= 500 || sampled())) {
+            log.info("method={} uri={} status={} durationMs={} userId={}", request.getMethod(),
+                    request.getRequestURI(), status, (System.nanoTime() - started) / 1_000_000,
+                    request.getHeader("X-Sharer-User-Id"));
+        }
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSampleRate();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
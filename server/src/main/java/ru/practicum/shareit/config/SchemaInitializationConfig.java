@@ -0,0 +1,21 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+@Profile("!in-memory")
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class SchemaInitializationConfig {
+
+    @Bean
+    public SchemaVersionInitializer schemaVersionInitializer(DataSource dataSource,
+                                                             SqlInitializationProperties properties) {
+        return new SchemaVersionInitializer(dataSource, properties);
+    }
+}
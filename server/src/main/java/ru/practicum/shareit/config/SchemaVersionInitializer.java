@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Выполняет schema.sql только если схема в базе отличается от текущей.
+ * Версия схемы — контрольная сумма скриптов, хранится в таблице schema_version.
+ */
+@Slf4j
+public class SchemaVersionInitializer extends SqlDataSourceScriptDatabaseInitializer {
+    private static final String SCHEMA_LOCATION = "classpath*:schema.sql";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaVersionInitializer(DataSource dataSource, SqlInitializationProperties properties) {
+        super(dataSource, properties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        String version = schemaVersion();
+        if (version.equals(currentVersion())) {
+            log.info("Схема базы данных актуальна (версия {}), инициализация пропущена", version);
+            return false;
+        }
+        boolean initialized = super.initializeDatabase();
+        if (initialized) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version (version VARCHAR(64) NOT NULL)");
+            jdbcTemplate.update("DELETE FROM schema_version");
+            jdbcTemplate.update("INSERT INTO schema_version (version) VALUES (?)", version);
+            log.info("Схема базы данных обновлена до версии {}", version);
+        }
+        return initialized;
+    }
+
+    private String currentVersion() {
+        try {
+            List<String> versions = jdbcTemplate.queryForList("SELECT version FROM schema_version", String.class);
+            return versions.isEmpty() ? null : versions.getFirst();
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private static String schemaVersion() {
+        CRC32C crc = new CRC32C();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SCHEMA_LOCATION)) {
+                try (InputStream in = resource.getInputStream()) {
+                    crc.update(in.readAllBytes());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().toHexDigits((int) crc.getValue());
+    }
+}
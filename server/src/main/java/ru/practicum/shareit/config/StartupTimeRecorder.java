@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фиксирует время от старта JVM до первого успешного ответа — основную метрику быстрого старта.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupTimeRecorder extends OncePerRequestFilter {
+    private final AtomicLong firstSuccessMillis = new AtomicLong(-1);
+    private volatile boolean recorded;
+
+    public StartupTimeRecorder(MeterRegistry meterRegistry) {
+        Gauge.builder("shareit.startup.first-request", firstSuccessMillis, AtomicLong::get)
+                .description("Время от старта JVM до первого успешного ответа")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        if (!recorded && response.getStatus() < 400) {
+            long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (firstSuccessMillis.compareAndSet(-1, elapsed)) {
+                recorded = true;
+                log.info("Первый успешный ответ через {} мс после старта JVM", elapsed);
+            }
+        }
+    }
+}
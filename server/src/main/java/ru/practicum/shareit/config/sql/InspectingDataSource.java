@@ -0,0 +1,123 @@
+package ru.practicum.shareit.config.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Оборачивает соединения пула в прокси, которые замеряют каждый execute*, считают его в
+ * {@link SqlRequestStatistics} и пишут медленные запросы в лог с параметрами.
+ * Наследуется от {@link DelegatingDataSource}, чтобы Boot по-прежнему видел за ним Hikari.
+ */
+@Slf4j
+class InspectingDataSource extends DelegatingDataSource {
+    private final SqlInspectionProperties properties;
+
+    InspectingDataSource(DataSource target, SqlInspectionProperties properties) {
+        super(target);
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private void record(String sql, long elapsedNanos, Map<Integer, Object> binds) {
+        SqlRequestStatistics.record(sql, elapsedNanos);
+        if (elapsedNanos >= properties.getSlowQueryThreshold().toNanos() && log.isWarnEnabled()) {
+            log.warn("Медленный запрос durationMs={} sql={} binds={}", elapsedNanos / 1_000_000, sql,
+                    properties.isLogBindParameters() ? binds : "[скрыты]");
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InspectingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String text
+                        ? text
+                        : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, Object> binds = new TreeMap<>();
+        private String lastBatchSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                binds.put(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                binds.clear();
+            } else if ("addBatch".equals(name) && args != null && args.length == 1 && args[0] instanceof String sql) {
+                lastBatchSql = sql;
+            } else if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : lastBatchSql;
+                long started = System.nanoTime();
+                try {
+                    return InspectingDataSource.invoke(target, method, args);
+                } finally {
+                    record(sql, System.nanoTime() - started, binds);
+                }
+            }
+            return InspectingDataSource.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(JdbcBulkheadProperties.class)
+@ConditionalOnProperty(prefix = "shareit.jdbc.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcBulkheadConfig {
+    // размер пула Hikari по умолчанию: до старта пула getMaximumPoolSize() возвращает -1
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    // Ordered: оборачивает сам Hikari раньше, чем остальные пост-процессоры обернут его снаружи
+    @Bean
+    public static BeanPostProcessor jdbcBulkheadPostProcessor(ObjectProvider<JdbcBulkheadProperties> properties) {
+        return new BulkheadPostProcessor(properties);
+    }
+
+    @Bean
+    public MeterBinder jdbcBulkheadMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            JdbcBulkheadDataSource bulkhead;
+            try {
+                DataSource available = dataSource.getIfAvailable();
+                if (available == null || !available.isWrapperFor(JdbcBulkheadDataSource.class)) {
+                    return;
+                }
+                bulkhead = available.unwrap(JdbcBulkheadDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("shareit.jdbc.bulkhead.waiting", bulkhead, JdbcBulkheadDataSource::waiting)
+                    .description("Потоки, ожидающие разрешения на соединение с БД")
+                    .register(registry);
+            Gauge.builder("shareit.jdbc.bulkhead.available", bulkhead, JdbcBulkheadDataSource::available)
+                    .description("Свободные разрешения на соединение с БД")
+                    .register(registry);
+            FunctionCounter.builder("shareit.jdbc.bulkhead.rejected", bulkhead, JdbcBulkheadDataSource::rejected)
+                    .description("Отказы в соединении по таймауту ожидания разрешения")
+                    .register(registry);
+        };
+    }
+
+    private record BulkheadPostProcessor(ObjectProvider<JdbcBulkheadProperties> properties)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                JdbcBulkheadProperties bulkhead = properties.getObject();
+                int permits = bulkhead.getPermits() > 0 ? bulkhead.getPermits() : poolSize(hikari);
+                log.info("Bulkhead перед пулом {}: {} соединений", hikari.getPoolName(), permits);
+                return new JdbcBulkheadDataSource(hikari, permits, bulkhead.getAcquireTimeout().toNanos());
+            }
+            return bean;
+        }
+
+        private static int poolSize(HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.config.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.config.workload.WorkloadContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничивает число одновременно выданных соединений честным семафором перед пулом.
+ * С виртуальными потоками запросов может быть тысячи: без ограничения все они встают в очередь Hikari
+ * и по одному отваливаются по connectionTimeout, а здесь ждут в FIFO-очереди семафора, не занимая
+ * потоков-носителей, и получают отказ уже через {@code acquireTimeout}. Запрос из группы нагрузки
+ * ({@link WorkloadContext}) дополнительно занимает место в лимите соединений своей группы.
+ */
+public class JdbcBulkheadDataSource extends DelegatingDataSource {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final boolean groupConnections;
+    private final LongAdder rejected = new LongAdder();
+
+    JdbcBulkheadDataSource(DataSource target, int permits, long acquireTimeoutNanos) {
+        this(target, permits, acquireTimeoutNanos, true);
+    }
+
+    private JdbcBulkheadDataSource(DataSource target, int permits, long acquireTimeoutNanos,
+                                   boolean groupConnections) {
+        super(target);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Число разрешений bulkhead должно быть положительным: " + permits);
+        }
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutNanos = acquireTimeoutNanos;
+        this.groupConnections = groupConnections;
+    }
+
+    /**
+     * Bulkhead перед пулом дополнительной базы, например шарда: срок запроса группы действует и здесь,
+     * а лимит соединений группы — нет, он рассчитан на пул основной базы.
+     */
+    public static JdbcBulkheadDataSource forSecondaryPool(DataSource target, int permits, Duration acquireTimeout) {
+        return new JdbcBulkheadDataSource(target, permits, acquireTimeout.toNanos(), false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return open(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return open(() -> super.getConnection(username, password));
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    // сначала место в лимите группы запроса, затем общее разрешение
+    private Connection open(ConnectionSupplier supplier) throws SQLException {
+        WorkloadContext workload = WorkloadContext.current();
+        Semaphore budget = workload == null || !groupConnections ? null : workload.connections();
+        if (budget != null) {
+            acquire(budget, workload);
+        }
+        try {
+            acquire(permits, workload);
+        } catch (SQLException e) {
+            release(budget);
+            throw e;
+        }
+        try {
+            return wrap(supplier.get(), budget, workload);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            release(budget);
+            throw e;
+        }
+    }
+
+    // ожидание не дольше acquireTimeout и не дольше оставшегося срока запроса
+    private void acquire(Semaphore semaphore, WorkloadContext workload) throws SQLException {
+        long timeoutNanos = workload == null ? acquireTimeoutNanos
+                : Math.max(0, Math.min(acquireTimeoutNanos, workload.remainingNanos()));
+        try {
+            if (!semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(String.format(
+                        "Нет свободного соединения с БД за %d мс", TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения с БД прервано", e);
+        }
+    }
+
+    private static void release(Semaphore budget) {
+        if (budget != null) {
+            budget.release();
+        }
+    }
+
+    /**
+     * Разрешения возвращаются при закрытии соединения, повторный close их не возвращает второй раз.
+     * Statement'ам запроса со сроком выставляется таймаут по его остатку, поэтому медленный запрос
+     * отменяет сама БД, а не только ожидающий клиент.
+     */
+    private Connection wrap(Connection connection, Semaphore budget, WorkloadContext workload) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                            release(budget);
+                        }
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (result instanceof Statement statement && workload != null && workload.hasDeadline()) {
+                        applyDeadline(statement, workload);
+                    }
+                    return result;
+                });
+    }
+
+    private static void applyDeadline(Statement statement, WorkloadContext workload) throws SQLException {
+        long remainingNanos = workload.remainingNanos();
+        if (remainingNanos <= 0) {
+            statement.close();
+            throw new SQLTimeoutException(String.format("Истёк срок выполнения запроса группы %s",
+                    workload.group()));
+        }
+        // таймаут JDBC задаётся в секундах, округляем вверх
+        statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE,
+                (remainingNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.config.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.jdbc.bulkhead")
+public class JdbcBulkheadProperties {
+    private boolean enabled = true;
+    // 0 — по размеру пула Hikari
+    private int permits;
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class SqlInspectionFilter extends OncePerRequestFilter {
+    private final SqlInspectionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlInspectionFilter(SqlInspectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStatistics statistics = SqlRequestStatistics.begin(request.getMethod(), request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRequestStatistics.end(statistics);
+            report(request, statistics);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStatistics statistics) {
+        // шаблон пути вместо самого URI, чтобы id в пути не раздували число тегов
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("shareit.http.sql.statements")
+                .description("Число SQL-запросов на один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        statistics.getExecutions().forEach((sql, count) -> {
+            if (count >= properties.getRepeatedStatementThreshold()) {
+                log.warn("Возможный N+1: {} {} выполнил {} раз sql={}", request.getMethod(), uri, count, sql);
+            }
+        });
+        log.debug("{} {} выполнил {} SQL-запросов за {} мс", request.getMethod(), uri, statistics.getStatements(),
+                statistics.getNanos() / 1_000_000);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.config.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql.inspection")
+public class SqlInspectionProperties {
+    // запросы дольше порога пишутся в лог вместе с параметрами
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+    // столько одинаковых запросов за один HTTP-запрос считается подозрением на N+1
+    private int repeatedStatementThreshold = 5;
+    private boolean logBindParameters = true;
+}
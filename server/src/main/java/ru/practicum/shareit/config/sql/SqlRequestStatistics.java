@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config.sql;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Статистика SQL-запросов текущего HTTP-запроса. Открывается {@link SqlInspectionFilter}, наполняется
+ * прокси над JDBC-соединениями; запросы вне HTTP (планировщик, старт) не учитываются.
+ */
+public final class SqlRequestStatistics {
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+    private static final List<Consumer<SqlRequestStatistics>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final String method;
+    private final String uri;
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long nanos;
+
+    private SqlRequestStatistics(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    static SqlRequestStatistics begin(String method, String uri) {
+        SqlRequestStatistics statistics = new SqlRequestStatistics(method, uri);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end(SqlRequestStatistics statistics) {
+        CURRENT.remove();
+        LISTENERS.forEach(listener -> listener.accept(statistics));
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        SqlRequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.nanos += elapsedNanos;
+            statistics.executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Подписка на завершённые HTTP-запросы; используется тестами для проверки бюджета запросов.
+     */
+    public static void addListener(Consumer<SqlRequestStatistics> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<SqlRequestStatistics> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Текст запроса -> сколько раз он выполнен за HTTP-запрос.
+     */
+    public Map<String, Integer> getExecutions() {
+        return executions;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlInspectionProperties.class)
+@ConditionalOnProperty(prefix = "shareit.sql.inspection", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementInspector {
+
+    // static: пост-процессор создаётся до остальных бинов, свойства берутся лениво
+    @Bean
+    public static BeanPostProcessor inspectingDataSourcePostProcessor(
+            ObjectProvider<SqlInspectionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InspectingDataSource)) {
+                    return new InspectingDataSource(dataSource, properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlInspectionFilter sqlInspectionFilter(SqlInspectionProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        return new SqlInspectionFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.config.workload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Относит эндпоинт к группе нагрузки. Изменяющие запросы без аннотации попадают в {@link WorkloadGroup#WRITE},
+ * остальные GET не ограничиваются.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadGroup value();
+
+    /**
+     * Срок выполнения эндпоинта (например, "2s") вместо срока группы.
+     */
+    String deadline() default "";
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(WorkloadProperties.class)
+@ConditionalOnProperty(prefix = "shareit.workload", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WorkloadConfig implements WebMvcConfigurer {
+    private final WorkloadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new WorkloadInterceptor(properties, meterRegistry));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.config.workload;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Группа и срок текущего HTTP-запроса. Открывается {@link WorkloadInterceptor}; по нему пул соединений
+ * ограничивает соединения группы и выставляет SQL-запросам таймаут по оставшемуся сроку.
+ */
+public final class WorkloadContext {
+    private static final ThreadLocal<WorkloadContext> CURRENT = new ThreadLocal<>();
+
+    private final WorkloadGroup group;
+    private final Semaphore concurrency;
+    private final Semaphore connections;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+
+    WorkloadContext(WorkloadGroup group, Semaphore concurrency, Semaphore connections, long timeoutNanos) {
+        this.group = group;
+        this.concurrency = concurrency;
+        this.connections = connections;
+        this.hasDeadline = timeoutNanos > 0;
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+    }
+
+    public static WorkloadContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Переносит контекст текущего запроса в задачу, которая выполнится в другом потоке,
+     * например в параллельный запрос к шардам: там действуют тот же срок и та же группа.
+     */
+    public static <R> Supplier<R> propagate(Supplier<R> task) {
+        WorkloadContext context = current();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            WorkloadContext previous = current();
+            set(context);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    clear();
+                } else {
+                    set(previous);
+                }
+            }
+        };
+    }
+
+    static void set(WorkloadContext context) {
+        CURRENT.set(context);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public WorkloadGroup group() {
+        return group;
+    }
+
+    Semaphore concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Ограничение соединений группы или null.
+     */
+    public Semaphore connections() {
+        return connections;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Остаток срока; Long.MAX_VALUE, если срока нет.
+     */
+    public long remainingNanos() {
+        return hasDeadline() ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config.workload;
+
+/**
+ * Группы эндпоинтов со своими лимитами: всплеск в одной группе не отнимает потоки и соединения у остальных.
+ */
+public enum WorkloadGroup {
+    // полнотекстовый поиск вещей: LIKE-сканирование
+    SEARCH,
+    // списки бронирований арендатора и владельца
+    BOOKING_LISTING,
+    // все изменяющие запросы без явной группы
+    WRITE
+}
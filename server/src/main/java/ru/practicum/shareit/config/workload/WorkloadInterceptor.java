@@ -0,0 +1,110 @@
+package ru.practicum.shareit.config.workload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.practicum.shareit.exception.WorkloadRejectedException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead по группам эндпоинтов: запрос группы занимает разрешение на всё время обработки, а при
+ * исчерпании лимита ждёт не дольше {@code max-wait} и получает 503. Поток запроса при этом тот же —
+ * Tomcat или виртуальный, — поэтому учёт SQL по запросу и транзакции работают как обычно, а дешёвые
+ * эндпоинты без группы всегда находят свободный поток.
+ */
+public class WorkloadInterceptor implements AsyncHandlerInterceptor {
+    private static final String CONTEXT_ATTRIBUTE = WorkloadInterceptor.class.getName() + ".context";
+
+    private final Map<WorkloadGroup, Bulkhead> bulkheads = new EnumMap<>(WorkloadGroup.class);
+
+    public WorkloadInterceptor(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        for (WorkloadGroup group : WorkloadGroup.values()) {
+            WorkloadProperties.Group config = properties.getGroups().getOrDefault(group,
+                    new WorkloadProperties.Group());
+            Bulkhead bulkhead = new Bulkhead(config.getConcurrency() > 0
+                    ? new Semaphore(config.getConcurrency(), true) : null,
+                    config.getConnections() > 0 ? new Semaphore(config.getConnections(), true) : null,
+                    config.getMaxWait().toNanos(), config.getDeadline().toNanos(),
+                    Counter.builder("shareit.workload.rejected")
+                            .description("Запросы, отклонённые из-за исчерпания лимита группы")
+                            .tag("group", group.name())
+                            .register(meterRegistry));
+            if (bulkhead.concurrency != null) {
+                Gauge.builder("shareit.workload.available", bulkhead.concurrency, Semaphore::availablePermits)
+                        .description("Свободные места для одновременных запросов группы")
+                        .tag("group", group.name())
+                        .register(meterRegistry);
+            }
+            bulkheads.put(group, bulkhead);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Workload workload = method.getMethodAnnotation(Workload.class);
+        WorkloadGroup group = workload != null ? workload.value() : isWrite(request) ? WorkloadGroup.WRITE : null;
+        if (group == null) {
+            return true;
+        }
+        Bulkhead bulkhead = bulkheads.get(group);
+        if (bulkhead.concurrency != null
+                && !bulkhead.concurrency.tryAcquire(bulkhead.maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            bulkhead.rejected.increment();
+            throw new WorkloadRejectedException(String.format("Превышен лимит одновременных запросов группы %s",
+                    group));
+        }
+        long deadlineNanos = workload == null || workload.deadline().isEmpty() ? bulkhead.deadlineNanos
+                : DurationStyle.detectAndParse(workload.deadline()).toNanos();
+        WorkloadContext context = new WorkloadContext(group, bulkhead.concurrency, bulkhead.connections,
+                deadlineNanos);
+        WorkloadContext.set(context);
+        request.setAttribute(CONTEXT_ATTRIBUTE, context);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private static void release(HttpServletRequest request) {
+        if (request.getAttribute(CONTEXT_ATTRIBUTE) instanceof WorkloadContext context) {
+            request.removeAttribute(CONTEXT_ATTRIBUTE);
+            WorkloadContext.clear();
+            if (context.concurrency() != null) {
+                context.concurrency().release();
+            }
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS;
+    }
+
+    private record Bulkhead(Semaphore concurrency, Semaphore connections, long maxWaitNanos, long deadlineNanos,
+                            Counter rejected) {
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config.workload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.workload")
+public class WorkloadProperties {
+    private boolean enabled = true;
+    private Map<WorkloadGroup, Group> groups = new EnumMap<>(WorkloadGroup.class);
+
+    @Getter
+    @Setter
+    public static class Group {
+        // одновременных запросов группы; 0 — без ограничения
+        private int concurrency;
+        // соединений с БД, которые группа может занять одновременно; 0 — без ограничения
+        private int connections;
+        // сколько запрос ждёт свободного места в группе, прежде чем получить 503
+        private Duration maxWait = Duration.ofMillis(200);
+        // срок выполнения запроса: ограничивает ожидание соединения и таймаут SQL-запросов; 0 — без срока
+        private Duration deadline = Duration.ZERO;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.user.UserController;
+
+@Slf4j
+@RestControllerAdvice(assignableTypes = {ItemController.class, UserController.class, BookingController.class,
+        ItemRequestController.class})
+public class ErrorHandler {
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handle(final ConditionsNotMetException e) {
+        log.error("Ошибка валидации: {}", e.getMessage());
+        return new ErrorResponse("Ошибка валидации", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ErrorResponse handle(final IdempotencyKeyReusedException e) {
+        log.error("Повторное использование ключа идемпотентности: {}", e.getMessage());
+        return new ErrorResponse("Ключ идемпотентности уже использован", e.getMessage());
+    }
+
+    // перегрузка группы эндпоинтов или истёкший срок запроса: клиент может повторить позже
+    @ExceptionHandler({WorkloadRejectedException.class, QueryTimeoutException.class,
+            CannotCreateTransactionException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleOverload(final RuntimeException e) {
+        log.warn("Запрос отклонён из-за перегрузки: {}", e.getMessage());
+        return new ErrorResponse("Сервис перегружен", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handle(final NotFoundException e) {
+        log.error("Не найдено: {}", e.getMessage());
+        return new ErrorResponse("Не найдено", e.getMessage());
+    }
+
+    // собственные проверки сервиса и ограничения на параметры контроллеров (@Size, @Positive)
+    @ExceptionHandler({ValidationException.class, ConstraintViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleBadRequest(final RuntimeException e) {
+        log.error("Ошибка валидации: {}", e.getMessage());
+        return new ErrorResponse("Ошибка валидации", e.getMessage());
+    }
+}
\ No newline at end of file
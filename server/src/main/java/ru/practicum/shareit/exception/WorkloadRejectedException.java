@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class WorkloadRejectedException extends RuntimeException {
+    public WorkloadRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.config.workload.Workload;
+import ru.practicum.shareit.config.workload.WorkloadGroup;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemSuggestions;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.idempotency.IdempotencyStore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/items")
+public class ItemController {
+
+    private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
+    private final ItemSuggestions itemSuggestions;
+
+    /**
+     * Параметр fields (например, fields=name,available) ограничивает поля ответа; бронирования и отзывы
+     * загружаются, только если запрошены.
+     */
+    @GetMapping("/{id}")
+    public MappingJacksonValue getItem(@PathVariable("id") @Positive Long itemId,
+                                       @RequestHeader("X-Sharer-User-Id") long userId,
+                                       @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, ItemDto.class);
+        return fieldSet.apply(itemService.getItem(itemId, userId, fieldSet), ItemDto.FIELDS_FILTER);
+    }
+
+    /**
+     * Пакетное чтение: GET /items?ids=1,2,3. Найденные вещи возвращаются в порядке запроса, отсутствующие
+     * id — в missing.
+     */
+    @GetMapping(params = "ids")
+    public MappingJacksonValue getItems(@RequestParam @Size(min = 1, max = 100) List<Long> ids,
+                                        @RequestHeader("X-Sharer-User-Id") long userId,
+                                        @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, ItemDto.class);
+        return fieldSet.apply(itemService.getItems(ids, userId, fieldSet), ItemDto.FIELDS_FILTER);
+    }
+
+    @GetMapping("/search")
+    @Workload(WorkloadGroup.SEARCH)
+    public MappingJacksonValue searchItems(@RequestParam @NotNull String text,
+                                           @RequestParam(required = false) @Positive @Max(1000) Integer size,
+                                           @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, ItemDto.class);
+        return fieldSet.apply(itemService.searchItems(text, size, fieldSet), ItemDto.FIELDS_FILTER);
+    }
+
+    /**
+     * Подсказки для строки поиска: названия доступных вещей, начинающиеся с prefix (без учёта регистра),
+     * по убыванию числа вещей с таким названием. limit ограничен настройкой shareit.items.suggest.top-k.
+     */
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestParam @NotNull String prefix,
+                                           @RequestParam(required = false) @Positive Integer limit) {
+        return itemSuggestions.suggest(prefix, limit);
+    }
+
+    @GetMapping
+    public MappingJacksonValue getUsersItems(@Valid @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                             @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields, ItemDto.class);
+        return fieldSet.apply(itemService.getUsersItems(userId, fieldSet), ItemDto.FIELDS_FILTER);
+    }
+
+    /**
+     * Занятость вещи для виджета бронирования; по умолчанию — 30 дней от текущего момента.
+     */
+    @GetMapping("/{id}/calendar")
+    public ItemCalendarDto getCalendar(@PathVariable("id") @Positive Long itemId,
+                                       @RequestHeader("X-Sharer-User-Id") long userId,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        return itemService.getCalendar(itemId, userId, start, to == null ? start.plusDays(30) : to);
+    }
+
+    /**
+     * С заголовком Idempotency-Key повтор запроса возвращает ранее созданную вещь.
+     */
+    @PostMapping
+    public ItemDto saveNewItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                               @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255)
+                               String idempotencyKey,
+                               @Valid @RequestBody ItemDto itemDto) {
+        itemDto.setOwner(userId);
+        return idempotencyStore.execute(idempotencyKey, "POST /items", userId, itemDto,
+                () -> itemService.saveItem(itemDto));
+    }
+
+    @PatchMapping("/{id}")
+    public ItemDto updateItem(@PathVariable("id") @Positive Long itemId,
+                                 @Valid @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                 @RequestBody ItemDto itemDto) {
+        itemDto.setId(itemId);
+        itemDto.setOwner(userId);
+        return itemService.updateItem(itemDto);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public CommentDto addComment(@PathVariable long itemId,
+                                 @Valid @RequestBody CommentDto commentDto,
+                                 @RequestHeader("X-Sharer-User-Id") long userId,
+                                 @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255)
+                                 String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /items/" + itemId + "/comment", userId, commentDto,
+                () -> itemService.saveNewComment(commentDto, itemId, userId));
+    }
+}
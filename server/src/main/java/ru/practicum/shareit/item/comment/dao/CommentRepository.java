@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.comment.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends EntityRepository<Comment> {
+    List<Comment> findAllByItemId(long itemId);
+
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT c.id FROM Comment c " +
+            "WHERE c.item.id IN ?1 " +
+            "ORDER BY c.id")
+    List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable);
+
+    @Query("SELECT c.id FROM Comment c " +
+            "WHERE c.author.id = ?1 " +
+            "ORDER BY c.id")
+    List<Long> findIdsByAuthorId(long authorId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.dao.ItemCount(c.item.id, COUNT(c)) FROM Comment c " +
+            "GROUP BY c.item.id")
+    List<ItemCount> countGroupByItem();
+}
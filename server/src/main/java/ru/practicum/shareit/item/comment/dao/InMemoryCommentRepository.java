@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.comment.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dao.InMemoryItemRepository;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.InMemoryUserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.LongIndex;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("in-memory")
+@Order(50)
+@RequiredArgsConstructor
+public class InMemoryCommentRepository extends BaseInMemoryRepository<Comment> implements CommentRepository {
+
+    private final InMemoryItemRepository itemRepository;
+    private final InMemoryUserRepository userRepository;
+    private final LongIndex byItem = new LongIndex();
+    private final LongIndex byAuthor = new LongIndex();
+
+    @Override
+    protected Long getId(Comment comment) {
+        return comment.getId() == 0 ? null : comment.getId();
+    }
+
+    @Override
+    protected void setId(Comment comment, long id) {
+        comment.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "comments";
+    }
+
+    @Override
+    public void writeEntity(Comment comment, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, comment.getText());
+        out.writeLong(comment.getItem().getId());
+        out.writeLong(comment.getAuthor().getId());
+        StorageCodec.writeDateTime(out, comment.getCreated());
+    }
+
+    @Override
+    public Comment readEntity(long id, DataInputStream in) throws IOException {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText(StorageCodec.readString(in));
+        Item item = itemRepository.findInStorage(in.readLong()).orElse(null);
+        User author = userRepository.findInStorage(in.readLong()).orElse(null);
+        if (item == null || author == null) {
+            return null;
+        }
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(StorageCodec.readDateTime(in));
+        return comment;
+    }
+
+    @Override
+    protected Comment resolve(Comment comment) {
+        itemRepository.findInStorage(comment.getItem().getId()).ifPresent(comment::setItem);
+        userRepository.findInStorage(comment.getAuthor().getId()).ifPresent(comment::setAuthor);
+        return comment;
+    }
+
+    @Override
+    protected void onPut(Comment comment) {
+        byItem.add(comment.getItem().getId(), comment.getId());
+        byAuthor.add(comment.getAuthor().getId(), comment.getId());
+    }
+
+    @Override
+    protected void onRemove(Comment comment) {
+        byItem.remove(comment.getItem().getId(), comment.getId());
+        byAuthor.remove(comment.getAuthor().getId(), comment.getId());
+    }
+
+    @Override
+    public List<Comment> findAllByItemId(long itemId) {
+        return streamByIds(byItem.get(itemId))
+                .filter(comment -> comment.getItem().getId() == itemId)
+                .toList();
+    }
+
+    @Override
+    public List<Comment> findAllByItemIdIn(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .flatMap(itemId -> findAllByItemId(itemId).stream())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable) {
+        return itemIds.stream()
+                .flatMap(itemId -> findAllByItemId(itemId).stream())
+                .map(Comment::getId)
+                .sorted()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByAuthorId(long authorId, Pageable pageable) {
+        return streamByIds(byAuthor.get(authorId))
+                .filter(comment -> comment.getAuthor().getId() == authorId)
+                .map(Comment::getId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<ItemCount> countGroupByItem() {
+        return stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new ItemCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.InMemoryItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.InMemoryUserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.LongIndex;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+@Repository
+@Profile("in-memory")
+@Order(30)
+@RequiredArgsConstructor
+public class InMemoryItemRepository extends BaseInMemoryRepository<Item> implements ItemRepository {
+
+    private final InMemoryUserRepository userRepository;
+    private final InMemoryItemRequestRepository itemRequestRepository;
+    private final LongIndex byOwner = new LongIndex();
+    private final LongIndex byRequest = new LongIndex();
+
+    @Override
+    protected Long getId(Item item) {
+        return item.getId();
+    }
+
+    @Override
+    protected void setId(Item item, long id) {
+        item.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "items";
+    }
+
+    @Override
+    public void writeEntity(Item item, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, item.getName());
+        StorageCodec.writeString(out, item.getDescription());
+        StorageCodec.writeBoolean(out, item.getAvailable());
+        out.writeLong(item.getOwner().getId());
+        StorageCodec.writeLong(out, item.getRequest() == null ? null : item.getRequest().getId());
+    }
+
+    @Override
+    public Item readEntity(long id, DataInputStream in) throws IOException {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(StorageCodec.readString(in));
+        item.setDescription(StorageCodec.readString(in));
+        item.setAvailable(StorageCodec.readBoolean(in));
+        User owner = userRepository.findInStorage(in.readLong()).orElse(null);
+        if (owner == null) {
+            return null;
+        }
+        item.setOwner(owner);
+        Long requestId = in.available() > 0 ? StorageCodec.readLong(in) : null;
+        if (requestId != null) {
+            ItemRequest request = itemRequestRepository.findInStorage(requestId).orElse(null);
+            if (request == null) {
+                return null;
+            }
+            item.setRequest(request);
+        }
+        return item;
+    }
+
+    @Override
+    protected Item resolve(Item item) {
+        userRepository.findInStorage(item.getOwner().getId()).ifPresent(item::setOwner);
+        if (item.getRequest() != null) {
+            itemRequestRepository.findInStorage(item.getRequest().getId()).ifPresent(item::setRequest);
+        }
+        return item;
+    }
+
+    @Override
+    protected void onPut(Item item) {
+        byOwner.add(item.getOwner().getId(), item.getId());
+        if (item.getRequest() != null) {
+            byRequest.add(item.getRequest().getId(), item.getId());
+        }
+    }
+
+    @Override
+    protected void onRemove(Item item) {
+        byOwner.remove(item.getOwner().getId(), item.getId());
+        if (item.getRequest() != null) {
+            byRequest.remove(item.getRequest().getId(), item.getId());
+        }
+    }
+
+    public long[] findIdsByOwnerId(long userId) {
+        return byOwner.get(userId);
+    }
+
+    @Override
+    public List<Item> findByOwnerId(long userId) {
+        return streamByIds(byOwner.get(userId))
+                .filter(item -> item.getOwner().getId() == userId)
+                .toList();
+    }
+
+    @Override
+    public List<Item> findByText(String text) {
+        String query = text.toUpperCase(Locale.ROOT);
+        return stream()
+                .filter(Item::getAvailable)
+                .filter(item -> !item.getOwner().isDeleted())
+                .filter(item -> item.getName().toUpperCase(Locale.ROOT).contains(query) ||
+                        item.getDescription().toUpperCase(Locale.ROOT).contains(query))
+                .toList();
+    }
+
+    @Override
+    public List<Item> findAllByRequestIdIn(Collection<Long> requestIds) {
+        return requestIds.stream()
+                .flatMap(requestId -> streamByIds(byRequest.get(requestId))
+                        .filter(item -> item.getRequest() != null && item.getRequest().getId().equals(requestId)))
+                .toList();
+    }
+
+    @Override
+    public List<Item> findWithOwnerByIdIn(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<ItemName> findAvailableNames() {
+        return stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .filter(item -> !item.getOwner().isDeleted())
+                .map(item -> new ItemName(item.getId(), item.getName()))
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByOwnerId(long ownerId, Pageable pageable) {
+        return streamByIds(byOwner.get(ownerId))
+                .filter(item -> item.getOwner().getId() == ownerId)
+                .map(Item::getId)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public int detachFromRequests(Collection<Long> requestIds) {
+        int updated = 0;
+        for (Long requestId : requestIds) {
+            for (long itemId : byRequest.get(requestId)) {
+                Item item = findInStorage(itemId).orElse(null);
+                if (item != null && item.getRequest() != null && item.getRequest().getId().equals(requestId)) {
+                    // индекс снимаем до изменения: сущность меняется на месте, и onRemove её уже не увидит
+                    byRequest.remove(requestId, itemId);
+                    item.setRequest(null);
+                    updateInStorage(itemId, item);
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+@Profile("in-memory")
+@Order(80)
+public class InMemoryItemStatsRepository extends BaseInMemoryRepository<ItemStats> implements ItemStatsRepository {
+
+    @Override
+    protected Long getId(ItemStats stats) {
+        return stats.getItemId();
+    }
+
+    @Override
+    protected void setId(ItemStats stats, long id) {
+        stats.setItemId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "item-stats";
+    }
+
+    @Override
+    public void writeEntity(ItemStats stats, DataOutput out) throws IOException {
+        out.writeLong(stats.getViews());
+    }
+
+    @Override
+    public ItemStats readEntity(long id, DataInputStream in) throws IOException {
+        ItemStats stats = new ItemStats();
+        stats.setItemId(id);
+        stats.setViews(in.readLong());
+        return stats;
+    }
+
+    @Override
+    public Set<Long> addViews(Map<Long, Long> views) {
+        views.forEach((itemId, delta) -> {
+            ItemStats stats = findInStorage(itemId).orElseGet(() -> {
+                ItemStats created = new ItemStats();
+                created.setItemId(itemId);
+                return created;
+            });
+            stats.setViews(stats.getViews() + delta);
+            updateInStorage(itemId, stats);
+        });
+        // вещей здесь не видно; просмотры удалённых вещей убирает ItemViewCounter по событию удаления
+        return Set.of();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dao;
+
+/**
+ * Число связанных записей (бронирований, отзывов) по вещи — результат группировки по item_id.
+ */
+public record ItemCount(Long itemId, Long count) {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dao;
+
+/**
+ * Название доступной вещи — для построения подсказок.
+ */
+public record ItemName(Long itemId, String name) {
+}
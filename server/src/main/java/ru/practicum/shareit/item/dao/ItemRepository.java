@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemRepository extends EntityRepository<Item> {
+
+    List<Item> findByOwnerId(long userId);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
+            "AND i.available = true " +
+            "AND i.owner.deleted = false")
+    List<Item> findByText(String text);
+
+    // владелец тем же запросом: иначе жадная связь догружает владельцев ответов отдельными запросами
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Вещи по списку id вместе с владельцами одним запросом — для пакетного чтения.
+     */
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findWithOwnerByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.item.dao.ItemName(i.id, i.name) FROM Item i " +
+            "WHERE i.available = true " +
+            "AND i.owner.deleted = false")
+    List<ItemName> findAvailableNames();
+
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY i.id")
+    List<Long> findIdsByOwnerId(long ownerId, Pageable pageable);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Item i SET i.request = null " +
+            "WHERE i.request.id IN ?1")
+    int detachFromRequests(Collection<Long> requestIds);
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dao;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface ItemStatsBatchRepository {
+    /**
+     * Прибавляет просмотры к статистике вещей одним JDBC-батчем upsert-ов; строки создаются при первом просмотре.
+     * Возвращает id вещей, которых уже нет: их просмотры не записаны.
+     */
+    Set<Long> addViews(Map<Long, Long> views);
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class ItemStatsBatchRepositoryImpl implements ItemStatsBatchRepository {
+    // строка добавляется, только если вещь ещё есть: просмотры удалённой вещи из последнего сброса отбрасываются
+    private static final String POSTGRES_UPSERT = "INSERT INTO item_stats (item_id, views) " +
+            "SELECT id, ? FROM items WHERE id = ? " +
+            "ON CONFLICT (item_id) DO UPDATE SET views = item_stats.views + EXCLUDED.views";
+    // H2 не поддерживает ON CONFLICT ... DO UPDATE даже в режиме PostgreSQL
+    private static final String MERGE_UPSERT = "MERGE INTO item_stats s " +
+            "USING (SELECT id AS item_id, CAST(? AS BIGINT) AS views FROM items WHERE id = ?) AS d " +
+            "ON s.item_id = d.item_id " +
+            "WHEN MATCHED THEN UPDATE SET views = s.views + d.views " +
+            "WHEN NOT MATCHED THEN INSERT (item_id, views) VALUES (d.item_id, d.views)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsert;
+
+    @Transactional
+    @Override
+    public Set<Long> addViews(Map<Long, Long> views) {
+        if (views.isEmpty()) {
+            return Set.of();
+        }
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(views.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(upsert(), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, rows.get(i).getValue());
+                statement.setLong(2, rows.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    private String upsert() {
+        if (upsert == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            upsert = "PostgreSQL".equals(product) ? POSTGRES_UPSERT : MERGE_UPSERT;
+        }
+        return upsert;
+    }
+}
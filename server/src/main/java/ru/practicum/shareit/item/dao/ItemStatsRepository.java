@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.utils.EntityRepository;
+
+@Repository
+public interface ItemStatsRepository extends EntityRepository<ItemStats>, ItemStatsBatchRepository {
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Занятость вещи на отрезке [from, to): подряд идущие занятые и свободные слоты без промежутков.
+ */
+@Getter
+@Setter
+public class ItemCalendarDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Slot> slots;
+
+    @Getter
+    @Setter
+    public static class Slot {
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private boolean occupied;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -12,7 +13,10 @@ import java.util.List;
 
 @Getter
 @Setter
+@JsonFilter(ItemDto.FIELDS_FILTER)
 public class ItemDto {
+    public static final String FIELDS_FILTER = "itemFields";
+
     private Long id;
     @NotBlank
     @Size(max = 500)
@@ -23,7 +27,10 @@ public class ItemDto {
     Long owner;
     @NotNull
     private Boolean available;
+    private Long requestId;
     private BookingOutputDto lastBooking;
     private BookingOutputDto nextBooking;
     private List<CommentDto> comments;
+    // число просмотров; заполняется только в списке вещей владельца
+    private Long views;
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.FieldSet;
+
+@UtilityClass
+public class ItemMapper {
+
+    public static Item dtoToItem(ItemDto itemDto, User user, ItemRequest request) {
+        Item item = new Item();
+        item.setId(itemDto.getId());
+        item.setName(itemDto.getName());
+        item.setDescription(itemDto.getDescription());
+        item.setAvailable(itemDto.getAvailable());
+        item.setOwner(user);
+        item.setRequest(request);
+        return item;
+    }
+
+    public static ItemDto itemToDto(Item item) {
+        return itemToDto(item, FieldSet.ALL);
+    }
+
+    public static ItemDto itemToDto(Item item, FieldSet fields) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(item.getId());
+        if (fields.contains("name")) {
+            itemDto.setName(item.getName());
+        }
+        if (fields.contains("description")) {
+            itemDto.setDescription(item.getDescription());
+        }
+        if (fields.contains("available")) {
+            itemDto.setAvailable(item.getAvailable());
+        }
+        if (fields.contains("owner")) {
+            itemDto.setOwner(item.getOwner().getId());
+        }
+        if (fields.contains("requestId")) {
+            itemDto.setRequestId(item.getRequest() == null ? null : item.getRequest().getId());
+        }
+        return itemDto;
+    }
+
+    // копия закэшированной вещи с учётом запрошенных полей
+    public static ItemDto copy(ItemDto source, FieldSet fields) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(source.getId());
+        if (fields.contains("name")) {
+            itemDto.setName(source.getName());
+        }
+        if (fields.contains("description")) {
+            itemDto.setDescription(source.getDescription());
+        }
+        if (fields.contains("available")) {
+            itemDto.setAvailable(source.getAvailable());
+        }
+        if (fields.contains("owner")) {
+            itemDto.setOwner(source.getOwner());
+        }
+        if (fields.contains("requestId")) {
+            itemDto.setRequestId(source.getRequestId());
+        }
+        return itemDto;
+    }
+}
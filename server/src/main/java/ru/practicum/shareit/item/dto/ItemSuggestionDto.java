@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Подсказка по началу названия: само название и число доступных вещей с ним.
+ */
+@Getter
+@Setter
+public class ItemSuggestionDto {
+    private String name;
+    private Integer items;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Накопленная статистика просмотров вещи; строки пишутся пачками из {@code ItemViewCounter}.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "item_stats")
+@EqualsAndHashCode(of = { "itemId" })
+public class ItemStats {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    private long views;
+}
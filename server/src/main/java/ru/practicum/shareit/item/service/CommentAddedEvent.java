@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.service;
+
+public record CommentAddedEvent(long commentId, long itemId, long authorId) {
+}
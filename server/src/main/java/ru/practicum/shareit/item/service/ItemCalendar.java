@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+import ru.practicum.shareit.booking.service.BookingDeletedEvent;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.utils.cache.CacheInvalidationBus;
+import ru.practicum.shareit.utils.cache.LocalCache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Занятость вещей по подтверждённым бронированиям. Для каждой вещи хранится отсортированный массив
+ * слитых непересекающихся интервалов [start, end) в секундах — 16 байт на интервал вместо списка бронирований.
+ * Занятость строится из базы при первом запросе календаря вещи и лежит в локальном кэше {@code item-calendar}:
+ * подтверждение бронирования и очистка данных удалённого пользователя удаляют её через
+ * {@link CacheInvalidationBus} на всех экземплярах, а TTL кэша страхует от пропущенной инвалидации.
+ */
+@Component
+public class ItemCalendar {
+    private final LocalCache<long[]> calendarCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final BookingRepository bookingRepository;
+
+    public ItemCalendar(LocalCache<long[]> calendarCache, CacheInvalidationBus cacheInvalidationBus,
+                        BookingRepository bookingRepository) {
+        this.calendarCache = calendarCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.bookingRepository = bookingRepository;
+    }
+
+    public ItemCalendarDto getCalendar(long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemCalendarDto calendar = new ItemCalendarDto();
+        calendar.setItemId(itemId);
+        calendar.setFrom(from);
+        calendar.setTo(to);
+        calendar.setSlots(slots(calendarCache.get(itemId, this::load), seconds(from), seconds(to)));
+        return calendar;
+    }
+
+    /**
+     * Слоты отрезка [fromSecond, toSecond): занятые интервалы обрезаются по его границам, промежутки между
+     * ними — свободные слоты.
+     */
+    static List<ItemCalendarDto.Slot> slots(long[] intervals, long fromSecond, long toSecond) {
+        List<ItemCalendarDto.Slot> slots = new ArrayList<>();
+        long cursor = fromSecond;
+        for (int i = firstEndingAfter(intervals, fromSecond); i < intervals.length && cursor < toSecond; i += 2) {
+            long start = Math.max(intervals[i], fromSecond);
+            long end = Math.min(intervals[i + 1], toSecond);
+            if (start >= toSecond) {
+                break;
+            }
+            if (cursor < start) {
+                slots.add(slot(cursor, start, false));
+            }
+            slots.add(slot(start, end, true));
+            cursor = end;
+        }
+        if (cursor < toSecond) {
+            slots.add(slot(cursor, toSecond, false));
+        }
+        return slots;
+    }
+
+    // синхронно, в транзакции подтверждения: запись об инвалидации коммитится вместе с бронированием,
+    // а загрузка, начатая до коммита, не переживёт удаления после него
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            cacheInvalidationBus.invalidate(calendarCache, event.itemId());
+        }
+    }
+
+    @EventListener
+    public void onBookingDeleted(BookingDeletedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            cacheInvalidationBus.invalidate(calendarCache, event.itemId());
+        }
+    }
+
+    private long[] load(long itemId) {
+        long[] built = new long[0];
+        for (Booking booking : bookingRepository.findAllByItemIdInAndStatus(List.of(itemId),
+                BookingStatus.APPROVED)) {
+            built = insert(built, seconds(booking.getStart()), seconds(booking.getEnd()));
+        }
+        return built;
+    }
+
+    /**
+     * Новый массив с добавленным интервалом: пересекающиеся и смежные интервалы сливаются в один.
+     */
+    static long[] insert(long[] intervals, long start, long end) {
+        if (end <= start) {
+            return intervals;
+        }
+        int first = firstEndingAfter(intervals, start - 1);
+        int last = first;
+        while (last < intervals.length && intervals[last] <= end) {
+            start = Math.min(start, intervals[last]);
+            end = Math.max(end, intervals[last + 1]);
+            last += 2;
+        }
+        long[] merged = new long[intervals.length - (last - first) + 2];
+        System.arraycopy(intervals, 0, merged, 0, first);
+        merged[first] = start;
+        merged[first + 1] = end;
+        System.arraycopy(intervals, last, merged, first + 2, intervals.length - last);
+        return merged;
+    }
+
+    // индекс начала первого интервала, который заканчивается позже second
+    static int firstEndingAfter(long[] intervals, long second) {
+        int low = 0;
+        int high = intervals.length / 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (intervals[mid * 2 + 1] > second) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low * 2;
+    }
+
+    private static ItemCalendarDto.Slot slot(long start, long end, boolean occupied) {
+        ItemCalendarDto.Slot slot = new ItemCalendarDto.Slot();
+        slot.setStart(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC));
+        slot.setEnd(LocalDateTime.ofEpochSecond(end, 0, ZoneOffset.UTC));
+        slot.setOccupied(occupied);
+        return slot;
+    }
+
+    private static long seconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
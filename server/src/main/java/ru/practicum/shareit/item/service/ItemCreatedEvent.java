@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.service;
+
+/**
+ * Публикуется после сохранения новой вещи; слушатели получают его после коммита транзакции.
+ */
+public record ItemCreatedEvent(long itemId, long ownerId, Long requestId, String name, String description,
+                               boolean available) {
+}
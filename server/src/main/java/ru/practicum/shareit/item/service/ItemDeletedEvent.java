@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.service;
+
+/**
+ * Вещь удалена при очистке данных удалённого пользователя.
+ */
+public record ItemDeletedEvent(long itemId) {
+}
@@ -0,0 +1,254 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.utils.ConcurrentLongMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Сжатое префиксное дерево названий вещей без учёта регистра. Ребро хранит фрагмент ключа, узел — лучшие
+ * {@code topK} завершений своего поддерева (по числу вещей с названием, затем по алфавиту), поэтому подсказка
+ * по префиксу — спуск по дереву без обхода поддерева. При добавлении и удалении названия лучшие завершения
+ * пересчитываются только на пути от изменённого узла к корню. Не потокобезопасно.
+ */
+final class ItemNameTrie {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Completion[] EMPTY = new Completion[0];
+    private static final Comparator<Completion> BEST_FIRST = Comparator.comparingInt(Completion::count).reversed()
+            .thenComparing(Completion::key);
+
+    private final int topK;
+    private final Node root = new Node("");
+    // проиндексированное название каждой вещи, чтобы при изменении убрать прежнее
+    private final ConcurrentLongMap<String> names = new ConcurrentLongMap<>();
+
+    ItemNameTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Приводит дерево к текущему состоянию вещи: недоступная вещь или пустое название убираются.
+     */
+    void index(long itemId, String name, boolean available) {
+        String indexed = available && name != null && !name.isBlank() ? name.strip() : null;
+        String previous = indexed == null ? names.remove(itemId) : names.put(itemId, indexed);
+        if (Objects.equals(previous, indexed)) {
+            return;
+        }
+        if (previous != null) {
+            remove(previous);
+        }
+        if (indexed != null) {
+            add(indexed);
+        }
+    }
+
+    List<Completion> suggest(String prefix, int limit) {
+        String key = WHITESPACE.matcher(prefix.stripLeading()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            Node child = node.children.get(key.charAt(pos));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length() && pos + common < key.length()) {
+                return List.of();
+            }
+            pos += common;
+            node = child;
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    private void add(String text) {
+        String key = key(text);
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            Node child = node.children.get(key.charAt(pos));
+            if (child == null) {
+                child = new Node(key.substring(pos));
+                node.children.put(key.charAt(pos), child);
+                pos = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, pos);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                pos += common;
+            }
+            node = child;
+            path.add(node);
+        }
+        if (node.completion == null) {
+            node.completion = new Completion(key);
+        }
+        node.completion.add(text);
+        refresh(path);
+    }
+
+    private void remove(String text) {
+        String key = key(text);
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int pos = 0;
+        while (pos < key.length()) {
+            node = node.children.get(key.charAt(pos));
+            if (node == null || commonPrefix(node.label, key, pos) < node.label.length()) {
+                return;
+            }
+            pos += node.label.length();
+            path.add(node);
+        }
+        if (node.completion == null || !node.completion.remove(text)) {
+            return;
+        }
+        if (node.completion.count == 0) {
+            node.completion = null;
+        }
+        // пустые узлы удаляются, узлы с единственным ребёнком сливаются с ним, чтобы дерево оставалось сжатым
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.completion != null || current.children.size() > 1) {
+                continue;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+                path.remove(i);
+            } else {
+                Node only = current.children.values().iterator().next();
+                only.label = current.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                path.set(i, only);
+            }
+        }
+        refresh(path);
+    }
+
+    // от листа к корню: лучшие завершения узла — его собственное и лучшие завершения детей
+    private void refresh(List<Node> path) {
+        List<Completion> candidates = new ArrayList<>();
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            candidates.clear();
+            if (node.completion != null) {
+                candidates.add(node.completion);
+            }
+            for (Node child : node.children.values()) {
+                Collections.addAll(candidates, child.top);
+            }
+            candidates.sort(BEST_FIRST);
+            node.top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(EMPTY);
+        }
+    }
+
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private static int commonPrefix(String label, String key, int pos) {
+        int length = Math.min(label.length(), key.length() - pos);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String key(String text) {
+        return WHITESPACE.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Completion completion;
+        private Completion[] top = EMPTY;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Название без учёта регистра; показывается в самом частом написании.
+     */
+    static final class Completion {
+        private final String key;
+        private final Map<String, Integer> variants = new HashMap<>(2);
+        private int count;
+        private String text;
+
+        private Completion(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        String text() {
+            return text;
+        }
+
+        int count() {
+            return count;
+        }
+
+        private void add(String variant) {
+            variants.merge(variant, 1, Integer::sum);
+            count++;
+            text = mostCommon();
+        }
+
+        private boolean remove(String variant) {
+            Integer variantCount = variants.get(variant);
+            if (variantCount == null) {
+                return false;
+            }
+            if (variantCount == 1) {
+                variants.remove(variant);
+            } else {
+                variants.put(variant, variantCount - 1);
+            }
+            count--;
+            if (count > 0) {
+                text = mostCommon();
+            }
+            return true;
+        }
+
+        private String mostCommon() {
+            return variants.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElse(text);
+        }
+    }
+}
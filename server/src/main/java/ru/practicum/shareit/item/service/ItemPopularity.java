@@ -0,0 +1,203 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+import ru.practicum.shareit.booking.service.BookingDeletedEvent;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemCount;
+import ru.practicum.shareit.utils.ConcurrentLongMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Популярность вещей для ранжирования поиска: число подтверждённых бронирований и отзывов.
+ * Оба счётчика упакованы в один long (старшие 32 бита — бронирования, младшие — отзывы) в хеш-таблице
+ * с примитивными ключами. Счётчики загружаются группировкой при старте и увеличиваются событиями после коммита,
+ * и уменьшаются событиями удаления, так что при поиске агрегирующих запросов нет. Периодическая перезагрузка
+ * целиком подхватывает изменения других экземпляров.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SearchRankingProperties.class)
+public class ItemPopularity {
+    private static final long BOOKING = 1L << 32;
+    private static final long COMMENTS_MASK = BOOKING - 1;
+
+    // ReentrantLock вместо монитора: перезагрузка ждёт JDBC и не должна закреплять виртуальный поток на носителе
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private volatile ConcurrentLongMap<Long> counters = new ConcurrentLongMap<>();
+    // приращения {itemId, бронирования, отзывы}, пришедшие во время перезагрузки: добавляются к новым счётчикам
+    // перед заменой
+    private List<long[]> pending;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final SearchRankingProperties properties;
+
+    public ItemPopularity(BookingRepository bookingRepository, CommentRepository commentRepository,
+                          SearchRankingProperties properties, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.properties = properties;
+        Gauge.builder("shareit.items.popularity.tracked", this, popularity -> popularity.counters.size())
+                .description("Вещи с ненулевой популярностью")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Пересчитывает счётчики группировкой и заменяет ими текущие. Приращение, закоммиченное во время
+     * запросов, может попасть и в группировку, и в отложенные; такой лишний счёт исправит следующая перезагрузка.
+     */
+    @Scheduled(fixedDelayString = "${shareit.items.search.popularity-reload-interval:PT10M}",
+            initialDelayString = "${shareit.items.search.popularity-reload-interval:PT10M}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            startPending();
+            try {
+                ConcurrentLongMap<Long> loaded = new ConcurrentLongMap<>();
+                List<ItemCount> bookings = bookingRepository.countByStatusGroupByItem(BookingStatus.APPROVED);
+                List<ItemCount> comments = commentRepository.countGroupByItem();
+                bookings.forEach(count -> increment(loaded, count.itemId(), count.count(), 0));
+                comments.forEach(count -> increment(loaded, count.itemId(), 0, count.count()));
+                pendingLock.lock();
+                try {
+                    pending.forEach(delta -> increment(loaded, delta[0], delta[1], delta[2]));
+                    counters = loaded;
+                } finally {
+                    pendingLock.unlock();
+                }
+                log.info("Популярность загружена: {} вещей с бронированиями, {} с отзывами", bookings.size(),
+                        comments.size());
+            } finally {
+                pendingLock.lock();
+                try {
+                    pending = null;
+                } finally {
+                    pendingLock.unlock();
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void startPending() {
+        pendingLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            add(event.itemId(), 1, 0);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingDeleted(BookingDeletedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            add(event.itemId(), -1, 0);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        add(event.itemId(), 0, 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentDeleted(CommentDeletedEvent event) {
+        add(event.itemId(), 0, -1);
+    }
+
+    public double score(long itemId) {
+        Long packed = counters.get(itemId);
+        if (packed == null) {
+            return 0;
+        }
+        return (packed >>> 32) * properties.getBookingWeight()
+                + (packed & COMMENTS_MASK) * properties.getCommentWeight();
+    }
+
+    /**
+     * Лучшие {@code limit} кандидатов по убыванию популярности, при равенстве — по возрастанию id.
+     * Куча на {@code limit} элементов: O(n log k) вместо сортировки всех совпадений.
+     */
+    public <T> List<T> top(Collection<T> candidates, ToLongFunction<T> idOf, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Comparator<Ranked<T>> worstFirst = Comparator.<Ranked<T>>comparingDouble(Ranked::score)
+                .thenComparing(Comparator.<Ranked<T>>comparingLong(Ranked::id).reversed());
+        PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(worstFirst);
+        for (T candidate : candidates) {
+            long id = idOf.applyAsLong(candidate);
+            Ranked<T> ranked = new Ranked<>(candidate, id, score(id));
+            if (heap.size() < limit) {
+                heap.add(ranked);
+            } else if (worstFirst.compare(ranked, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        }
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().value());
+        }
+        return result.reversed();
+    }
+
+    private void add(long itemId, long bookings, long comments) {
+        pendingLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(new long[]{itemId, bookings, comments});
+            }
+            increment(counters, itemId, bookings, comments);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Счётчики не уходят ниже нуля: удаление, попавшее и в группировку, и в отложенные, иначе заняло бы
+     * бит соседнего счётчика. Вещь с нулевыми счётчиками удаляется из таблицы.
+     */
+    private static void increment(ConcurrentLongMap<Long> target, long itemId, long bookings, long comments) {
+        target.compute(itemId, packed -> {
+            long current = packed == null ? 0 : packed;
+            long booked = Math.max(0, (current >>> 32) + bookings);
+            long commented = Math.max(0, (current & COMMENTS_MASK) + comments);
+            return booked == 0 && commented == 0 ? null : booked * BOOKING + commented;
+        });
+    }
+
+    private record Ranked<T>(T value, long id, double score) {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.MultiGetResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemService {
+
+    ItemDto getItem(Long id, Long userId, FieldSet fields);
+
+    MultiGetResult<ItemDto> getItems(List<Long> ids, Long userId, FieldSet fields);
+
+    List<ItemDto> getUsersItems(Long userId, FieldSet fields);
+
+    /**
+     * Доступные вещи, в названии или описании которых есть text, от популярных к менее популярным
+     * (подтверждённые бронирования и отзывы). size — сколько лучших вернуть, без size — все совпадения.
+     */
+    List<ItemDto> searchItems(String text, Integer size, FieldSet fields);
+
+    /**
+     * Занятые подтверждёнными бронированиями и свободные слоты вещи на отрезке [from, to).
+     * Календарь видит любой существующий пользователь.
+     */
+    ItemCalendarDto getCalendar(long itemId, long userId, LocalDateTime from, LocalDateTime to);
+
+    ItemDto saveItem(ItemDto itemDto);
+
+    ItemDto updateItem(ItemDto itemDto);
+
+    CommentDto saveNewComment(CommentDto commentDto, long itemId, long userId);
+}
@@ -0,0 +1,292 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemStatsRepository;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.FieldSet;
+import ru.practicum.shareit.utils.MultiGetResult;
+import ru.practicum.shareit.utils.cache.CacheInvalidationBus;
+import ru.practicum.shareit.utils.cache.LocalCache;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+@Slf4j
+@Transactional
+@Service
+@RequiredArgsConstructor
+public class ItemServiceImpl implements ItemService {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemPopularity itemPopularity;
+    private final ItemStatsRepository itemStatsRepository;
+    private final ItemViewCounter itemViewCounter;
+    private final ItemCalendar itemCalendar;
+    private final LocalCache<ItemDto> itemCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemDto getItem(Long id, Long userId, FieldSet fields) {
+        log.debug("Поиск вещи по id = {}.", id);
+        ItemDto itemDto = addBookingsAndComments(itemCache.get(id,
+                itemId -> ItemMapper.itemToDto(getItemById(itemId))), userId, fields);
+        itemViewCounter.record(id);
+        return itemDto;
+    }
+
+    /**
+     * Вещи по списку id одним IN-запросом; бронирования владельца и отзывы догружаются
+     * по одному запросу на всю пачку, а не на каждую вещь.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public MultiGetResult<ItemDto> getItems(List<Long> ids, Long userId, FieldSet fields) {
+        log.debug("Пакетный поиск вещей по id = {}.", ids);
+        final Set<Long> requested = new LinkedHashSet<>(ids);
+        final List<Item> items = itemRepository.findWithOwnerByIdIn(requested);
+        final Map<Long, ItemDto> found = new HashMap<>();
+        items.forEach(item -> found.put(item.getId(), ItemMapper.itemToDto(item, fields)));
+
+        final List<Long> ownedIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .toList();
+        if (!ownedIds.isEmpty() && (fields.contains("lastBooking") || fields.contains("nextBooking"))) {
+            final LocalDateTime thisMoment = LocalDateTime.now();
+            final Map<Long, List<Booking>> bookings = bookingRepository
+                    .findAllByItemIdInAndStatus(ownedIds, BookingStatus.APPROVED).stream()
+                    .collect(groupingBy(booking -> booking.getItem().getId()));
+            for (Long itemId : ownedIds) {
+                final List<Booking> itemBookings = bookings.getOrDefault(itemId, Collections.emptyList());
+                final ItemDto itemDto = found.get(itemId);
+                if (fields.contains("lastBooking")) {
+                    itemDto.setLastBooking(itemBookings.stream()
+                            .filter(booking -> !booking.getStart().isAfter(thisMoment))
+                            .max(Comparator.comparing(Booking::getEnd))
+                            .map(BookingMapper::bookingToOutputDto)
+                            .orElse(null));
+                }
+                if (fields.contains("nextBooking")) {
+                    itemDto.setNextBooking(itemBookings.stream()
+                            .filter(booking -> booking.getStart().isAfter(thisMoment))
+                            .min(Comparator.comparing(Booking::getEnd))
+                            .map(BookingMapper::bookingToOutputDto)
+                            .orElse(null));
+                }
+            }
+        }
+
+        if (!found.isEmpty() && fields.contains("comments")) {
+            final Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(found.keySet()).stream()
+                    .collect(groupingBy(comment -> comment.getItem().getId(),
+                            mapping(CommentMapper::commentToDto, toList())));
+            found.forEach((itemId, itemDto) ->
+                    itemDto.setComments(comments.getOrDefault(itemId, Collections.emptyList())));
+        }
+        return MultiGetResult.of(requested, found, Collections.emptySet());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> getUsersItems(Long userId, FieldSet fields) {
+        log.debug("Поиск вещей по id пользователя = {}.", userId);
+        userService.getUser(userId);
+        final List<ItemDto> items = itemRepository.findByOwnerId(userId).stream()
+                .map(item -> ItemMapper.itemToDto(item, fields))
+                .toList();
+        if (!items.isEmpty() && fields.contains("views")) {
+            final Map<Long, Long> stored = itemStatsRepository.findAllById(items.stream().map(ItemDto::getId).toList())
+                    .stream()
+                    .collect(toMap(ItemStats::getItemId, ItemStats::getViews));
+            items.forEach(itemDto -> itemDto.setViews(stored.getOrDefault(itemDto.getId(), 0L)
+                    + itemViewCounter.pending(itemDto.getId())));
+        }
+        return items;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchItems(String text, Integer size, FieldSet fields) {
+        log.debug("Поиск вещей по тексту = {}.", text);
+        if (text.isBlank()) {
+            log.debug("Тестовая строка поиска пустая");
+            return Collections.emptyList();
+        }
+        int limit = size == null ? Integer.MAX_VALUE : size;
+        return itemPopularity.top(itemRepository.findByText(text), Item::getId, limit).stream()
+                .map(item -> ItemMapper.itemToDto(item, fields))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemCalendarDto getCalendar(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Календарь вещи {} с {} по {} для пользователя {}", itemId, from, to, userId);
+        if (!to.isAfter(from)) {
+            throw new ValidationException("Начало периода календаря должно быть раньше конца");
+        }
+        getUserById(userId);
+        getItemById(itemId);
+        return itemCalendar.getCalendar(itemId, from, to);
+    }
+
+    @Override
+    public ItemDto saveItem(ItemDto itemDto) {
+        log.debug("Начато создание вещи владельцем {}", itemDto.getOwner());
+        validateBeforeSave(itemDto);
+        final ItemRequest request = itemDto.getRequestId() == null ? null : itemRequestRepository
+                .findById(itemDto.getRequestId())
+                .orElseThrow(() -> new NotFoundException(String.format("Запрос вещи %d не найден",
+                        itemDto.getRequestId())));
+        final Item item = itemRepository.save(ItemMapper.dtoToItem(itemDto, getUserById(itemDto.getOwner()),
+                request));
+        log.debug("Вещь владельца {} создана", itemDto.getOwner());
+        eventPublisher.publishEvent(new ItemCreatedEvent(item.getId(), item.getOwner().getId(),
+                request == null ? null : request.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable())));
+        return ItemMapper.itemToDto(item);
+    }
+
+    @Override
+    public ItemDto updateItem(ItemDto itemDto) {
+        log.debug("Начато обновление вещи {}", itemDto.getId());
+
+        final Long itemId = itemDto.getId();
+        final Long ownerId = itemDto.getOwner();
+        final String name = itemDto.getName();
+        final String description = itemDto.getDescription();
+        final Boolean available = itemDto.getAvailable();
+
+        final Item currentItem = getItemById(itemId);
+
+        userService.getUser(ownerId);
+        if (!currentItem.getOwner().getId().equals(ownerId)) {
+            log.error("Владелец {} не совпадает с пользователем {}!", currentItem.getOwner().getId(), ownerId);
+            throw new ConditionsNotMetException(String.format("Владелец %d не совпадает с пользователем %d!",
+                    currentItem.getOwner().getId(), ownerId));
+        }
+
+        if (name != null && !name.isBlank()) {
+            currentItem.setName(name);
+        }
+        if (description != null && !description.isBlank()) {
+            currentItem.setDescription(description);
+        }
+        if (available != null) {
+            currentItem.setAvailable(available);
+        }
+
+        final ItemDto updated = ItemMapper.itemToDto(itemRepository.save(currentItem));
+        cacheInvalidationBus.invalidate(itemCache, itemId);
+        eventPublisher.publishEvent(new ItemUpdatedEvent(itemId, updated.getName(),
+                Boolean.TRUE.equals(updated.getAvailable())));
+        log.debug("Вещь {} обновлена", itemId);
+        return updated;
+    }
+
+    @Override
+    public CommentDto saveNewComment(CommentDto commentDto, long itemId, long userId) {
+        User user = getUserById(userId);
+        Item item = getItemById(itemId);
+        if (!bookingRepository.existsByBookerIdAndItemIdAndEndBefore(user.getId(), item.getId(), LocalDateTime.now())) {
+            throw new ValidationException("Пользователь не может оставлять отзыв, т.к. не пользовался вещью");
+        }
+        Comment comment = commentRepository.save(CommentMapper.dtoToComment(commentDto, item, user));
+        eventPublisher.publishEvent(new CommentAddedEvent(comment.getId(), item.getId(), user.getId()));
+        return CommentMapper.commentToDto(comment);
+    }
+
+    private void validateBeforeSave(ItemDto itemDto) {
+        log.debug("Начата проверка перед созданием вещи владельцем {}", itemDto.getOwner());
+        userService.getUser(itemDto.getOwner());
+        log.debug("Проверка перед созданием вещи владельцем {} успешна", itemDto.getOwner());
+    }
+
+    private User getUserById(long userId) {
+        return userRepository.findByIdAndDeletedFalse(userId).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь %d не найден", userId)));
+    }
+
+    private Item getItemById(Long id) {
+        log.debug("Поиск вещи по id = {}.", id);
+        return itemRepository.findById(id).orElseThrow(() ->
+                new NotFoundException(String.format("Вещь с id = %d не найдена", id)));
+    }
+
+    // запросы бронирований и отзывов выполняются только для запрошенных полей
+    private ItemDto addBookingsAndComments(ItemDto item, long userId, FieldSet fields) {
+        ItemDto itemDto = ItemMapper.copy(item, fields);
+
+        LocalDateTime thisMoment = LocalDateTime.now();
+        boolean isOwner = item.getOwner() == userId;
+        if (isOwner && fields.contains("lastBooking")) {
+            itemDto.setLastBooking(bookingRepository
+                    .findFirstByItemIdAndStartLessThanEqualAndStatus(itemDto.getId(), thisMoment,
+                            BookingStatus.APPROVED, Sort.by(DESC, "end"))
+                    .map(BookingMapper::bookingToOutputDto)
+                    .orElse(null));
+        }
+        if (isOwner && fields.contains("nextBooking")) {
+            itemDto.setNextBooking(bookingRepository
+                    .findFirstByItemIdAndStartAfterAndStatus(itemDto.getId(), thisMoment,
+                            BookingStatus.APPROVED, Sort.by(ASC, "end"))
+                    .map(BookingMapper::bookingToOutputDto)
+                    .orElse(null));
+        }
+
+        if (fields.contains("comments")) {
+            itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId())
+                    .stream()
+                    .map(CommentMapper::commentToDto)
+                    .collect(toList()));
+        }
+
+        return itemDto;
+    }
+}
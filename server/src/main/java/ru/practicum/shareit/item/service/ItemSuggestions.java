@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemName;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.user.service.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подсказки по началу названия доступных вещей из {@link ItemNameTrie} в памяти: запрос подсказки не ходит
+ * в базу. Дерево строится при старте, дальше обновляется после коммита событиями создания и изменения вещей
+ * и удаления пользователей, а также периодически перестраивается целиком — так подхватываются изменения
+ * других экземпляров.
+ */
+@Slf4j
+@Component
+public class ItemSuggestions {
+    private static final int EVICT_CHUNK = 500;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // одна перестройка за раз; ReentrantLock вместо монитора: чтение названий из базы не закрепляет
+    // виртуальный поток на носителе
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ItemRepository itemRepository;
+    private final int topK;
+    private volatile ItemNameTrie trie;
+    // изменения, пришедшие во время перестройки: применяются к новому дереву перед заменой
+    private List<ItemUpdatedEvent> pending;
+
+    public ItemSuggestions(ItemRepository itemRepository, MeterRegistry meterRegistry,
+                           @Value("${shareit.items.suggest.top-k:10}") int topK) {
+        this.itemRepository = itemRepository;
+        this.topK = topK;
+        this.trie = new ItemNameTrie(topK);
+        Gauge.builder("shareit.items.suggest.indexed", this, suggestions -> suggestions.trie.size())
+                .description("Доступные вещи в дереве подсказок")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Не больше {@code limit} подсказок; без limit и при limit больше {@code top-k} — {@code top-k}.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, Integer limit) {
+        int count = limit == null ? topK : Math.min(limit, topK);
+        lock.readLock().lock();
+        try {
+            return trie.suggest(prefix, count).stream()
+                    .map(completion -> {
+                        ItemSuggestionDto suggestion = new ItemSuggestionDto();
+                        suggestion.setName(completion.text());
+                        suggestion.setItems(completion.count());
+                        return suggestion;
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.suggest.rebuild-interval:PT10M}",
+            initialDelayString = "${shareit.items.suggest.rebuild-interval:PT10M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ItemNameTrie rebuilt = new ItemNameTrie(topK);
+            try {
+                List<ItemName> names = itemRepository.findAvailableNames();
+                names.forEach(item -> rebuilt.index(item.itemId(), item.name(), true));
+                lock.writeLock().lock();
+                try {
+                    pending.forEach(event -> rebuilt.index(event.itemId(), event.name(), event.available()));
+                    trie = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.debug("Дерево подсказок перестроено: {} вещей", names.size());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemCreated(ItemCreatedEvent event) {
+        apply(new ItemUpdatedEvent(event.itemId(), event.name(), event.available()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemUpdated(ItemUpdatedEvent event) {
+        apply(event);
+    }
+
+    // вещи удалённого пользователя убираются сразу, не дожидаясь фоновой очистки и перестройки
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        PageRequest chunk = PageRequest.ofSize(EVICT_CHUNK);
+        List<Long> itemIds;
+        while (!(itemIds = itemRepository.findIdsByOwnerId(event.userId(), chunk)).isEmpty()) {
+            itemIds.forEach(itemId -> apply(new ItemUpdatedEvent(itemId, null, false)));
+            if (itemIds.size() < EVICT_CHUNK) {
+                break;
+            }
+            chunk = chunk.next();
+        }
+    }
+
+    private void apply(ItemUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            trie.index(event.itemId(), event.name(), event.available());
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
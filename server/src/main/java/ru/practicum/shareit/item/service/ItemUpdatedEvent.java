@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.service;
+
+/**
+ * Публикуется после изменения вещи; слушатели получают его после коммита транзакции.
+ */
+public record ItemUpdatedEvent(long itemId, String name, boolean available) {
+}
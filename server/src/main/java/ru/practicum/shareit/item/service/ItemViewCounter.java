@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemStatsRepository;
+import ru.practicum.shareit.utils.ConcurrentLongMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики просмотров вещей. Просмотр — инкремент {@link LongAdder} (ячейки на поток, без общей блокировки),
+ * найденного в хеш-таблице с оптимистичным чтением, так что чтение вещи не пишет в базу. Фоновая задача
+ * забирает накопленные приращения и одним батчем upsert-ов прибавляет их к {@code item_stats};
+ * при ошибке записи приращения возвращаются в счётчики и уйдут со следующим сбросом. Счётчики удалённых вещей
+ * убираются по {@link ItemDeletedEvent}, а просмотры, досчитанные после удаления, отбрасываются при сбросе.
+ */
+@Slf4j
+@Component
+public class ItemViewCounter {
+    private final ConcurrentLongMap<Views> pending = new ConcurrentLongMap<>();
+    private final ItemStatsRepository itemStatsRepository;
+    private final Counter flushedCounter;
+
+    public ItemViewCounter(ItemStatsRepository itemStatsRepository, MeterRegistry meterRegistry) {
+        this.itemStatsRepository = itemStatsRepository;
+        this.flushedCounter = Counter.builder("shareit.items.views.flushed")
+                .description("Просмотры вещей, записанные в item_stats")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.views.tracked", pending, ConcurrentLongMap::size)
+                .description("Вещи со счётчиком просмотров в памяти")
+                .register(meterRegistry);
+    }
+
+    public void record(long itemId) {
+        Views views = pending.get(itemId);
+        if (views == null) {
+            pending.compute(itemId, existing -> existing == null ? new Views(itemId, new LongAdder()) : existing);
+            views = pending.get(itemId);
+        }
+        views.count().increment();
+    }
+
+    /**
+     * Просмотры, ещё не записанные в базу.
+     */
+    public long pending(long itemId) {
+        Views views = pending.get(itemId);
+        return views == null ? 0 : views.count().sum();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.items.stats.flush-interval:PT10S}",
+            initialDelayString = "${shareit.items.stats.flush-interval:PT10S}")
+    public void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEachValue(views -> {
+            long delta = views.count().sumThenReset();
+            if (delta > 0) {
+                deltas.put(views.itemId(), delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            // вещь удалили между просмотром и сбросом: строка не записана, счётчик больше не нужен
+            itemStatsRepository.addViews(deltas).forEach(pending::remove);
+            flushedCounter.increment(deltas.values().stream().mapToLong(Long::longValue).sum());
+            log.debug("Записаны просмотры {} вещей", deltas.size());
+        } catch (RuntimeException e) {
+            deltas.forEach((itemId, delta) -> {
+                Views views = pending.get(itemId);
+                if (views != null) {
+                    views.count().add(delta);
+                }
+            });
+            log.warn("Не удалось записать просмотры {} вещей, повтор при следующем сбросе: {}", deltas.size(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Счётчик удалённой вещи больше не нужен: без этого записи удалённых вещей копились бы в памяти.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        pending.remove(event.itemId());
+    }
+
+    private record Views(long itemId, LongAdder count) {
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.items.search")
+public class SearchRankingProperties {
+    private double bookingWeight = 1.0;
+    private double commentWeight = 0.5;
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping(path = "/requests")
+public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto saveNewRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+                                         @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestService.save(itemRequestDto, userId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestService.getOwnRequests(userId);
+    }
+
+    /**
+     * Лента чужих запросов от новых к старым. Для следующей страницы передаются created и id
+     * последнего полученного запроса.
+     */
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOtherRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime beforeCreated,
+                                                 @RequestParam(required = false) Long beforeId,
+                                                 @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return itemRequestService.getOtherRequests(userId, beforeCreated, beforeId, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequest(@PathVariable long requestId, @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestService.getRequest(requestId, userId);
+    }
+
+    @PatchMapping("/{requestId}/close")
+    public ItemRequestDto closeRequest(@PathVariable long requestId, @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestService.closeRequest(requestId, userId);
+    }
+
+    /**
+     * Вещи, автоматически подобранные к запросу по совпадению слов. Доступно только автору запроса.
+     */
+    @GetMapping("/{requestId}/matches")
+    public List<ItemMatchDto> getMatches(@PathVariable long requestId, @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestService.getMatches(requestId, userId);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.request.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dao.InMemoryItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.LongIndex;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+@Profile("in-memory")
+@Order(60)
+@RequiredArgsConstructor
+public class InMemoryItemRequestMatchRepository extends BaseInMemoryRepository<ItemRequestMatch>
+        implements ItemRequestMatchRepository {
+
+    private final InMemoryItemRequestRepository itemRequestRepository;
+    private final InMemoryItemRepository itemRepository;
+    private final LongIndex byRequest = new LongIndex();
+    private final LongIndex byItem = new LongIndex();
+
+    @Override
+    protected Long getId(ItemRequestMatch match) {
+        return match.getId();
+    }
+
+    @Override
+    protected void setId(ItemRequestMatch match, long id) {
+        match.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "request-matches";
+    }
+
+    @Override
+    public void writeEntity(ItemRequestMatch match, DataOutput out) throws IOException {
+        out.writeLong(match.getRequest().getId());
+        out.writeLong(match.getItem().getId());
+        out.writeDouble(match.getScore());
+        StorageCodec.writeDateTime(out, match.getCreated());
+    }
+
+    @Override
+    public ItemRequestMatch readEntity(long id, DataInputStream in) throws IOException {
+        ItemRequestMatch match = new ItemRequestMatch();
+        match.setId(id);
+        ItemRequest request = itemRequestRepository.findInStorage(in.readLong()).orElse(null);
+        Item item = itemRepository.findInStorage(in.readLong()).orElse(null);
+        if (request == null || item == null) {
+            return null;
+        }
+        match.setRequest(request);
+        match.setItem(item);
+        match.setScore(in.readDouble());
+        match.setCreated(StorageCodec.readDateTime(in));
+        return match;
+    }
+
+    @Override
+    protected ItemRequestMatch resolve(ItemRequestMatch match) {
+        itemRequestRepository.findInStorage(match.getRequest().getId()).ifPresent(match::setRequest);
+        itemRepository.findInStorage(match.getItem().getId()).ifPresent(match::setItem);
+        return match;
+    }
+
+    @Override
+    protected void onPut(ItemRequestMatch match) {
+        byRequest.add(match.getRequest().getId(), match.getId());
+        byItem.add(match.getItem().getId(), match.getId());
+    }
+
+    @Override
+    protected void onRemove(ItemRequestMatch match) {
+        byRequest.remove(match.getRequest().getId(), match.getId());
+        byItem.remove(match.getItem().getId(), match.getId());
+    }
+
+    @Override
+    public List<ItemRequestMatch> findAllByRequestIdOrderByScoreDescIdAsc(long requestId) {
+        return streamByIds(byRequest.get(requestId))
+                .filter(match -> match.getRequest().getId() == requestId)
+                .sorted(Comparator.comparingDouble(ItemRequestMatch::getScore).reversed()
+                        .thenComparing(ItemRequestMatch::getId))
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable) {
+        return itemIds.stream()
+                .flatMap(itemId -> streamByIds(byItem.get(itemId))
+                        .filter(match -> match.getItem().getId().equals(itemId)))
+                .map(ItemRequestMatch::getId)
+                .sorted()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByRequestIdIn(Collection<Long> requestIds, Pageable pageable) {
+        return requestIds.stream()
+                .flatMap(requestId -> streamByIds(byRequest.get(requestId))
+                        .filter(match -> match.getRequest().getId().equals(requestId)))
+                .map(ItemRequestMatch::getId)
+                .sorted()
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+}
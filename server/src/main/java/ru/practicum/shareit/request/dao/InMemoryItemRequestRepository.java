@@ -0,0 +1,134 @@
+package ru.practicum.shareit.request.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.InMemoryUserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.LongIndex;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+@Profile("in-memory")
+@Order(20)
+@RequiredArgsConstructor
+public class InMemoryItemRequestRepository extends BaseInMemoryRepository<ItemRequest>
+        implements ItemRequestRepository {
+
+    private static final Comparator<ItemRequest> NEWEST_FIRST = Comparator
+            .comparing(ItemRequest::getCreated)
+            .thenComparing(ItemRequest::getId)
+            .reversed();
+
+    private final InMemoryUserRepository userRepository;
+    private final LongIndex byRequestor = new LongIndex();
+
+    @Override
+    protected Long getId(ItemRequest itemRequest) {
+        return itemRequest.getId();
+    }
+
+    @Override
+    protected void setId(ItemRequest itemRequest, long id) {
+        itemRequest.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "requests";
+    }
+
+    @Override
+    public void writeEntity(ItemRequest itemRequest, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, itemRequest.getDescription());
+        out.writeLong(itemRequest.getRequestor().getId());
+        StorageCodec.writeDateTime(out, itemRequest.getCreated());
+        out.writeBoolean(itemRequest.isClosed());
+    }
+
+    @Override
+    public ItemRequest readEntity(long id, DataInputStream in) throws IOException {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(id);
+        itemRequest.setDescription(StorageCodec.readString(in));
+        User requestor = userRepository.findInStorage(in.readLong()).orElse(null);
+        if (requestor == null) {
+            return null;
+        }
+        itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(StorageCodec.readDateTime(in));
+        itemRequest.setClosed(in.available() > 0 && in.readBoolean());
+        return itemRequest;
+    }
+
+    @Override
+    protected ItemRequest resolve(ItemRequest request) {
+        userRepository.findInStorage(request.getRequestor().getId()).ifPresent(request::setRequestor);
+        return request;
+    }
+
+    @Override
+    protected void onPut(ItemRequest itemRequest) {
+        byRequestor.add(itemRequest.getRequestor().getId(), itemRequest.getId());
+    }
+
+    @Override
+    protected void onRemove(ItemRequest itemRequest) {
+        byRequestor.remove(itemRequest.getRequestor().getId(), itemRequest.getId());
+    }
+
+    @Override
+    public List<ItemRequest> findAllByClosedFalse() {
+        return stream()
+                .filter(itemRequest -> !itemRequest.isClosed())
+                .toList();
+    }
+
+    @Override
+    public List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(long requestorId) {
+        return streamByIds(byRequestor.get(requestorId))
+                .filter(itemRequest -> itemRequest.getRequestor().getId() == requestorId)
+                .sorted(NEWEST_FIRST)
+                .toList();
+    }
+
+    @Override
+    public List<ItemRequest> findFirstPageOfOthers(long userId, Pageable pageable) {
+        return stream()
+                .filter(itemRequest -> itemRequest.getRequestor().getId() != userId)
+                .sorted(NEWEST_FIRST)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<ItemRequest> findPageOfOthersBefore(long userId, LocalDateTime created, long id, Pageable pageable) {
+        return stream()
+                .filter(itemRequest -> itemRequest.getRequestor().getId() != userId)
+                .filter(itemRequest -> itemRequest.getCreated().isBefore(created) ||
+                        (itemRequest.getCreated().isEqual(created) && itemRequest.getId() < id))
+                .sorted(NEWEST_FIRST)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsByRequestorId(long requestorId, Pageable pageable) {
+        return streamByIds(byRequestor.get(requestorId))
+                .filter(itemRequest -> itemRequest.getRequestor().getId() == requestorId)
+                .map(ItemRequest::getId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemRequestMatchRepository extends EntityRepository<ItemRequestMatch> {
+    List<ItemRequestMatch> findAllByRequestIdOrderByScoreDescIdAsc(long requestId);
+
+    @Query("SELECT m.id FROM ItemRequestMatch m " +
+            "WHERE m.item.id IN ?1 " +
+            "ORDER BY m.id")
+    List<Long> findIdsByItemIdIn(Collection<Long> itemIds, Pageable pageable);
+
+    @Query("SELECT m.id FROM ItemRequestMatch m " +
+            "WHERE m.request.id IN ?1 " +
+            "ORDER BY m.id")
+    List<Long> findIdsByRequestIdIn(Collection<Long> requestIds, Pageable pageable);
+}
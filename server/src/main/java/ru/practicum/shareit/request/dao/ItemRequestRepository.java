@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends EntityRepository<ItemRequest> {
+    List<ItemRequest> findAllByClosedFalse();
+
+    @Query("SELECT r.id FROM ItemRequest r " +
+            "WHERE r.requestor.id = ?1 " +
+            "ORDER BY r.id")
+    List<Long> findIdsByRequestorId(long requestorId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(long requestorId);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findFirstPageOfOthers(long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findPageOfOthersBefore(long userId, LocalDateTime created, long id, Pageable pageable);
+}
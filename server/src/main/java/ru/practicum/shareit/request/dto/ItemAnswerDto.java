@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private Long ownerId;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ItemMatchDto {
+    private Long itemId;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long ownerId;
+    private double score;
+    private LocalDateTime matched;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class ItemRequestDto {
+    private Long id;
+    @NotBlank
+    @Size(max = 2000)
+    private String description;
+    private LocalDateTime created;
+    private boolean closed;
+    private List<ItemAnswerDto> items;
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@UtilityClass
+public class ItemRequestMapper {
+    public static ItemRequest dtoToItemRequest(ItemRequestDto itemRequestDto, User requestor) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(itemRequestDto.getDescription());
+        itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(LocalDateTime.now());
+        return itemRequest;
+    }
+
+    public static ItemRequestDto itemRequestToDto(ItemRequest itemRequest, List<Item> answers) {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setId(itemRequest.getId());
+        itemRequestDto.setDescription(itemRequest.getDescription());
+        itemRequestDto.setCreated(itemRequest.getCreated());
+        itemRequestDto.setClosed(itemRequest.isClosed());
+        itemRequestDto.setItems(answers.stream().map(ItemRequestMapper::itemToAnswerDto).toList());
+        return itemRequestDto;
+    }
+
+    public static ItemAnswerDto itemToAnswerDto(Item item) {
+        ItemAnswerDto itemAnswerDto = new ItemAnswerDto();
+        itemAnswerDto.setId(item.getId());
+        itemAnswerDto.setName(item.getName());
+        itemAnswerDto.setOwnerId(item.getOwner().getId());
+        return itemAnswerDto;
+    }
+
+    public static ItemMatchDto matchToDto(ItemRequestMatch match) {
+        ItemMatchDto itemMatchDto = new ItemMatchDto();
+        itemMatchDto.setItemId(match.getItem().getId());
+        itemMatchDto.setName(match.getItem().getName());
+        itemMatchDto.setDescription(match.getItem().getDescription());
+        itemMatchDto.setAvailable(match.getItem().getAvailable());
+        itemMatchDto.setOwnerId(match.getItem().getOwner().getId());
+        itemMatchDto.setScore(match.getScore());
+        itemMatchDto.setMatched(match.getCreated());
+        return itemMatchDto;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "requests")
+@EqualsAndHashCode(of = { "id" })
+public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    private String description;
+
+    // в ответах нужен только id автора: без ленивой загрузки лента догружала бы авторов отдельными запросами
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requestor_id", nullable = false)
+    private User requestor;
+
+    @Column(name = "created_dt", nullable = false)
+    private LocalDateTime created;
+
+    private boolean closed;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "request_matches")
+@EqualsAndHashCode(of = { "id" })
+public class ItemRequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "request_id", nullable = false)
+    private ItemRequest request;
+
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    private double score;
+
+    @Column(name = "created_dt", nullable = false)
+    private LocalDateTime created;
+}
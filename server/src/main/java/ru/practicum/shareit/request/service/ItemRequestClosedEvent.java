@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.service;
+
+public record ItemRequestClosedEvent(long requestId) {
+}
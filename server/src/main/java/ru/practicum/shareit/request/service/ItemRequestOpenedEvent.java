@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.service;
+
+public record ItemRequestOpenedEvent(long requestId, long requestorId, String description) {
+}
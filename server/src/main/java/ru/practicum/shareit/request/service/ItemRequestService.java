@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto save(ItemRequestDto itemRequestDto, long userId);
+
+    List<ItemRequestDto> getOwnRequests(long userId);
+
+    List<ItemRequestDto> getOtherRequests(long userId, LocalDateTime beforeCreated, Long beforeId, int size);
+
+    ItemRequestDto getRequest(long requestId, long userId);
+
+    ItemRequestDto closeRequest(long requestId, long userId);
+
+    List<ItemMatchDto> getMatches(long requestId, long userId);
+}
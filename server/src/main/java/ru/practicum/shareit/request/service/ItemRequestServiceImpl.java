@@ -0,0 +1,136 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.groupingBy;
+
+@Slf4j
+@Transactional
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestMatchRepository matchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public ItemRequestDto save(ItemRequestDto itemRequestDto, long userId) {
+        User requestor = getUser(userId);
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequestMapper.dtoToItemRequest(itemRequestDto,
+                requestor));
+        log.info("Запрос вещи {} создан пользователем {}", itemRequest.getId(), userId);
+        eventPublisher.publishEvent(new ItemRequestOpenedEvent(itemRequest.getId(), userId,
+                itemRequest.getDescription()));
+        return ItemRequestMapper.itemRequestToDto(itemRequest, Collections.emptyList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDto> getOwnRequests(long userId) {
+        getUser(userId);
+        return withAnswers(itemRequestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemRequestDto> getOtherRequests(long userId, LocalDateTime beforeCreated, Long beforeId, int size) {
+        getUser(userId);
+        if ((beforeCreated == null) != (beforeId == null)) {
+            throw new ValidationException("Курсор должен содержать и дату создания, и id запроса");
+        }
+        PageRequest page = PageRequest.ofSize(size);
+        List<ItemRequest> requests = beforeCreated == null
+                ? itemRequestRepository.findFirstPageOfOthers(userId, page)
+                : itemRequestRepository.findPageOfOthersBefore(userId, beforeCreated, beforeId, page);
+        return withAnswers(requests);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemRequestDto getRequest(long requestId, long userId) {
+        getUser(userId);
+        return withAnswers(List.of(getItemRequest(requestId))).getFirst();
+    }
+
+    @Override
+    public ItemRequestDto closeRequest(long requestId, long userId) {
+        ItemRequest itemRequest = getOwnItemRequest(requestId, userId);
+        if (!itemRequest.isClosed()) {
+            itemRequest.setClosed(true);
+            itemRequest = itemRequestRepository.save(itemRequest);
+            eventPublisher.publishEvent(new ItemRequestClosedEvent(requestId));
+            log.info("Запрос вещи {} закрыт", requestId);
+        }
+        return withAnswers(List.of(itemRequest)).getFirst();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemMatchDto> getMatches(long requestId, long userId) {
+        getOwnItemRequest(requestId, userId);
+        return matchRepository.findAllByRequestIdOrderByScoreDescIdAsc(requestId).stream()
+                .map(ItemRequestMapper::matchToDto)
+                .toList();
+    }
+
+    private ItemRequest getOwnItemRequest(long requestId, long userId) {
+        getUser(userId);
+        ItemRequest itemRequest = getItemRequest(requestId);
+        if (itemRequest.getRequestor().getId() != userId) {
+            throw new ConditionsNotMetException(String.format("Запрос вещи %d создан другим пользователем",
+                    requestId));
+        }
+        return itemRequest;
+    }
+
+    private ItemRequest getItemRequest(long requestId) {
+        return itemRequestRepository.findById(requestId).orElseThrow(() ->
+                new NotFoundException(String.format("Запрос вещи %d не найден", requestId)));
+    }
+
+    // ответы на всю страницу запросов загружаются одним IN-запросом
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<Item>> answers = itemRepository.findAllByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList())
+                .stream()
+                .collect(groupingBy(item -> item.getRequest().getId()));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.itemRequestToDto(request,
+                        answers.getOrDefault(request.getId(), Collections.emptyList())))
+                .toList();
+    }
+
+    private User getUser(long userId) {
+        return userRepository.findByIdAndDeletedFalse(userId).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь %d не найден", userId)));
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.request.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс «слово -> открытые запросы». Обновляется точечно при открытии и закрытии
+ * запроса, поэтому сопоставление вещи затрагивает только запросы, у которых есть общие с ней слова.
+ */
+public class OpenRequestIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int minTermLength;
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedRequest> requests = new ConcurrentHashMap<>();
+
+    public OpenRequestIndex(int minTermLength) {
+        this.minTermLength = minTermLength;
+    }
+
+    public void open(long requestId, long requestorId, String description) {
+        String[] terms = terms(description);
+        if (terms.length == 0) {
+            return;
+        }
+        requests.put(requestId, new IndexedRequest(requestorId, terms));
+        for (String term : terms) {
+            postings.compute(term, (key, ids) -> {
+                Set<Long> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                updated.add(requestId);
+                return updated;
+            });
+        }
+    }
+
+    public void close(long requestId) {
+        IndexedRequest removed = requests.remove(requestId);
+        if (removed == null) {
+            return;
+        }
+        for (String term : removed.terms()) {
+            postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Возвращает открытые запросы чужих пользователей, доля слов которых в тексте не меньше minScore,
+     * по убыванию этой доли.
+     */
+    public List<Candidate> match(String text, long ownerId, double minScore) {
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String term : terms(text)) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.forEach(requestId -> hits.merge(requestId, 1, Integer::sum));
+            }
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        hits.forEach((requestId, count) -> {
+            IndexedRequest request = requests.get(requestId);
+            if (request == null || request.requestorId() == ownerId) {
+                return;
+            }
+            double score = (double) count / request.terms().length;
+            if (score >= minScore) {
+                candidates.add(new Candidate(requestId, score));
+            }
+        });
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return candidates;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    String[] terms(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> term.length() >= minTermLength)
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    public record Candidate(long requestId, double score) {
+    }
+
+    private record IndexedRequest(long requestorId, String[] terms) {
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCreatedEvent;
+import ru.practicum.shareit.request.dao.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Сопоставляет новые вещи с открытыми запросами. Индекс открытых запросов строится при старте, обновляется
+ * событиями открытия/закрытия и периодически перестраивается целиком — так подхватываются запросы других
+ * экземпляров. Сопоставление идёт в отдельном пуле после коммита, не задерживая ответ на создание вещи.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RequestMatchingProperties.class)
+public class RequestMatcher implements DisposableBean {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchRepository matchRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchingProperties properties;
+    // ReentrantLock вместо монитора: перестройка читает запросы из базы и не должна закреплять
+    // виртуальный поток на носителе
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile OpenRequestIndex index;
+    // изменения, пришедшие во время перестройки: применяются к новому индексу перед заменой
+    private List<Consumer<OpenRequestIndex>> pending;
+    private final ThreadPoolExecutor executor;
+    private final Counter matchesCounter;
+    private final Counter droppedCounter;
+    private final Timer matchTimer;
+
+    public RequestMatcher(ItemRequestRepository itemRequestRepository, ItemRequestMatchRepository matchRepository,
+                          ItemRepository itemRepository, RequestMatchingProperties properties,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.matchRepository = matchRepository;
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.index = new OpenRequestIndex(properties.getMinTermLength());
+        AtomicInteger threadNumber = new AtomicInteger();
+        // число потоков и очередь ограничены и в режиме виртуальных потоков: это защита от перегрузки, а не пул
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("request-matcher-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "request-matcher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), threadFactory);
+        this.matchesCounter = Counter.builder("shareit.requests.matches")
+                .description("Найденные совпадения новых вещей с открытыми запросами")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("shareit.requests.matching.dropped")
+                .description("Вещи, не сопоставленные из-за переполнения очереди")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("shareit.requests.matching.run")
+                .description("Длительность сопоставления одной вещи с открытыми запросами")
+                .register(meterRegistry);
+        Gauge.builder("shareit.requests.open", this, matcher -> matcher.index.size())
+                .description("Открытые запросы в индексе сопоставления")
+                .register(meterRegistry);
+        Gauge.builder("shareit.requests.matching.queue", executor, pool -> pool.getQueue().size())
+                .description("Вещи, ожидающие сопоставления")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenRequests() {
+        rebuild();
+        log.info("Индекс открытых запросов построен: {}", index.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.requests.matching.rebuild-interval:PT10M}",
+            initialDelayString = "${shareit.requests.matching.rebuild-interval:PT10M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                OpenRequestIndex rebuilt = new OpenRequestIndex(properties.getMinTermLength());
+                itemRequestRepository.findAllByClosedFalse().forEach(request ->
+                        rebuilt.open(request.getId(), request.getRequestor().getId(), request.getDescription()));
+                lock.lock();
+                try {
+                    pending.forEach(change -> change.accept(rebuilt));
+                    index = rebuilt;
+                } finally {
+                    lock.unlock();
+                }
+                log.debug("Индекс открытых запросов перестроен: {}", rebuilt.size());
+            } finally {
+                lock.lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestOpened(ItemRequestOpenedEvent event) {
+        apply(current -> current.open(event.requestId(), event.requestorId(), event.description()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestClosed(ItemRequestClosedEvent event) {
+        apply(current -> current.close(event.requestId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemCreated(ItemCreatedEvent event) {
+        if (!event.available()) {
+            return;
+        }
+        try {
+            executor.execute(() -> matchTimer.record(() -> match(event)));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("Очередь сопоставления переполнена, вещь {} пропущена", event.itemId());
+        }
+    }
+
+    void match(ItemCreatedEvent event) {
+        try {
+            List<OpenRequestIndex.Candidate> candidates = index.match(event.name() + " " + event.description(),
+                    event.ownerId(), properties.getMinScore());
+            if (event.requestId() != null) {
+                candidates.removeIf(candidate -> candidate.requestId() == event.requestId());
+            }
+            if (candidates.isEmpty()) {
+                return;
+            }
+            Item item = itemRepository.getReferenceById(event.itemId());
+            LocalDateTime now = LocalDateTime.now();
+            List<ItemRequestMatch> matches = candidates.stream()
+                    .map(candidate -> {
+                        ItemRequestMatch match = new ItemRequestMatch();
+                        match.setRequest(itemRequestRepository.getReferenceById(candidate.requestId()));
+                        match.setItem(item);
+                        match.setScore(candidate.score());
+                        match.setCreated(now);
+                        return match;
+                    })
+                    .toList();
+            matchRepository.saveAll(matches);
+            matchesCounter.increment(matches.size());
+            log.debug("Вещь {} подходит к запросам: {}", event.itemId(), matches.size());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сопоставить вещь {} с запросами", event.itemId(), e);
+        }
+    }
+
+    private void apply(Consumer<OpenRequestIndex> change) {
+        lock.lock();
+        try {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
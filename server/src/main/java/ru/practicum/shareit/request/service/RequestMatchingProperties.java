@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.requests.matching")
+public class RequestMatchingProperties {
+    // доля слов запроса, которые должны встретиться в названии или описании вещи
+    private double minScore = 0.5;
+    // более короткие слова («на», «для») в индекс не попадают
+    private int minTermLength = 3;
+    private int threads = 2;
+    // при переполнении очереди сопоставление новой вещи пропускается, а не тормозит сохранение
+    private int queueCapacity = 1000;
+}
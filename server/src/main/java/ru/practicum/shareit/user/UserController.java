@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.config.workload.Workload;
+import ru.practicum.shareit.config.workload.WorkloadGroup;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.service.UserImportService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.MultiGetResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/users")
+public class UserController {
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public List<UserDto> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResult<UserDto> getUsers(@RequestParam @Size(min = 1, max = 100) List<Long> ids) {
+        return userService.getUsers(ids);
+    }
+
+    @GetMapping("/{id}")
+    public UserDto getUser(@PathVariable("id") @Positive Long userId) {
+        return userService.getUser(userId);
+    }
+
+    @PostMapping
+    public UserDto saveNewUser(@Valid @RequestBody UserDto userDto) {
+        return userService.saveUser(userDto);
+    }
+
+    /**
+     * Массовый импорт из NDJSON или CSV (email,name). Ответ — NDJSON с результатом по каждой строке,
+     * отдаётся по мере обработки пачек. Срока нет: импорт длится столько, сколько идёт загрузка.
+     */
+    @Workload(value = WorkloadGroup.WRITE, deadline = "0s")
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        userImportService.importUsers(body, MediaType.parseMediaType(contentType), results -> write(out, results));
+    }
+
+    @PatchMapping("/{id}")
+    public UserDto update(@PathVariable("id") @Positive Long userId, @Valid @RequestBody UserUpdateDto userDto) {
+        if (Objects.isNull(userDto.getEmail()) && Objects.isNull(userDto.getName())) {
+            throw new ConditionsNotMetException("Должно быть заполнено поле email либо name!");
+        }
+        userDto.setId(userId);
+        return userService.updateUser(userDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public void deleteUser(@PathVariable("id") @Positive Long userId) {
+        userService.deleteUser(userId);
+    }
+
+    @GetMapping("/{id}/deletion")
+    public UserDeletionDto getDeletion(@PathVariable("id") @Positive Long userId) {
+        return userService.getDeletion(userId);
+    }
+
+    // сброс после каждой пачки: без него результаты копятся в буфере сервлета до конца импорта
+    private void write(OutputStream out, List<UserImportResult> results) {
+        try {
+            for (UserImportResult result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
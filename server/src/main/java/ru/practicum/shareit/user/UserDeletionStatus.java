@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+public enum UserDeletionStatus {
+    PENDING,
+    // очистку ведёт экземпляр owner до lease_until; после истечения аренды её подхватывает любой экземпляр
+    RUNNING,
+    DONE
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.user.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.UserDeletionStatus;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Repository
+@Profile("in-memory")
+@Order(70)
+public class InMemoryUserDeletionRepository extends BaseInMemoryRepository<UserDeletion>
+        implements UserDeletionRepository {
+    // один процесс: захват защищает только от параллельного прохода очистки
+    private final ReentrantLock claimLock = new ReentrantLock();
+
+    @Override
+    protected Long getId(UserDeletion deletion) {
+        return deletion.getUserId();
+    }
+
+    @Override
+    protected void setId(UserDeletion deletion, long id) {
+        deletion.setUserId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "user-deletions";
+    }
+
+    @Override
+    public void writeEntity(UserDeletion deletion, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, deletion.getStatus().name());
+        StorageCodec.writeDateTime(out, deletion.getRequested());
+        StorageCodec.writeDateTime(out, deletion.getFinished());
+        out.writeLong(deletion.getItemsDeleted());
+        out.writeLong(deletion.getBookingsDeleted());
+        out.writeLong(deletion.getCommentsDeleted());
+        out.writeLong(deletion.getRequestsDeleted());
+    }
+
+    @Override
+    public UserDeletion readEntity(long id, DataInputStream in) throws IOException {
+        UserDeletion deletion = new UserDeletion();
+        deletion.setUserId(id);
+        deletion.setStatus(UserDeletionStatus.valueOf(StorageCodec.readString(in)));
+        deletion.setRequested(StorageCodec.readDateTime(in));
+        deletion.setFinished(StorageCodec.readDateTime(in));
+        deletion.setItemsDeleted(in.readLong());
+        deletion.setBookingsDeleted(in.readLong());
+        deletion.setCommentsDeleted(in.readLong());
+        deletion.setRequestsDeleted(in.readLong());
+        return deletion;
+    }
+
+    @Override
+    public List<UserDeletion> findClaimable(LocalDateTime now, Pageable pageable) {
+        return stream()
+                .filter(deletion -> isClaimable(deletion, now))
+                .sorted(Comparator.comparing(UserDeletion::getRequested))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public int claim(long userId, String owner, LocalDateTime leaseUntil, LocalDateTime now) {
+        claimLock.lock();
+        try {
+            UserDeletion deletion = findInStorage(userId).filter(found -> isClaimable(found, now)).orElse(null);
+            if (deletion == null) {
+                return 0;
+            }
+            deletion.setStatus(UserDeletionStatus.RUNNING);
+            deletion.setOwner(owner);
+            deletion.setLeaseUntil(leaseUntil);
+            updateInStorage(userId, deletion);
+            return 1;
+        } finally {
+            claimLock.unlock();
+        }
+    }
+
+    @Override
+    public int release(long userId, String owner) {
+        claimLock.lock();
+        try {
+            UserDeletion deletion = findInStorage(userId)
+                    .filter(found -> found.getStatus() == UserDeletionStatus.RUNNING)
+                    .filter(found -> owner.equals(found.getOwner()))
+                    .orElse(null);
+            if (deletion == null) {
+                return 0;
+            }
+            deletion.setStatus(UserDeletionStatus.PENDING);
+            deletion.setOwner(null);
+            deletion.setLeaseUntil(null);
+            updateInStorage(userId, deletion);
+            return 1;
+        } finally {
+            claimLock.unlock();
+        }
+    }
+
+    @Override
+    public long countByStatusNot(UserDeletionStatus status) {
+        return stream()
+                .filter(deletion -> deletion.getStatus() != status)
+                .count();
+    }
+
+    // владелец и аренда не сохраняются на диск: после перезапуска незавершённая очистка свободна
+    private static boolean isClaimable(UserDeletion deletion, LocalDateTime now) {
+        return deletion.getStatus() == UserDeletionStatus.PENDING
+                || deletion.getStatus() == UserDeletionStatus.RUNNING
+                && (deletion.getLeaseUntil() == null || deletion.getLeaseUntil().isBefore(now));
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.user.dao;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("in-memory")
+@Order(10)
+public class InMemoryUserRepository extends BaseInMemoryRepository<User> implements UserRepository {
+
+    private final ConcurrentMap<String, Long> emails = new ConcurrentHashMap<>();
+    // email, под которым пользователь сейчас проиндексирован: сущность может меняться на месте
+    private final ConcurrentMap<Long, String> emailById = new ConcurrentHashMap<>();
+    // проверка уникальности email и запись атомарны; не synchronized, т.к. запись ждёт сброса журнала
+    // и закрепляла бы виртуальный поток на носителе
+    private final ReentrantLock emailLock = new ReentrantLock();
+
+    @Override
+    protected Long getId(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void setId(User user, long id) {
+        user.setId(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "users";
+    }
+
+    @Override
+    public void writeEntity(User user, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, user.getEmail());
+        StorageCodec.writeString(out, user.getName());
+        out.writeBoolean(user.isDeleted());
+    }
+
+    @Override
+    public User readEntity(long id, DataInputStream in) throws IOException {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(StorageCodec.readString(in));
+        user.setName(StorageCodec.readString(in));
+        user.setDeleted(in.available() > 0 && in.readBoolean());
+        return user;
+    }
+
+    @Override
+    public <S extends User> S save(S user) {
+        emailLock.lock();
+        try {
+            Long owner = emails.get(user.getEmail());
+            if (owner != null && !owner.equals(user.getId())) {
+                throw new DataIntegrityViolationException(String.format("Email %s уже занят", user.getEmail()));
+            }
+            return super.save(user);
+        } finally {
+            emailLock.unlock();
+        }
+    }
+
+    @Override
+    protected void onPut(User user) {
+        String previous = emailById.put(user.getId(), user.getEmail());
+        if (previous != null && !previous.equals(user.getEmail())) {
+            emails.remove(previous, user.getId());
+        }
+        emails.put(user.getEmail(), user.getId());
+    }
+
+    @Override
+    protected void onRemove(User user) {
+        String indexed = emailById.remove(user.getId());
+        emails.remove(indexed == null ? user.getEmail() : indexed, user.getId());
+    }
+
+    @Override
+    public Optional<User> findByEmail(String emailSearch) {
+        Long id = emails.get(emailSearch);
+        return id == null ? Optional.empty() : findInStorage(id);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emailsToCheck) {
+        return emailsToCheck.stream()
+                .filter(emails::containsKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void insertAll(List<User> users) {
+        emailLock.lock();
+        try {
+            for (User user : users) {
+                if (emails.containsKey(user.getEmail())) {
+                    throw new DataIntegrityViolationException(String.format("Email %s уже занят", user.getEmail()));
+                }
+            }
+            users.forEach(this::save);
+        } finally {
+            emailLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> findByIdAndDeletedFalse(long id) {
+        return findInStorage(id).filter(user -> !user.isDeleted());
+    }
+
+    @Override
+    public List<User> findAllByDeletedFalse() {
+        return stream()
+                .filter(user -> !user.isDeleted())
+                .toList();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.dao;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public interface UserBatchRepository {
+    /**
+     * Вставляет пользователей одним JDBC-батчем в одной транзакции и проставляет им id.
+     * При нарушении уникальности email не вставляется ни один пользователь.
+     */
+    void insertAll(List<User> users);
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.UserDeletionStatus;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserDeletionRepository extends EntityRepository<UserDeletion> {
+    // ожидающие заявки и заявки, аренда которых истекла
+    @Query("SELECT d FROM UserDeletion d " +
+            "WHERE d.status = ru.practicum.shareit.user.UserDeletionStatus.PENDING " +
+            "OR (d.status = ru.practicum.shareit.user.UserDeletionStatus.RUNNING AND d.leaseUntil < ?1) " +
+            "ORDER BY d.requested")
+    List<UserDeletion> findClaimable(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Захватывает заявку экземпляром owner до leaseUntil, если она свободна. 1 — захвачена, 0 — её уже ведёт
+     * другой экземпляр или она завершена.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserDeletion d SET d.status = ru.practicum.shareit.user.UserDeletionStatus.RUNNING, " +
+            "d.owner = ?2, d.leaseUntil = ?3, d.version = d.version + 1 " +
+            "WHERE d.userId = ?1 AND (d.status = ru.practicum.shareit.user.UserDeletionStatus.PENDING " +
+            "OR (d.status = ru.practicum.shareit.user.UserDeletionStatus.RUNNING AND d.leaseUntil < ?4))")
+    int claim(long userId, String owner, LocalDateTime leaseUntil, LocalDateTime now);
+
+    // прерванная очистка возвращается в очередь сразу, не дожидаясь конца аренды
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserDeletion d SET d.status = ru.practicum.shareit.user.UserDeletionStatus.PENDING, " +
+            "d.owner = null, d.leaseUntil = null, d.version = d.version + 1 " +
+            "WHERE d.userId = ?1 AND d.owner = ?2 " +
+            "AND d.status = ru.practicum.shareit.user.UserDeletionStatus.RUNNING")
+    int release(long userId, String owner);
+
+    long countByStatusNot(UserDeletionStatus status);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.dao;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface UserRepository extends EntityRepository<User>, UserBatchRepository {
+    Optional<User> findByEmail(String emailSearch);
+
+    Optional<User> findByIdAndDeletedFalse(long id);
+
+    List<User> findAllByDeletedFalse();
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    Set<String> findExistingEmails(Collection<String> emails);
+}
+
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.user.UserDeletionStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class UserDeletionDto {
+    private Long userId;
+    private UserDeletionStatus status;
+    private LocalDateTime requested;
+    private LocalDateTime finished;
+    private long itemsDeleted;
+    private long bookingsDeleted;
+    private long commentsDeleted;
+    private long requestsDeleted;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    private final long row;
+    private final Status status;
+    private final Long id;
+    private final String email;
+    private final String error;
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDeletion;
+
+@UtilityClass
+public class UserMapper {
+    public static User dtoToUser(UserDto userDto) {
+        User user = new User();
+        user.setId(userDto.getId());
+        user.setName(userDto.getName());
+        user.setEmail(userDto.getEmail());
+        return user;
+    }
+
+    public static UserDto userToDto(User user) {
+        UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
+        userDto.setName(user.getName());
+        userDto.setEmail(user.getEmail());
+        return userDto;
+    }
+
+    public static UserDto copy(UserDto source) {
+        UserDto userDto = new UserDto();
+        userDto.setId(source.getId());
+        userDto.setName(source.getName());
+        userDto.setEmail(source.getEmail());
+        return userDto;
+    }
+
+    public static UserDeletionDto deletionToDto(UserDeletion deletion) {
+        UserDeletionDto deletionDto = new UserDeletionDto();
+        deletionDto.setUserId(deletion.getUserId());
+        deletionDto.setStatus(deletion.getStatus());
+        deletionDto.setRequested(deletion.getRequested());
+        deletionDto.setFinished(deletion.getFinished());
+        deletionDto.setItemsDeleted(deletion.getItemsDeleted());
+        deletionDto.setBookingsDeleted(deletion.getBookingsDeleted());
+        deletionDto.setCommentsDeleted(deletion.getCommentsDeleted());
+        deletionDto.setRequestsDeleted(deletion.getRequestsDeleted());
+        return deletionDto;
+    }
+}
@@ -21,4 +21,5 @@ public class User {
     private String email;
     @NotBlank
     private String name;
+    private boolean deleted;
 }
\ No newline at end of file
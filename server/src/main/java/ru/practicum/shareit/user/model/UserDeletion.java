@@ -0,0 +1,54 @@
+package ru.practicum.shareit.user.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.user.UserDeletionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Заявка на фоновую очистку данных удалённого пользователя и её прогресс.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "user_deletions")
+@EqualsAndHashCode(of = { "userId" })
+public class UserDeletion {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private UserDeletionStatus status;
+
+    @Column(name = "requested_dt", nullable = false)
+    private LocalDateTime requested;
+
+    @Column(name = "finished_dt")
+    private LocalDateTime finished;
+
+    // экземпляр, захвативший очистку, и срок его аренды
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // экземпляр, потерявший аренду, не перезапишет прогресс нового владельца; null — запись ещё не сохранена
+    @Version
+    private Long version;
+
+    @Column(name = "items_deleted")
+    private long itemsDeleted;
+
+    @Column(name = "bookings_deleted")
+    private long bookingsDeleted;
+
+    @Column(name = "comments_deleted")
+    private long commentsDeleted;
+
+    @Column(name = "requests_deleted")
+    private long requestsDeleted;
+}
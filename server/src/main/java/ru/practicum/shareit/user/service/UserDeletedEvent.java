@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.service;
+
+/**
+ * Публикуется, когда пользователь помечен удалённым; его вещи и бронирования ещё не удалены,
+ * но уже не должны показываться. Слушатели получают событие после коммита транзакции.
+ */
+public record UserDeletedEvent(long userId) {
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.users.deletion")
+public class UserDeletionProperties {
+    // сколько строк удаляется одним DELETE ... WHERE id IN
+    private int chunkSize = 500;
+    // сколько заявок на удаление обрабатывается за один проход
+    private int batchSize = 10;
+    // аренда заявки экземпляром; продлевается после каждой пачки вещей
+    private Duration lease = Duration.ofMinutes(5);
+}
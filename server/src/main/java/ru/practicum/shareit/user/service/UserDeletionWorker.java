@@ -0,0 +1,229 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingChangeLog;
+import ru.practicum.shareit.booking.service.BookingDeletedEvent;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemStatsRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.CommentDeletedEvent;
+import ru.practicum.shareit.item.service.ItemDeletedEvent;
+import ru.practicum.shareit.request.dao.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestClosedEvent;
+import ru.practicum.shareit.user.UserDeletionStatus;
+import ru.practicum.shareit.user.dao.UserDeletionRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.utils.EntityRepository;
+import ru.practicum.shareit.utils.cache.CacheInvalidationBus;
+import ru.practicum.shareit.utils.cache.LocalCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Фоновая очистка данных удалённых пользователей. Каждая пачка удаляется отдельной короткой транзакцией,
+ * прогресс сохраняется после каждой пачки вещей, поэтому прерванная очистка просто продолжается
+ * при следующем проходе. Перед очисткой строка захватывается на время аренды, поэтому несколько экземпляров
+ * не чистят одного пользователя одновременно, а захват упавшего экземпляра истекает сам.
+ * Удаляемые бронирования и отзывы проходят через журнал изменений и события, как при обычных изменениях.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UserDeletionProperties.class)
+public class UserDeletionWorker {
+    private final UserDeletionRepository deletionRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemStatsRepository itemStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchRepository matchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LocalCache<ItemDto> itemCache;
+    private final BookingChangeLog bookingChangeLog;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final UserDeletionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final String owner = UUID.randomUUID().toString();
+
+    public UserDeletionWorker(UserDeletionRepository deletionRepository, UserRepository userRepository,
+                              ItemRepository itemRepository, ItemStatsRepository itemStatsRepository,
+                              BookingRepository bookingRepository,
+                              CommentRepository commentRepository, ItemRequestRepository itemRequestRepository,
+                              ItemRequestMatchRepository matchRepository, ApplicationEventPublisher eventPublisher,
+                              LocalCache<ItemDto> itemCache, BookingChangeLog bookingChangeLog,
+                              CacheInvalidationBus cacheInvalidationBus, UserDeletionProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.deletionRepository = deletionRepository;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemStatsRepository = itemStatsRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.matchRepository = matchRepository;
+        this.eventPublisher = eventPublisher;
+        this.itemCache = itemCache;
+        this.bookingChangeLog = bookingChangeLog;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("shareit.users.deletion.run")
+                .description("Длительность одного прохода очистки удалённых пользователей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.users.deletion.pending", pending, AtomicLong::get)
+                .description("Удалённые пользователи, данные которых ещё не очищены")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.deletion.interval:PT10S}",
+            initialDelayString = "${shareit.users.deletion.interval:PT10S}")
+    public void cleanUpDeletedUsers() {
+        runTimer.record(this::cleanUp);
+    }
+
+    void cleanUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserDeletion> deletions = deletionRepository.findClaimable(now,
+                PageRequest.ofSize(properties.getBatchSize()));
+        for (UserDeletion candidate : deletions) {
+            long userId = candidate.getUserId();
+            if (deletionRepository.claim(userId, owner, now.plus(properties.getLease()), now) == 0) {
+                // строку успел захватить другой экземпляр
+                continue;
+            }
+            try {
+                cleanUpUser(deletionRepository.findById(userId).orElseThrow());
+            } catch (RuntimeException e) {
+                log.warn("Очистка данных пользователя {} прервана, будет продолжена позже", userId, e);
+                deletionRepository.release(userId, owner);
+            }
+        }
+        pending.set(deletionRepository.countByStatusNot(UserDeletionStatus.DONE));
+    }
+
+    private void cleanUpUser(UserDeletion deletion) {
+        final long userId = deletion.getUserId();
+        final PageRequest chunk = PageRequest.ofSize(properties.getChunkSize());
+
+        List<Long> itemIds;
+        while (!(itemIds = itemRepository.findIdsByOwnerId(userId, chunk)).isEmpty()) {
+            final List<Long> items = itemIds;
+            deletion.setBookingsDeleted(deletion.getBookingsDeleted()
+                    + deleteBookings(() -> bookingRepository.findIdsByItemIdIn(items, chunk)));
+            deletion.setCommentsDeleted(deletion.getCommentsDeleted()
+                    + deleteComments(() -> commentRepository.findIdsByItemIdIn(items, chunk)));
+            deleteInChunks(matchRepository, () -> matchRepository.findIdsByItemIdIn(items, chunk), "matches");
+            itemStatsRepository.deleteAllByIdInBatch(items);
+            itemRepository.deleteAllByIdInBatch(items);
+            items.forEach(itemId -> eventPublisher.publishEvent(new ItemDeletedEvent(itemId)));
+            // одна запись в журнал на пачку вместо записи на каждую вещь; удаление пользователей редкое
+            cacheInvalidationBus.invalidateAll(itemCache);
+            count("items", items.size());
+            deletion.setItemsDeleted(deletion.getItemsDeleted() + items.size());
+            deletion = saveProgress(deletion);
+        }
+
+        deletion.setBookingsDeleted(deletion.getBookingsDeleted()
+                + deleteBookings(() -> bookingRepository.findIdsByBookerId(userId, chunk)));
+        deletion.setCommentsDeleted(deletion.getCommentsDeleted()
+                + deleteComments(() -> commentRepository.findIdsByAuthorId(userId, chunk)));
+
+        List<Long> requestIds;
+        while (!(requestIds = itemRequestRepository.findIdsByRequestorId(userId, chunk)).isEmpty()) {
+            final List<Long> requests = requestIds;
+            deleteInChunks(matchRepository, () -> matchRepository.findIdsByRequestIdIn(requests, chunk), "matches");
+            itemRepository.detachFromRequests(requests);
+            cacheInvalidationBus.invalidateAll(itemCache);
+            itemRequestRepository.deleteAllByIdInBatch(requests);
+            requests.forEach(requestId -> eventPublisher.publishEvent(new ItemRequestClosedEvent(requestId)));
+            count("requests", requests.size());
+            deletion.setRequestsDeleted(deletion.getRequestsDeleted() + requests.size());
+        }
+
+        userRepository.deleteById(userId);
+        deletion.setStatus(UserDeletionStatus.DONE);
+        deletion.setFinished(LocalDateTime.now());
+        deletion.setOwner(null);
+        deletion.setLeaseUntil(null);
+        deletion = deletionRepository.save(deletion);
+        log.info("Данные пользователя {} очищены: вещей {}, бронирований {}, отзывов {}, запросов {}", userId,
+                deletion.getItemsDeleted(), deletion.getBookingsDeleted(), deletion.getCommentsDeleted(),
+                deletion.getRequestsDeleted());
+    }
+
+    // продлевает аренду вместе с сохранением прогресса; @Version отклонит запись, если строку перехватили
+    private UserDeletion saveProgress(UserDeletion deletion) {
+        deletion.setLeaseUntil(LocalDateTime.now().plus(properties.getLease()));
+        return deletionRepository.save(deletion);
+    }
+
+    // журнал изменений пишется до удаления: после сбоя между ними лента лишь повторит живое бронирование
+    private long deleteBookings(Supplier<List<Long>> nextChunk) {
+        long deleted = 0;
+        List<Long> ids;
+        while (!(ids = nextChunk.get()).isEmpty()) {
+            List<Booking> bookings = bookingRepository.findWithItemByIdIn(ids);
+            bookingChangeLog.append(bookings);
+            bookingRepository.deleteAllByIdInBatch(ids);
+            bookings.forEach(booking -> eventPublisher.publishEvent(BookingDeletedEvent.of(booking)));
+            count("bookings", ids.size());
+            deleted += ids.size();
+        }
+        return deleted;
+    }
+
+    private long deleteComments(Supplier<List<Long>> nextChunk) {
+        long deleted = 0;
+        List<Long> ids;
+        while (!(ids = nextChunk.get()).isEmpty()) {
+            List<Comment> comments = commentRepository.findAllById(ids);
+            commentRepository.deleteAllByIdInBatch(ids);
+            comments.forEach(comment -> eventPublisher.publishEvent(
+                    new CommentDeletedEvent(comment.getId(), comment.getItem().getId())));
+            count("comments", ids.size());
+            deleted += ids.size();
+        }
+        return deleted;
+    }
+
+    private long deleteInChunks(EntityRepository<?> repository, Supplier<List<Long>> nextChunk, String type) {
+        long deleted = 0;
+        List<Long> ids;
+        while (!(ids = nextChunk.get()).isEmpty()) {
+            repository.deleteAllByIdInBatch(ids);
+            count(type, ids.size());
+            deleted += ids.size();
+        }
+        return deleted;
+    }
+
+    private void count(String type, int rows) {
+        Counter.builder("shareit.users.deletion.rows")
+                .description("Строки, удалённые при очистке данных удалённых пользователей")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+}
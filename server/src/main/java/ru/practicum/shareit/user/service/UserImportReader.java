@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Построчное чтение файла импорта. Строка NDJSON — объект {"email": ..., "name": ...},
+ * строка CSV — email,name с необязательными кавычками; CSV может начинаться с заголовка.
+ */
+abstract class UserImportReader {
+    private static final List<String> HEADER = List.of("email", "name");
+    private final BufferedReader reader;
+    private long row;
+
+    UserImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static UserImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new UserImportReader(reader) {
+            @Override
+            UserDto parse(String line) throws IllegalArgumentException {
+                try {
+                    UserDto userDto = objectMapper.readValue(line, UserDto.class);
+                    if (userDto == null) {
+                        throw new IllegalArgumentException("Ожидается JSON-объект");
+                    }
+                    return userDto;
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Некорректный JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    static UserImportReader csv(BufferedReader reader) {
+        return new UserImportReader(reader) {
+            @Override
+            UserDto parse(String line) throws IllegalArgumentException {
+                List<String> columns = splitCsv(line);
+                if (columns.size() != 2) {
+                    throw new IllegalArgumentException("Ожидается два столбца: email,name");
+                }
+                UserDto userDto = new UserDto();
+                userDto.setEmail(columns.get(0).trim());
+                userDto.setName(columns.get(1).trim());
+                return userDto;
+            }
+
+            // заголовок — только первая строка ровно из столбцов email и name, а не любая строка на «email»
+            @Override
+            boolean isHeader(String line) {
+                if (getRow() != 1) {
+                    return false;
+                }
+                try {
+                    return HEADER.equals(splitCsv(line).stream()
+                            .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                            .toList());
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Возвращает следующую непустую строку или null в конце файла.
+     */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank() || isHeader(line)) {
+                continue;
+            }
+            try {
+                return new Row(row, parse(line), null);
+            } catch (IllegalArgumentException e) {
+                return new Row(row, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    long getRow() {
+        return row;
+    }
+
+    abstract UserDto parse(String line) throws IllegalArgumentException;
+
+    boolean isHeader(String line) {
+        return false;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>(2);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка");
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+
+    record Row(long number, UserDto user, String error) {
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.user.dto.UserImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+    /**
+     * Импортирует пользователей из NDJSON или CSV (email,name) и передаёт результаты по строкам
+     * в порядке строк, по списку на каждую обработанную пачку. Файл читается пачками, поэтому память
+     * не зависит от его размера.
+     */
+    void importUsers(InputStream in, MediaType format, Consumer<List<UserImportResult>> results) throws IOException;
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.dto.UserImportResult.Status;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+class UserImportServiceImpl implements UserImportService {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    UserImportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper, Validator validator,
+                          @Value("${shareit.users.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void importUsers(InputStream in, MediaType format, Consumer<List<UserImportResult>> results)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        UserImportReader rows = TEXT_CSV.isCompatibleWith(format)
+                ? UserImportReader.csv(reader)
+                : UserImportReader.ndjson(reader, objectMapper);
+        long created = 0;
+        List<UserImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        UserImportReader.Row row;
+        while ((row = rows.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                created += importChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        created += importChunk(chunk, results);
+        log.info("Импорт пользователей завершён: строк {}, создано {}", rows.getRow(), created);
+    }
+
+    private int importChunk(List<UserImportReader.Row> chunk, Consumer<List<UserImportResult>> results) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        UserImportResult[] outcome = new UserImportResult[chunk.size()];
+        // email -> позиция первой строки с ним в пачке; повторы внутри пачки отсекаются без запроса в БД
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportReader.Row row = chunk.get(i);
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                outcome[i] = result(row, Status.INVALID, null, error);
+            } else if (candidates.containsKey(row.user().getEmail())) {
+                outcome[i] = result(row, Status.DUPLICATE, null, String.format("Email повторяется в строке %d",
+                        chunk.get(candidates.get(row.user().getEmail())).number()));
+            } else {
+                candidates.put(row.user().getEmail(), i);
+            }
+        }
+        int created = 0;
+        if (!candidates.isEmpty()) {
+            Set<String> existing = userRepository.findExistingEmails(candidates.keySet());
+            List<Integer> positions = new ArrayList<>(candidates.size());
+            for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+                int i = candidate.getValue();
+                if (existing.contains(candidate.getKey())) {
+                    outcome[i] = result(chunk.get(i), Status.DUPLICATE, null, "Email уже зарегистрирован");
+                } else {
+                    positions.add(i);
+                }
+            }
+            created = insert(chunk, positions, outcome);
+        }
+        results.accept(Arrays.asList(outcome));
+        return created;
+    }
+
+    private int insert(List<UserImportReader.Row> chunk, List<Integer> positions, UserImportResult[] outcome) {
+        List<User> users = positions.stream()
+                .map(i -> UserMapper.dtoToUser(chunk.get(i).user()))
+                .toList();
+        try {
+            userRepository.insertAll(users);
+            for (int j = 0; j < users.size(); j++) {
+                int i = positions.get(j);
+                outcome[i] = result(chunk.get(i), Status.CREATED, users.get(j).getId(), null);
+            }
+            return users.size();
+        } catch (DataIntegrityViolationException e) {
+            // email заняли параллельно между проверкой и вставкой: пачка откатилась, вставляем по одному
+            log.debug("Пачка импорта пользователей откатилась, повтор по одной строке: {}", e.getMessage());
+        }
+        int created = 0;
+        for (int j = 0; j < users.size(); j++) {
+            int i = positions.get(j);
+            User user = users.get(j);
+            user.setId(null);
+            try {
+                userRepository.insertAll(List.of(user));
+                outcome[i] = result(chunk.get(i), Status.CREATED, user.getId(), null);
+                created++;
+            } catch (DataIntegrityViolationException e) {
+                outcome[i] = result(chunk.get(i), Status.DUPLICATE, null, "Email уже зарегистрирован");
+            }
+        }
+        return created;
+    }
+
+    private String validate(UserDto userDto) {
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static UserImportResult result(UserImportReader.Row row, Status status, Long id, String error) {
+        return new UserImportResult(row.number(), status, id, row.user() == null ? null : row.user().getEmail(),
+                error);
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.user.dto.UserDeletionDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.utils.MultiGetResult;
 
 import java.util.List;
 
@@ -10,9 +12,13 @@ public interface UserService {
 
     UserDto getUser(Long id);
 
+    MultiGetResult<UserDto> getUsers(List<Long> ids);
+
     UserDto saveUser(UserDto user);
 
     UserDto updateUser(UserUpdateDto user);
 
     void deleteUser(Long id);
+
+    UserDeletionDto getDeletion(Long id);
 }
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserDeletionStatus;
+import ru.practicum.shareit.user.dao.UserDeletionRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDeletionDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDeletion;
+import ru.practicum.shareit.utils.MultiGetResult;
+import ru.practicum.shareit.utils.cache.CacheInvalidationBus;
+import ru.practicum.shareit.utils.cache.LocalCache;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class UserServiceImpl implements UserService {
+
+    private final UserRepository userRepository;
+    private final UserDeletionRepository userDeletionRepository;
+    private final LocalCache<UserDto> userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<UserDto> getAllUsers() {
+        log.debug("Запрос всех пользователей");
+        return userRepository.findAllByDeletedFalse().stream()
+                .map(UserMapper::userToDto)
+                .toList();
+    }
+
+    @Override
+    public UserDto getUser(Long id) {
+        log.debug("Поиск пользователя по id = {}.", id);
+        return UserMapper.copy(userCache.get(id, this::loadUser));
+    }
+
+    @Override
+    public MultiGetResult<UserDto> getUsers(List<Long> ids) {
+        log.debug("Пакетный поиск пользователей по id = {}.", ids);
+        final Set<Long> requested = new LinkedHashSet<>(ids);
+        final Map<Long, UserDto> found = userRepository.findAllById(requested).stream()
+                .filter(user -> !user.isDeleted())
+                .map(UserMapper::userToDto)
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return MultiGetResult.of(requested, found, Collections.emptySet());
+    }
+
+    @Override
+    public UserDto saveUser(UserDto userDto) {
+        log.debug("Начато создание пользователя с email {}", userDto.getEmail());
+        validateBeforeSave(userDto);
+        final User user = UserMapper.dtoToUser(userDto);
+        log.debug("Пользователь с email {} создан", user.getEmail());
+        return UserMapper.userToDto(userRepository.save(user));
+    }
+
+    // инвалидация кэша записывается в той же транзакции, что и изменение
+    @Transactional
+    @Override
+    public UserDto updateUser(UserUpdateDto userDto) {
+        log.debug("Начато обновление пользователя с id = {}", userDto.getId());
+        validateBeforeUpdate(userDto);
+        final Long userId = userDto.getId();
+        final UserDto currentUser = loadUser(userId);
+        final String email = userDto.getEmail();
+        if (Objects.nonNull(email) && !email.isBlank()) {
+            currentUser.setEmail(email);
+        }
+        final String name = userDto.getName();
+        if (Objects.nonNull(name) && !name.isBlank()) {
+            currentUser.setName(name);
+        }
+        final UserDto updated = UserMapper.userToDto(userRepository.save(UserMapper.dtoToUser(currentUser)));
+        cacheInvalidationBus.invalidate(userCache, userId);
+        log.debug("Пользователь с id = {} обновлен", currentUser.getId());
+        return updated;
+    }
+
+    /**
+     * Помечает пользователя удалённым и освобождает его email. Вещи, бронирования, отзывы и запросы
+     * удаляет {@link UserDeletionWorker} в фоне; ход очистки виден через {@link #getDeletion}.
+     */
+    @Transactional
+    @Override
+    public void deleteUser(Long id) {
+        log.debug("Начато удаление пользователя с id = {}", id);
+        final User user = userRepository.findByIdAndDeletedFalse(id).orElseThrow(() -> {
+            log.error("Пользователь с id = {} не найден!", id);
+            return new NotFoundException(String.format("Пользователь с id = %d не найден!", id));
+        });
+        user.setDeleted(true);
+        user.setEmail(String.format("deleted-%d@shareit.invalid", id));
+        user.setName("Удалённый пользователь");
+        userRepository.save(user);
+        cacheInvalidationBus.invalidate(userCache, id);
+
+        final UserDeletion deletion = new UserDeletion();
+        deletion.setUserId(id);
+        deletion.setStatus(UserDeletionStatus.PENDING);
+        deletion.setRequested(LocalDateTime.now());
+        userDeletionRepository.save(deletion);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
+        log.debug("Пользователь с id = {} помечен удалённым", id);
+    }
+
+    @Override
+    public UserDeletionDto getDeletion(Long id) {
+        return UserMapper.deletionToDto(userDeletionRepository.findById(id).orElseThrow(() ->
+                new NotFoundException(String.format("Удаление пользователя с id = %d не запрашивалось", id))));
+    }
+
+    private UserDto loadUser(long id) {
+        return UserMapper.userToDto(userRepository.findByIdAndDeletedFalse(id).orElseThrow(() ->
+                new NotFoundException(String.format("Пользователь с id = %d не найден!", id))));
+    }
+
+    private void validateBeforeSave(UserDto userDto) throws ConditionsNotMetException {
+        log.debug("Начата проверка перед созданием пользователя с email {}", userDto.getEmail());
+        final Optional<User> currentUser = userRepository.findByEmail(userDto.getEmail());
+        if (currentUser.isPresent()) {
+            log.error("Email {} уже зарегистрирован у пользователя с id = {}!",
+                    userDto.getEmail(), currentUser.get().getId());
+            throw new ConditionsNotMetException(String.format("Email %s уже зарегистрирован у пользователя с id = %d!",
+                    userDto.getEmail(), currentUser.get().getId()));
+        }
+        log.debug("Проверка перед созданием пользователя с email {} завершена", userDto.getEmail());
+    }
+
+    private void validateBeforeUpdate(UserUpdateDto userDto) {
+        log.debug("Начата проверка перед обновлением пользователя с id = {}", userDto.getId());
+        final Long userId = userDto.getId();
+        getUser(userId);
+        final String Email = userDto.getEmail();
+        if (Objects.nonNull(Email) && !Email.isBlank()) {
+            final Optional<User> currentUserOptional = userRepository.findByEmail(userDto.getEmail());
+            if (currentUserOptional.isPresent()) {
+                User user = currentUserOptional.get();
+                if (!user.getId().equals(userId)) {
+                    log.error("Email {} уже зарегистрирован у пользователя с id = {}!",
+                            userDto.getEmail(), user.getId());
+                    throw new ConditionsNotMetException(String.format("Email %s уже зарегистрирован у пользователя с id = %d!",
+                            userDto.getEmail(), user.getId()));
+                }
+            }
+        }
+        log.debug("Проверка перед обновлением пользователя с id = {} завершена", userDto.getId());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Основа in-memory реализаций репозиториев для профиля {@code in-memory}.
+ * Наследники задают доступ к id и поддерживают свои вторичные индексы в {@link #onPut} / {@link #onRemove}.
+ * Индексы хранят только кандидатов, поэтому запросы всегда перепроверяют условие по самой сущности.
+ * Поля, по которым строятся индексы (владелец, арендатор, вещь), после создания сущности не меняются.
+ * Связанные сущности при чтении берутся из их хранилищ по id (см. {@link #resolve}), а не по ссылке,
+ * сохранённой вместе с сущностью: сервис может заменить, например, пользователя новым объектом.
+ * Если подключён {@link StorageJournal}, каждое изменение пишется в журнал атомарно с изменением в памяти.
+ */
+public abstract class BaseInMemoryRepository<T> implements EntityRepository<T> {
+
+    private final ConcurrentLongMap<T> storage = new ConcurrentLongMap<>();
+    private final AtomicLong id = new AtomicLong();
+    private volatile StorageJournal journal = StorageJournal.NONE;
+
+    protected abstract Long getId(T entity);
+
+    protected abstract void setId(T entity, long id);
+
+    public abstract String storageName();
+
+    public abstract void writeEntity(T entity, DataOutput out) throws IOException;
+
+    /**
+     * Восстанавливает сущность из журнала или снапшота. Возвращает null, если связанные сущности
+     * (владелец, вещь и т.п.) уже не существуют. Новые поля дописываются в конец записи и читаются
+     * только при {@code in.available() > 0}, чтобы старые снапшоты оставались читаемыми.
+     */
+    public abstract T readEntity(long id, DataInputStream in) throws IOException;
+
+    protected void onPut(T entity) {
+    }
+
+    protected void onRemove(T entity) {
+    }
+
+    /**
+     * Подставляет в сущность текущие экземпляры связанных сущностей из их хранилищ. Вызывается на каждом
+     * чтении; связь с уже удалённой сущностью остаётся прежней.
+     */
+    protected T resolve(T entity) {
+        return entity;
+    }
+
+    public List<T> getFromStorage() {
+        List<T> values = storage.values();
+        values.replaceAll(this::resolve);
+        return values;
+    }
+
+    public Optional<T> findInStorage(long id) {
+        return Optional.ofNullable(storage.get(id)).map(this::resolve);
+    }
+
+    public long idOf(T entity) {
+        return getId(entity);
+    }
+
+    public void attachJournal(StorageJournal journal) {
+        this.journal = journal;
+    }
+
+    public long putInStorage(T t) {
+        long newId = id.incrementAndGet();
+        setId(t, newId);
+        store(newId, t);
+        return newId;
+    }
+
+    public void updateInStorage(long id, T t) {
+        this.id.accumulateAndGet(id, Math::max);
+        store(id, t);
+    }
+
+    public Optional<T> removeFromStorage(long id) {
+        StorageJournal current = journal;
+        long[] seq = new long[1];
+        T removed = storage.compute(id, old -> {
+            if (old != null && current.isEnabled()) {
+                seq[0] = current.logRemove(storageName(), id);
+            }
+            return null;
+        });
+        if (removed != null) {
+            onRemove(removed);
+        }
+        current.awaitDurable(seq[0]);
+        return Optional.ofNullable(removed);
+    }
+
+    public byte[] encode(T entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeEntity(entity, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void store(long entityId, T t) {
+        StorageJournal current = journal;
+        byte[] payload = current.isEnabled() ? encode(t) : null;
+        long[] seq = new long[1];
+        T previous = storage.compute(entityId, old -> {
+            if (payload != null) {
+                seq[0] = current.logPut(storageName(), entityId, payload);
+            }
+            return t;
+        });
+        if (previous != null && previous != t) {
+            onRemove(previous);
+        }
+        onPut(t);
+        current.awaitDurable(seq[0]);
+    }
+
+    protected Stream<T> stream() {
+        return storage.values().stream().map(this::resolve);
+    }
+
+    protected Stream<T> streamByIds(long[] ids) {
+        List<T> found = new ArrayList<>(ids.length);
+        for (long entityId : ids) {
+            T entity = storage.get(entityId);
+            if (entity != null) {
+                found.add(resolve(entity));
+            }
+        }
+        return found.stream();
+    }
+
+    protected static <E> Comparator<E> comparator(Sort sort) {
+        Comparator<Comparable<Object>> values = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<E> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<E> byProperty = Comparator.comparing(entity -> propertyValue(entity, order.getProperty()), values);
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> propertyValue(Object entity, String property) {
+        return (Comparable<Object>) new BeanWrapperImpl(entity).getPropertyValue(property);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        Long entityId = getId(entity);
+        if (entityId == null) {
+            putInStorage(entity);
+        } else {
+            updateInStorage(entityId, entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return findInStorage(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return storage.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return getFromStorage();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(entityId -> findInStorage(entityId).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return storage.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        removeFromStorage(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        Long entityId = getId(entity);
+        if (entityId != null) {
+            removeFromStorage(entityId);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        getFromStorage().forEach(this::delete);
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return stream().sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        List<T> content = sorted.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, sorted.size());
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        return findInStorage(id).orElseThrow(() -> new EntityNotFoundException(String.valueOf(id)));
+    }
+}
@@ -0,0 +1,250 @@
+package ru.practicum.shareit.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Потокобезопасная хеш-таблица с ключами-примитивами long.
+ * Таблица разбита на сегменты с собственной блокировкой, внутри сегмента — открытая адресация
+ * с линейным пробированием. Чтение идёт без блокировки (оптимистичный штамп) и только
+ * при конкурентной записи повторяется под блокировкой чтения.
+ */
+public class ConcurrentLongMap<V> {
+    private static final int SEGMENTS = 32;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        return segmentFor(hash).compute(key, hash, old -> value);
+    }
+
+    public V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).compute(key, hash, old -> null);
+    }
+
+    /**
+     * Атомарно пересчитывает значение по ключу. Если функция вернула null, ключ удаляется.
+     * Возвращает предыдущее значение.
+     */
+    public V compute(long key, UnaryOperator<V> remapping) {
+        long hash = hash(key);
+        return segmentFor(hash).compute(key, hash, remapping);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public void forEachValue(Consumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            segment.forEachValue(action);
+        }
+    }
+
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEachValue(values::add);
+        return values;
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> SEGMENT_SHIFT)];
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private volatile int size;
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        V compute(long key, long hash, UnaryOperator<V> remapping) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int slot = (int) hash & t.mask;
+                for (int probes = 0; probes <= t.mask; probes++) {
+                    @SuppressWarnings("unchecked")
+                    V current = (V) t.values[slot];
+                    if (current == null) {
+                        V created = remapping.apply(null);
+                        if (created != null) {
+                            t.keys[slot] = key;
+                            t.values[slot] = created;
+                            size++;
+                            if (size * 2 > t.values.length) {
+                                table = resize(t, t.values.length * 2);
+                            }
+                        }
+                        return null;
+                    }
+                    if (t.keys[slot] == key) {
+                        V updated = remapping.apply(current);
+                        if (updated != null) {
+                            t.values[slot] = updated;
+                        } else {
+                            removeAt(t, slot);
+                            size--;
+                        }
+                        return current;
+                    }
+                    slot = (slot + 1) & t.mask;
+                }
+                throw new IllegalStateException("Сегмент хеш-таблицы переполнен");
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEachValue(Consumer<? super V> action) {
+            List<V> snapshot;
+            long stamp = lock.readLock();
+            try {
+                Table t = table;
+                snapshot = new ArrayList<>(size);
+                for (Object value : t.values) {
+                    if (value != null) {
+                        @SuppressWarnings("unchecked")
+                        V v = (V) value;
+                        snapshot.add(v);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            snapshot.forEach(action);
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V find(Table t, long key, long hash) {
+            int slot = (int) hash & t.mask;
+            for (int probes = 0; probes <= t.mask; probes++) {
+                Object value = t.values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (t.keys[slot] == key) {
+                    return (V) value;
+                }
+                slot = (slot + 1) & t.mask;
+            }
+            return null;
+        }
+
+        private static Table resize(Table old, int capacity) {
+            Table t = new Table(capacity);
+            for (int i = 0; i < old.values.length; i++) {
+                if (old.values[i] != null) {
+                    int slot = (int) hash(old.keys[i]) & t.mask;
+                    while (t.values[slot] != null) {
+                        slot = (slot + 1) & t.mask;
+                    }
+                    t.keys[slot] = old.keys[i];
+                    t.values[slot] = old.values[i];
+                }
+            }
+            return t;
+        }
+
+        // удаление со сдвигом назад, чтобы в таблице не копились «надгробия»
+        private static void removeAt(Table t, int slot) {
+            int free = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & t.mask;
+                if (t.values[next] == null) {
+                    break;
+                }
+                int home = (int) hash(t.keys[next]) & t.mask;
+                boolean movable = free <= next
+                        ? home <= free || home > next
+                        : home <= free && home > next;
+                if (movable) {
+                    t.keys[free] = t.keys[next];
+                    t.values[free] = t.values[next];
+                    free = next;
+                }
+            }
+            t.values[free] = null;
+            t.keys[free] = 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.ListPagingAndSortingRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Операции по id, которые сервисы используют у любого хранилища: JPA, in-memory и шардированного.
+ * Для JPA-репозиториев Spring Data направляет эти методы в {@code SimpleJpaRepository}, остальные
+ * хранилища реализуют их сами, поэтому Query by example и flush из {@code JpaRepository} им не нужны.
+ */
+@NoRepositoryBean
+public interface EntityRepository<T> extends ListCrudRepository<T, Long>, ListPagingAndSortingRepository<T, Long> {
+
+    /**
+     * Удаляет сущности одним запросом, без загрузки в контекст персистентности.
+     */
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    /**
+     * Ссылка на сущность для связей; если сущности нет, бросает {@link jakarta.persistence.EntityNotFoundException}.
+     */
+    T getReferenceById(Long id);
+}
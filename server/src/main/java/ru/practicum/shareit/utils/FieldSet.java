@@ -0,0 +1,85 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Набор полей ответа из параметра {@code fields=a,b,c}. Сервисы по нему решают, какие запросы выполнять
+ * и какие поля заполнять; id возвращается всегда. Без параметра запрашиваются все поля.
+ */
+public final class FieldSet {
+    public static final FieldSet ALL = new FieldSet(null);
+
+    private static final String ID = "id";
+    private static final Map<Class<?>, Set<String>> KNOWN_FIELDS = new ConcurrentHashMap<>();
+
+    private final Set<String> fields;
+
+    private FieldSet(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Разбирает список полей и проверяет, что все они есть в DTO.
+     */
+    public static FieldSet parse(String fields, Class<?> dtoType) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> known = KNOWN_FIELDS.computeIfAbsent(dtoType, FieldSet::fieldsOf);
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : requested) {
+            if (!known.contains(field)) {
+                throw new ValidationException(String.format("Неизвестное поле %s, допустимые поля: %s", field,
+                        String.join(",", known)));
+            }
+        }
+        requested.add(ID);
+        return new FieldSet(Collections.unmodifiableSet(requested));
+    }
+
+    public boolean contains(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * Оборачивает ответ так, чтобы незапрошенные поля не попали в JSON даже как null.
+     * DTO должен быть помечен {@code @JsonFilter(filterId)}.
+     */
+    public MappingJacksonValue apply(Object body, String filterId) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        if (fields != null) {
+            filters.addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+        }
+        value.setFilters(filters);
+        return value;
+    }
+
+    private static Set<String> fieldsOf(Class<?> dtoType) {
+        return Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
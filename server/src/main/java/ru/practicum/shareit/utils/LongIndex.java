@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utils;
+
+import java.util.Arrays;
+
+/**
+ * Вторичный индекс «ключ -> множество id» без упаковки в Long.
+ * Множество хранится как отсортированный неизменяемый long[], который заменяется целиком
+ * при каждом изменении, поэтому читатели получают согласованный снимок без блокировок.
+ */
+public class LongIndex {
+    private static final long[] EMPTY = new long[0];
+
+    private final ConcurrentLongMap<long[]> index = new ConcurrentLongMap<>();
+
+    public void add(long key, long id) {
+        index.compute(key, ids -> {
+            if (ids == null) {
+                return new long[]{id};
+            }
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                return ids;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            return updated;
+        });
+    }
+
+    public void remove(long key, long id) {
+        index.compute(key, ids -> {
+            if (ids == null) {
+                return null;
+            }
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, position);
+            System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+            return updated;
+        });
+    }
+
+    public long[] get(long key) {
+        long[] ids = index.get(key);
+        return ids == null ? EMPTY : ids;
+    }
+
+    public void clear() {
+        index.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ответ пакетного чтения по id: найденные объекты в порядке запроса, id, которых нет,
+ * и id, к которым у пользователя нет доступа.
+ */
+@Getter
+public class MultiGetResult<T> {
+    private final List<T> results;
+    private final List<Long> missing;
+    private final List<Long> forbidden;
+
+    private MultiGetResult(List<T> results, List<Long> missing, List<Long> forbidden) {
+        this.results = results;
+        this.missing = missing;
+        this.forbidden = forbidden;
+    }
+
+    public static <T> MultiGetResult<T> of(Collection<Long> requested, Map<Long, T> found, Set<Long> forbidden) {
+        List<T> results = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        List<Long> denied = new ArrayList<>();
+        for (Long id : requested) {
+            T value = found.get(id);
+            if (value != null) {
+                results.add(value);
+            } else if (forbidden.contains(id)) {
+                denied.add(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetResult<>(results, missing, denied);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.utils;
+
+/**
+ * Журнал изменений in-memory хранилища. Запись в журнал выполняется под блокировкой сегмента
+ * хранилища, поэтому порядок записей по одному id совпадает с порядком изменений в памяти.
+ */
+public interface StorageJournal {
+    StorageJournal NONE = new StorageJournal() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public long logPut(String storage, long id, byte[] payload) {
+            return 0;
+        }
+
+        @Override
+        public long logRemove(String storage, long id) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long seq) {
+        }
+    };
+
+    boolean isEnabled();
+
+    long logPut(String storage, long id, byte[] payload);
+
+    long logRemove(String storage, long id);
+
+    void awaitDurable(long seq);
+}
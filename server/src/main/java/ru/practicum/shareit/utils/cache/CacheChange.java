@@ -0,0 +1,32 @@
+package ru.practicum.shareit.utils.cache;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала инвалидации локальных кэшей: пишется в транзакции изменения, остальные экземпляры
+ * приложения читают её и удаляют запись у себя. entryKey == null — сбросить кэш целиком.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "cache_changes")
+@EqualsAndHashCode(of = { "seq" })
+public class CacheChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "cache_name", nullable = false)
+    private String cacheName;
+
+    @Column(name = "entry_key")
+    private Long entryKey;
+
+    @Column(name = "changed_dt", nullable = false)
+    private LocalDateTime changed;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.utils.cache;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.utils.EntityRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CacheChangeRepository extends EntityRepository<CacheChange> {
+    @Query("SELECT c FROM CacheChange c " +
+            "WHERE c.seq > ?1 " +
+            "ORDER BY c.seq")
+    List<CacheChange> findAfter(long seq, Pageable pageable);
+
+    @Query("SELECT MAX(c.seq) FROM CacheChange c WHERE c.changed <= ?1")
+    Optional<Long> findLastSeq(LocalDateTime changedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CacheChange c WHERE c.changed < ?1")
+    int deleteChangedBefore(LocalDateTime changedBefore);
+}
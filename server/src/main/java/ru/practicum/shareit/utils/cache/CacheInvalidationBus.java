@@ -0,0 +1,124 @@
+package ru.practicum.shareit.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Инвалидация локальных кэшей между экземплярами приложения через общую БД, без брокера.
+ * {@link #invalidate} пишет запись в cache_changes в текущей транзакции, поэтому инвалидация фиксируется
+ * вместе с изменением; локальный кэш очищается после коммита. Каждый экземпляр опрашивает журнал по seq
+ * и удаляет перечисленные записи у себя. seq назначается при вставке, а видна строка после коммита, поэтому
+ * курсор продвигается только по записям старше {@code settle-window}, а более свежие перечитываются
+ * на каждом опросе — повторное удаление из кэша безвредно.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LocalCacheProperties.class)
+public class CacheInvalidationBus {
+    private final Map<String, LocalCache<?>> caches = new ConcurrentHashMap<>();
+    private final CacheChangeRepository changeRepository;
+    private final LocalCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private long cursor = -1;
+
+    public CacheInvalidationBus(CacheChangeRepository changeRepository, LocalCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.changeRepository = changeRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <V> LocalCache<V> create(String name) {
+        Cache<Long, V> cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        LocalCache<V> localCache = new LocalCache<>(name, cache);
+        if (caches.putIfAbsent(name, localCache) != null) {
+            throw new IllegalStateException(String.format("Кэш %s уже зарегистрирован", name));
+        }
+        return localCache;
+    }
+
+    public void invalidate(LocalCache<?> cache, long id) {
+        publish(cache, id);
+    }
+
+    public void invalidateAll(LocalCache<?> cache) {
+        publish(cache, null);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.cache.poll-interval:PT1S}")
+    public void poll() {
+        List<CacheChange> changes;
+        do {
+            LocalDateTime settled = LocalDateTime.now().minus(properties.getSettleWindow());
+            if (cursor < 0) {
+                // кэш пуст: старые записи не нужны, достаточно не пропустить ещё не закоммиченные
+                cursor = changeRepository.findLastSeq(settled).orElse(0L);
+            }
+            changes = changeRepository.findAfter(cursor, PageRequest.ofSize(properties.getBatchSize()));
+            boolean advancing = true;
+            for (CacheChange change : changes) {
+                evict(change.getCacheName(), change.getEntryKey());
+                if (advancing && !change.getChanged().isAfter(settled)) {
+                    cursor = change.getSeq();
+                } else {
+                    advancing = false;
+                }
+            }
+            if (!advancing) {
+                return;
+            }
+        } while (changes.size() == properties.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.cache.cleanup-interval:PT10M}")
+    public void cleanUp() {
+        int deleted = changeRepository.deleteChangedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.debug("Из журнала инвалидации кэшей удалено {} записей", deleted);
+        }
+    }
+
+    private void publish(LocalCache<?> cache, Long id) {
+        CacheChange change = new CacheChange();
+        change.setCacheName(cache.name());
+        change.setEntryKey(id);
+        change.setChanged(LocalDateTime.now());
+        changeRepository.save(change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(id);
+                }
+            });
+        } else {
+            cache.evict(id);
+        }
+    }
+
+    private void evict(String name, Long id) {
+        LocalCache<?> cache = caches.get(name);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
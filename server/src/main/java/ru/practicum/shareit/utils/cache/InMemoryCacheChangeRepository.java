@@ -0,0 +1,83 @@
+package ru.practicum.shareit.utils.cache;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.StorageCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("in-memory")
+@Order(100)
+public class InMemoryCacheChangeRepository extends BaseInMemoryRepository<CacheChange>
+        implements CacheChangeRepository {
+
+    @Override
+    protected Long getId(CacheChange change) {
+        return change.getSeq();
+    }
+
+    @Override
+    protected void setId(CacheChange change, long id) {
+        change.setSeq(id);
+    }
+
+    @Override
+    public String storageName() {
+        return "cache-changes";
+    }
+
+    @Override
+    public void writeEntity(CacheChange change, DataOutput out) throws IOException {
+        StorageCodec.writeString(out, change.getCacheName());
+        out.writeLong(change.getEntryKey() == null ? -1 : change.getEntryKey());
+        StorageCodec.writeDateTime(out, change.getChanged());
+    }
+
+    @Override
+    public CacheChange readEntity(long id, DataInputStream in) throws IOException {
+        CacheChange change = new CacheChange();
+        change.setSeq(id);
+        change.setCacheName(StorageCodec.readString(in));
+        long key = in.readLong();
+        change.setEntryKey(key < 0 ? null : key);
+        change.setChanged(StorageCodec.readDateTime(in));
+        return change;
+    }
+
+    @Override
+    public List<CacheChange> findAfter(long seq, Pageable pageable) {
+        return stream()
+                .filter(change -> change.getSeq() > seq)
+                .sorted(Comparator.comparing(CacheChange::getSeq))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public Optional<Long> findLastSeq(LocalDateTime changedBefore) {
+        return stream()
+                .filter(change -> !change.getChanged().isAfter(changedBefore))
+                .map(CacheChange::getSeq)
+                .max(Comparator.naturalOrder());
+    }
+
+    @Override
+    public int deleteChangedBefore(LocalDateTime changedBefore) {
+        List<Long> expired = stream()
+                .filter(change -> change.getChanged().isBefore(changedBefore))
+                .map(CacheChange::getSeq)
+                .toList();
+        deleteAllByIdInBatch(expired);
+        return expired.size();
+    }
+}
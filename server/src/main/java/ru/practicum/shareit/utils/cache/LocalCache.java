@@ -0,0 +1,36 @@
+package ru.practicum.shareit.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.function.LongFunction;
+
+/**
+ * Локальный кэш по id. Записи удаляет {@link CacheInvalidationBus} — и после своих изменений,
+ * и по журналу изменений других экземпляров.
+ */
+public final class LocalCache<V> {
+    private final String name;
+    private final Cache<Long, V> cache;
+
+    LocalCache(String name, Cache<Long, V> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // загрузка под блокировкой ключа: инвалидация во время загрузки дождётся её и удалит результат
+    public V get(long id, LongFunction<V> loader) {
+        return cache.get(id, loader::apply);
+    }
+
+    void evict(Long id) {
+        if (id == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.utils.cache;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Кэши DTO отдают копии, чтобы вызывающий код не менял закэшированное значение.
+ */
+@Configuration
+public class LocalCacheConfig {
+    @Bean
+    public LocalCache<UserDto> userCache(CacheInvalidationBus bus) {
+        return bus.create("users");
+    }
+
+    // поля самой вещи, без бронирований и отзывов
+    @Bean
+    public LocalCache<ItemDto> itemCache(CacheInvalidationBus bus) {
+        return bus.create("items");
+    }
+
+    // занятость вещи: массив интервалов, наружу не отдаётся
+    @Bean
+    public LocalCache<long[]> calendarCache(CacheInvalidationBus bus) {
+        return bus.create("item-calendar");
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.utils.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class LocalCacheProperties {
+    // страховка на случай пропущенной инвалидации
+    private Duration ttl = Duration.ofMinutes(10);
+    private long maxSize = 10_000;
+    // записи журнала моложе этого перечитываются: транзакция с меньшим seq могла ещё не закоммититься
+    private Duration settleWindow = Duration.ofSeconds(5);
+    private Duration retention = Duration.ofHours(1);
+    private int batchSize = 1000;
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.utils.idempotency;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ключи идемпотентности в общей базе, видимые всем экземплярам. Строка без completed_dt — запрос ещё
+ * выполняется (занят одним из экземпляров), с completed_dt — сохранённый ответ для повторов.
+ * Не {@code @Repository}: внутри {@link #writeAndComplete} выполняется запись сервиса, и её исключения
+ * не должны переводиться в DataAccessException.
+ */
+@Component
+@Profile("!in-memory")
+public class IdempotencyKeyRepository {
+    private static final String WHERE_KEY = " WHERE user_id = ? AND operation = ? AND idempotency_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Занимает ключ строкой «выполняется»; false, если ключ уже есть.
+     */
+    boolean tryClaim(long userId, String operation, String key, String fingerprint) {
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, operation, idempotency_key, fingerprint, " +
+                    "created_dt) VALUES (?, ?, ?, ?, ?)", userId, operation, key, fingerprint, LocalDateTime.now());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Занимает заново истёкший или брошенный ключ, если его строку никто не занял после чтения.
+     */
+    boolean tryTakeOver(long userId, String operation, String key, String fingerprint, LocalDateTime seenCreated) {
+        return jdbcTemplate.update("UPDATE idempotency_keys SET fingerprint = ?, created_dt = ?, " +
+                        "response_type = NULL, response = NULL, completed_dt = NULL" + WHERE_KEY +
+                        " AND created_dt = ?",
+                fingerprint, LocalDateTime.now(), userId, operation, key, seenCreated) > 0;
+    }
+
+    Optional<StoredKey> find(long userId, String operation, String key) {
+        return jdbcTemplate.query("SELECT fingerprint, response_type, response, created_dt, completed_dt " +
+                        "FROM idempotency_keys" + WHERE_KEY,
+                (rs, rowNum) -> new StoredKey(rs.getString("fingerprint"), rs.getString("response_type"),
+                        rs.getString("response"), rs.getTimestamp("created_dt").toLocalDateTime(),
+                        rs.getTimestamp("completed_dt") != null),
+                userId, operation, key).stream().findFirst();
+    }
+
+    /**
+     * Выполняет запись и сохраняет её ответ в одной транзакции: ответ не потеряется после коммита записи,
+     * а при падении до коммита ключ останется «выполняется» и будет перехвачен по истечении аренды.
+     */
+    <T> T writeAndComplete(long userId, String operation, String key, Supplier<T> write,
+                           Function<T, String> serializer) {
+        return transactionTemplate.execute(tx -> {
+            T result = write.get();
+            jdbcTemplate.update("UPDATE idempotency_keys SET response_type = ?, response = ?, completed_dt = ?" +
+                            WHERE_KEY, result.getClass().getName(), serializer.apply(result), LocalDateTime.now(),
+                    userId, operation, key);
+            return result;
+        });
+    }
+
+    /**
+     * Освобождает ключ после неуспешной записи, чтобы повтор выполнил её заново.
+     */
+    void release(long userId, String operation, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys" + WHERE_KEY + " AND completed_dt IS NULL",
+                userId, operation, key);
+    }
+
+    int deleteCreatedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_dt < ?", before);
+    }
+
+    record StoredKey(String fingerprint, String responseType, String response, LocalDateTime created,
+                     boolean completed) {
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.utils.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.idempotency")
+public class IdempotencyProperties {
+    // сколько помнить ключ после первого успешного выполнения
+    private Duration ttl = Duration.ofHours(24);
+    private int maxKeys = 100_000;
+    // сколько повтор ждёт завершения исходного запроса с тем же ключом
+    private Duration waitTimeout = Duration.ofSeconds(30);
+    // ключ, который в общей базе выполняется дольше, считается брошенным упавшим экземпляром и занимается заново
+    private Duration inFlightLease = Duration.ofMinutes(5);
+}
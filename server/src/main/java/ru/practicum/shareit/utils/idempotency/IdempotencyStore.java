@@ -0,0 +1,282 @@
+package ru.practicum.shareit.utils.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ключей Idempotency-Key для создающих запросов. Первый запрос с ключом выполняет запись,
+ * повторы (в том числе параллельные) ждут его результата и получают тот же ответ, не выполняя запись
+ * второй раз. Ключ привязан к пользователю и операции; тот же ключ с другим телом запроса — ошибка 422.
+ * Неуспешное выполнение ключ не занимает: повтор выполнит запись заново.
+ * Ключи хранятся в общей базе ({@link IdempotencyKeyRepository}), поэтому повтор, попавший на другой экземпляр,
+ * тоже получает сохранённый ответ или ждёт завершения исходного запроса. Локальная карта — быстрый путь для
+ * повторов на том же экземпляре; она ограничена по числу ключей (вытесняются старейшие завершённые)
+ * и по времени жизни. Без базы (профиль in-memory) хранилище только локальное.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyStore {
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final String RESPONSE_PACKAGE = "ru.practicum.shareit.";
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // порядок появления записей — для вытеснения старейших при переполнении
+    private final ConcurrentLinkedQueue<Slot> order = new ConcurrentLinkedQueue<>();
+    private final IdempotencyProperties properties;
+    private final IdempotencyKeyRepository keys;
+    private final ObjectMapper objectMapper;
+    // DTO с @JsonFilter сериализуются для отпечатка и сохранённого ответа целиком
+    private final ObjectWriter unfilteredWriter;
+    private final Counter replayedCounter;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            ObjectProvider<IdempotencyKeyRepository> keys) {
+        this(properties, objectMapper, meterRegistry, keys.getIfAvailable());
+    }
+
+    /**
+     * @param keys общее хранилище ключей или null для локального
+     */
+    IdempotencyStore(IdempotencyProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     IdempotencyKeyRepository keys) {
+        this.properties = properties;
+        this.keys = keys;
+        this.objectMapper = objectMapper;
+        this.unfilteredWriter = objectMapper.writer(new SimpleFilterProvider().setFailOnUnknownId(false));
+        this.replayedCounter = Counter.builder("shareit.idempotency.replayed")
+                .description("Повторы запросов, получившие сохранённый ответ")
+                .register(meterRegistry);
+        Gauge.builder("shareit.idempotency.keys", entries, ConcurrentMap::size)
+                .description("Запомненные ключи идемпотентности")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет {@code write} не более одного раза для ключа; без ключа — просто выполняет.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String operation, long userId, Object request, Supplier<T> write) {
+        if (key == null) {
+            return write.get();
+        }
+        String storeKey = userId + " " + operation + " " + key;
+        Entry created = new Entry(fingerprint(request), System.nanoTime());
+        Entry existing = entries.putIfAbsent(storeKey, created);
+        if (existing != null && !existing.isExpired(properties.getTtl().toNanos())) {
+            if (!MessageDigest.isEqual(existing.fingerprint, created.fingerprint)) {
+                throw new IdempotencyKeyReusedException(String.format(
+                        "Ключ идемпотентности %s уже использован с другим телом запроса", key));
+            }
+            replayedCounter.increment();
+            log.debug("Повтор запроса {} пользователя {} с ключом {}", operation, userId, key);
+            return (T) await(existing, key);
+        }
+        if (existing != null && !entries.replace(storeKey, existing, created)) {
+            // истёкшую запись одновременно заменил другой повтор — присоединяемся к нему
+            return execute(key, operation, userId, request, write);
+        }
+        order.add(new Slot(storeKey, created));
+        evictOverflow();
+        try {
+            T result = keys == null ? write.get() : executeShared(key, operation, userId, created.fingerprint, write);
+            created.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(storeKey, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.sweep-interval:PT1M}")
+    public void evictExpired() {
+        long ttl = properties.getTtl().toNanos();
+        entries.entrySet().removeIf(entry -> entry.getValue().result.isDone() && entry.getValue().isExpired(ttl));
+        order.removeIf(this::isStale);
+        if (keys != null) {
+            keys.deleteCreatedBefore(LocalDateTime.now().minus(properties.getTtl()));
+        }
+    }
+
+    /**
+     * Занимает ключ в общей базе и выполняет запись либо ждёт и возвращает ответ экземпляра, занявшего ключ.
+     * Истёкший ключ и ключ, который выполняется дольше {@code in-flight-lease} (экземпляр упал до коммита),
+     * занимаются заново.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T executeShared(String key, String operation, long userId, byte[] fingerprint, Supplier<T> write) {
+        String hash = HexFormat.of().formatHex(fingerprint);
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        while (true) {
+            if (keys.tryClaim(userId, operation, key, hash)) {
+                return writeShared(key, operation, userId, write);
+            }
+            Optional<IdempotencyKeyRepository.StoredKey> found = keys.find(userId, operation, key);
+            if (found.isEmpty()) {
+                // исходный запрос завершился ошибкой и освободил ключ
+                continue;
+            }
+            IdempotencyKeyRepository.StoredKey stored = found.get();
+            LocalDateTime now = LocalDateTime.now();
+            boolean expired = stored.created().isBefore(now.minus(properties.getTtl()));
+            boolean abandoned = !stored.completed()
+                    && stored.created().isBefore(now.minus(properties.getInFlightLease()));
+            if (expired || abandoned) {
+                if (keys.tryTakeOver(userId, operation, key, hash, stored.created())) {
+                    return writeShared(key, operation, userId, write);
+                }
+                continue;
+            }
+            if (!stored.fingerprint().equals(hash)) {
+                throw new IdempotencyKeyReusedException(String.format(
+                        "Ключ идемпотентности %s уже использован с другим телом запроса", key));
+            }
+            if (stored.completed()) {
+                replayedCounter.increment();
+                log.debug("Повтор запроса {} пользователя {} с ключом {} из общей базы", operation, userId, key);
+                return (T) readResponse(stored);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new ConditionsNotMetException(String.format("Запрос с ключом %s ещё выполняется", key));
+            }
+            pause(key);
+        }
+    }
+
+    private <T> T writeShared(String key, String operation, long userId, Supplier<T> write) {
+        try {
+            return keys.writeAndComplete(userId, operation, key, write, this::writeResponse);
+        } catch (RuntimeException e) {
+            keys.release(userId, operation, key);
+            throw e;
+        }
+    }
+
+    private String writeResponse(Object response) {
+        try {
+            return unfilteredWriter.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ для ключа идемпотентности", e);
+        }
+    }
+
+    private Object readResponse(IdempotencyKeyRepository.StoredKey stored) {
+        if (!stored.responseType().startsWith(RESPONSE_PACKAGE)) {
+            throw new IllegalStateException("Недопустимый тип сохранённого ответа: " + stored.responseType());
+        }
+        try {
+            return objectMapper.readValue(stored.response(), Class.forName(stored.responseType()));
+        } catch (JsonProcessingException | ClassNotFoundException e) {
+            throw new IllegalStateException("Не удалось прочитать сохранённый ответ для ключа идемпотентности", e);
+        }
+    }
+
+    private static void pause(String key) {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConditionsNotMetException(String.format("Запрос с ключом %s ещё выполняется", key));
+        }
+    }
+
+    /**
+     * Вытесняет старейшие завершённые записи. Выполняющиеся остаются, даже если ключей больше лимита:
+     * без записи параллельный повтор с тем же ключом выполнил бы запись второй раз. Их число ограничено
+     * числом одновременных запросов.
+     */
+    private void evictOverflow() {
+        Iterator<Slot> slots = order.iterator();
+        while (entries.size() > properties.getMaxKeys() && slots.hasNext()) {
+            Slot slot = slots.next();
+            if (isStale(slot)) {
+                slots.remove();
+            } else if (slot.entry().result.isDone()) {
+                entries.remove(slot.storeKey(), slot.entry());
+                slots.remove();
+            }
+        }
+    }
+
+    private boolean isStale(Slot slot) {
+        return entries.get(slot.storeKey()) != slot.entry();
+    }
+
+    private Object await(Entry entry, String key) {
+        try {
+            return entry.result.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException | CancellationException e) {
+            throw new ConditionsNotMetException(String.format("Запрос с ключом %s ещё выполняется", key));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConditionsNotMetException(String.format("Запрос с ключом %s ещё выполняется", key));
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(unfilteredWriter.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            return String.valueOf(request).getBytes(StandardCharsets.UTF_8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // запись в очереди устаревает, когда ключ удалён или занят новой записью после истечения срока
+    private record Slot(String storeKey, Entry entry) {
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final long createdNanos;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint, long createdNanos) {
+            this.fingerprint = fingerprint;
+            this.createdNanos = createdNanos;
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - createdNanos > ttlNanos;
+        }
+    }
+}
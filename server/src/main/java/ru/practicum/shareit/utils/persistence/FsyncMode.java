@@ -0,0 +1,10 @@
+package ru.practicum.shareit.utils.persistence;
+
+public enum FsyncMode {
+    // сброс на диск после каждой записи, запрос ждёт завершения
+    PER_WRITE,
+    // параллельные записи ждут один общий сброс, который выполняет первая из них
+    GROUP_COMMIT,
+    // сброс по таймеру, запросы не ждут диска
+    INTERVAL
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.utils.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+import ru.practicum.shareit.utils.StorageJournal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Долговременное хранение in-memory профиля: журнал упреждающей записи и периодические снапшоты.
+ * При старте загружается последний снапшот и проигрывается хвост журнала после него.
+ * Порядок репозиториев (по {@code @Order}) задаёт порядок восстановления: сначала те, на кого ссылаются.
+ */
+@Slf4j
+@Component
+@Profile("in-memory")
+@EnableConfigurationProperties(InMemoryPersistenceProperties.class)
+@ConditionalOnProperty(prefix = "shareit.in-memory.persistence", name = "enabled", havingValue = "true")
+public class InMemoryPersistence implements StorageJournal, InitializingBean, DisposableBean {
+    private final List<BaseInMemoryRepository<?>> repositories;
+    private final Map<String, BaseInMemoryRepository<?>> repositoriesByName = new LinkedHashMap<>();
+    private final InMemoryPersistenceProperties properties;
+    private final Path directory;
+    private final SnapshotStore snapshots;
+    private final Timer recoveryTimer;
+    private final Timer snapshotTimer;
+    private final AtomicLong snapshotBytes = new AtomicLong();
+    private volatile WriteAheadLog wal;
+    private volatile long snapshotSeq;
+
+    public InMemoryPersistence(List<BaseInMemoryRepository<?>> repositories, InMemoryPersistenceProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.repositories = repositories;
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        this.snapshots = new SnapshotStore(directory);
+        repositories.forEach(repository -> repositoriesByName.put(repository.storageName(), repository));
+        this.recoveryTimer = Timer.builder("shareit.in-memory.recovery")
+                .description("Время восстановления хранилища из снапшота и журнала")
+                .register(meterRegistry);
+        this.snapshotTimer = Timer.builder("shareit.in-memory.snapshot")
+                .description("Время записи снапшота")
+                .register(meterRegistry);
+        Gauge.builder("shareit.in-memory.snapshot.size", snapshotBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+        long seq = 0;
+        Optional<Path> snapshot = snapshots.latest();
+        if (snapshot.isPresent()) {
+            seq = snapshots.read(snapshot.get(), repositoriesByName);
+            snapshotBytes.set(Files.size(snapshot.get()));
+        }
+        snapshotSeq = seq;
+        long[] replayed = new long[1];
+        long lastSeq = WriteAheadLog.replay(directory, seq, (operation, storage, id, payload) -> {
+            replayed[0]++;
+            apply(operation, storage, id, payload);
+        });
+        long elapsed = System.nanoTime() - started;
+        recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Хранилище восстановлено за {} мс: снапшот {} байт, записей журнала {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), snapshotBytes.get(), replayed[0]);
+        wal = new WriteAheadLog(directory, properties, lastSeq);
+        repositories.forEach(repository -> repository.attachJournal(this));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public long logPut(String storage, long id, byte[] payload) {
+        return wal.append(WriteAheadLog.PUT, storage, id, payload);
+    }
+
+    @Override
+    public long logRemove(String storage, long id) {
+        return wal.append(WriteAheadLog.REMOVE, storage, id, new byte[0]);
+    }
+
+    @Override
+    public void awaitDurable(long seq) {
+        wal.awaitDurable(seq);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.in-memory.persistence.snapshot-interval:PT10M}",
+            initialDelayString = "${shareit.in-memory.persistence.snapshot-interval:PT10M}")
+    public void snapshot() throws IOException {
+        // снапшот «нечёткий»: запись в журнал делается под блокировкой сегмента хранилища, поэтому всё,
+        // что попало в журнал до seq, уже видно при копировании, а более поздние записи идемпотентно проиграются
+        long seq = wal.lastSeq();
+        if (seq == snapshotSeq) {
+            return;
+        }
+        long started = System.nanoTime();
+        wal.flush();
+        snapshotBytes.set(snapshots.write(seq, repositories));
+        wal.truncateUpTo(seq);
+        snapshotSeq = seq;
+        snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Записан снапшот хранилища до записи {} ({} байт)", seq, snapshotBytes.get());
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        repositories.forEach(repository -> repository.attachJournal(StorageJournal.NONE));
+        snapshot();
+        wal.close();
+    }
+
+    private void apply(byte operation, String storage, long id, ByteBuffer payload) throws IOException {
+        BaseInMemoryRepository<?> repository = repositoriesByName.get(storage);
+        if (repository == null) {
+            log.warn("В журнале найдено неизвестное хранилище {}, запись пропущена", storage);
+            return;
+        }
+        if (operation == WriteAheadLog.REMOVE) {
+            repository.removeFromStorage(id);
+        } else {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            SnapshotStore.restore(repository, id, bytes);
+        }
+    }
+}
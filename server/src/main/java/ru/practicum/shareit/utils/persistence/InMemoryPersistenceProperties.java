@@ -0,0 +1,22 @@
+package ru.practicum.shareit.utils.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.in-memory.persistence")
+public class InMemoryPersistenceProperties {
+    private boolean enabled;
+    private String directory = "data";
+    private FsyncMode fsync = FsyncMode.GROUP_COMMIT;
+    // сколько лидер групповой записи ждёт остальных перед сбросом
+    private Duration groupCommitWindow = Duration.ofMillis(2);
+    // период сброса для режима INTERVAL
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+    private int segmentSize = 64 * 1024 * 1024;
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.utils.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Сжатые снапшоты хранилища: для каждой сущности хранится только последнее состояние.
+ * Снапшот пишется во временный файл и атомарно переименовывается, старые снапшоты удаляются.
+ */
+@Slf4j
+class SnapshotStore {
+    private static final int MAGIC = 0x53484954;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    long write(long seq, List<BaseInMemoryRepository<?>> repositories) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, seq, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seq);
+            for (BaseInMemoryRepository<?> repository : repositories) {
+                writeSection(out, repository);
+            }
+            out.writeUTF("");
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (Path old : snapshots()) {
+            if (!old.equals(target)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        return Files.size(target);
+    }
+
+    Optional<Path> latest() throws IOException {
+        List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.getLast());
+    }
+
+    long read(Path snapshot, Map<String, BaseInMemoryRepository<?>> repositories) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot),
+                1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(String.format("Неизвестный формат снапшота %s", snapshot));
+            }
+            long seq = in.readLong();
+            String storage = in.readUTF();
+            while (!storage.isEmpty()) {
+                BaseInMemoryRepository<?> repository = repositories.get(storage);
+                while (in.readBoolean()) {
+                    long id = in.readLong();
+                    byte[] payload = in.readNBytes(in.readInt());
+                    if (repository != null) {
+                        restore(repository, id, payload);
+                    }
+                }
+                if (repository == null) {
+                    log.warn("В снапшоте найдено неизвестное хранилище {}, данные пропущены", storage);
+                }
+                storage = in.readUTF();
+            }
+            return seq;
+        }
+    }
+
+    static <T> void restore(BaseInMemoryRepository<T> repository, long id, byte[] payload) throws IOException {
+        T entity = repository.readEntity(id, new DataInputStream(new ByteArrayInputStream(payload)));
+        if (entity != null) {
+            repository.updateInStorage(id, entity);
+        } else {
+            log.warn("Запись {} {} ссылается на удалённые данные и пропущена", repository.storageName(), id);
+        }
+    }
+
+    private static <T> void writeSection(DataOutputStream out, BaseInMemoryRepository<T> repository)
+            throws IOException {
+        out.writeUTF(repository.storageName());
+        for (T entity : repository.getFromStorage()) {
+            byte[] payload = repository.encode(entity);
+            out.writeBoolean(true);
+            out.writeLong(repository.idOf(entity));
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+        out.writeBoolean(false);
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package ru.practicum.shareit.utils.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Журнал упреждающей записи из отображённых в память сегментов фиксированного размера.
+ * Формат записи: длина тела (int), CRC32C тела (int), тело = seq (long), операция (byte),
+ * имя хранилища (UTF), id (long), данные сущности. Нулевая длина или неверная CRC означают конец журнала.
+ */
+@Slf4j
+class WriteAheadLog implements Closeable {
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncMode fsyncMode;
+    private final long groupCommitWindowNanos;
+    private final ScheduledExecutorService intervalFlusher;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile Segment current;
+    private long lastSeq;
+    private volatile long appendedSeq;
+
+    // ReentrantLock вместо монитора: ожидание сброса не закрепляет виртуальный поток на носителе
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition flushed = durableLock.newCondition();
+    private long durableSeq;
+    private boolean flushing;
+
+    WriteAheadLog(Path directory, InMemoryPersistenceProperties properties, long lastSeq) throws IOException {
+        this.directory = directory;
+        this.segmentSize = properties.getSegmentSize();
+        this.fsyncMode = properties.getFsync();
+        this.groupCommitWindowNanos = properties.getGroupCommitWindow().toNanos();
+        this.lastSeq = lastSeq;
+        this.appendedSeq = lastSeq;
+        this.durableSeq = lastSeq;
+        this.current = Segment.create(directory, lastSeq + 1, segmentSize);
+        if (fsyncMode == FsyncMode.INTERVAL) {
+            long interval = properties.getFsyncInterval().toMillis();
+            intervalFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            intervalFlusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            intervalFlusher = null;
+        }
+    }
+
+    long append(byte operation, String storage, long id, byte[] payload) {
+        byte[] body = body(operation, storage, id, payload);
+        CRC32C crc = new CRC32C();
+        appendLock.lock();
+        try {
+            long seq = ++lastSeq;
+            ByteBuffer.wrap(body).putLong(0, seq);
+            crc.update(body);
+            if (current.remaining() < HEADER + body.length) {
+                roll(seq, HEADER + body.length);
+            }
+            current.write(body, (int) crc.getValue());
+            appendedSeq = seq;
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    long lastSeq() {
+        return appendedSeq;
+    }
+
+    void awaitDurable(long seq) {
+        if (seq <= 0) {
+            return;
+        }
+        switch (fsyncMode) {
+            case PER_WRITE -> current.force();
+            case GROUP_COMMIT -> groupCommit(seq);
+            case INTERVAL -> {
+            }
+        }
+    }
+
+    void flush() {
+        long target = appendedSeq;
+        current.force();
+        durableLock.lock();
+        try {
+            durableSeq = Math.max(durableSeq, target);
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет сегменты, все записи которых покрыты снапшотом с номером {@code seq}.
+     */
+    void truncateUpTo(long seq) throws IOException {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirstSeq = firstSeq(segments.get(i + 1));
+            if (nextFirstSeq - 1 <= seq && !segments.get(i).equals(current.path)) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (intervalFlusher != null) {
+            intervalFlusher.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            current.force();
+            current.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    static long replay(Path directory, long afterSeq, RecordConsumer consumer) throws IOException {
+        long last = afterSeq;
+        for (Path path : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (buffer.remaining() >= HEADER) {
+                    int length = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (length <= 0 || length > buffer.remaining()) {
+                        break;
+                    }
+                    byte[] body = new byte[length];
+                    buffer.get(body);
+                    CRC32C crc = new CRC32C();
+                    crc.update(body);
+                    if ((int) crc.getValue() != checksum) {
+                        log.warn("Повреждённая запись в {}, чтение сегмента остановлено", path);
+                        break;
+                    }
+                    ByteBuffer record = ByteBuffer.wrap(body);
+                    long seq = record.getLong();
+                    if (seq <= afterSeq) {
+                        continue;
+                    }
+                    byte operation = record.get();
+                    byte[] name = new byte[record.getShort() & 0xFFFF];
+                    record.get(name);
+                    long id = record.getLong();
+                    consumer.accept(operation, new String(name, StandardCharsets.UTF_8), id,
+                            record.slice());
+                    last = Math.max(last, seq);
+                }
+            }
+        }
+        return last;
+    }
+
+    private void groupCommit(long seq) {
+        durableLock.lock();
+        try {
+            // без прерывания: вернуться раньше сброса значит подтвердить запись, которой ещё нет на диске
+            while (durableSeq < seq && flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durableSeq >= seq) {
+                return;
+            }
+            flushing = true;
+        } finally {
+            durableLock.unlock();
+        }
+        try {
+            // лидер даёт остальным писателям дописать свои записи, затем сбрасывает их одним вызовом
+            LockSupport.parkNanos(groupCommitWindowNanos);
+            long target = appendedSeq;
+            current.force();
+            durableLock.lock();
+            try {
+                durableSeq = Math.max(durableSeq, target);
+            } finally {
+                durableLock.unlock();
+            }
+        } finally {
+            durableLock.lock();
+            try {
+                flushing = false;
+                flushed.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    private void roll(long nextSeq, int required) throws IOException {
+        if (required > segmentSize) {
+            throw new IOException(String.format("Запись размером %d байт больше сегмента журнала", required));
+        }
+        current.force();
+        current.close();
+        current = Segment.create(directory, nextSeq, segmentSize);
+    }
+
+    private static byte[] body(byte operation, String storage, long id, byte[] payload) {
+        byte[] name = storage.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Long.BYTES * 2 + 3 + name.length + payload.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(0);
+            out.writeByte(operation);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeLong(id);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(byte operation, String storage, long id, ByteBuffer payload) throws IOException;
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path directory, long firstSeq, int size) throws IOException {
+            Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        int remaining() {
+            return buffer.remaining();
+        }
+
+        void write(byte[] body, int checksum) {
+            int start = buffer.position();
+            buffer.position(start + Integer.BYTES);
+            buffer.putInt(checksum);
+            buffer.put(body);
+            // длина пишется последней: при обрыве записи журнал просто заканчивается на предыдущей
+            buffer.putInt(start, body.length);
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть сегмент журнала {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_dt TIMESTAMP NOT NULL,
+    end_dt TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status varchar(30) NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS bookings_item_idx ON bookings (item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_idx ON bookings (booker_id, start_dt);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_idx ON bookings (owner_id, start_dt);
+
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_dt);
+
+
+CREATE TABLE IF NOT EXISTS booking_shard_topology (
+    topology varchar(2048) NOT NULL
+    );
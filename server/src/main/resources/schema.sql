@@ -0,0 +1,136 @@
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(500) UNIQUE NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description VARCHAR(2000) NOT NULL,
+    requestor_id BIGINT NOT NULL REFERENCES users (id),
+    created_dt TIMESTAMP NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(500) NOT NULL,
+    description VARCHAR(2000) NOT NULL,
+    available BOOLEAN NOT NULL,
+    owner_id BIGINT REFERENCES users (id)
+    );
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_dt TIMESTAMP NOT NULL,
+    end_dt TIMESTAMP NOT NULL,
+    item_id BIGINT REFERENCES items (id),
+    booker_id BIGINT REFERENCES users (id),
+    status varchar(30) NOT NULL
+    );
+
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_dt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    text VARCHAR(2000) NOT NULL,
+    item_id BIGINT REFERENCES items (id),
+    author_id BIGINT REFERENCES users (id)
+    );
+
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_dt);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS request_id BIGINT REFERENCES requests (id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created_dt, id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_idx ON requests (requestor_id);
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS closed BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE TABLE IF NOT EXISTS request_matches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id BIGINT NOT NULL REFERENCES requests (id),
+    item_id BIGINT NOT NULL REFERENCES items (id),
+    score DOUBLE PRECISION NOT NULL,
+    created_dt TIMESTAMP NOT NULL,
+    UNIQUE (request_id, item_id)
+    );
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE TABLE IF NOT EXISTS user_deletions (
+    user_id BIGINT PRIMARY KEY,
+    status VARCHAR(30) NOT NULL,
+    requested_dt TIMESTAMP NOT NULL,
+    finished_dt TIMESTAMP,
+    items_deleted BIGINT NOT NULL DEFAULT 0,
+    bookings_deleted BIGINT NOT NULL DEFAULT 0,
+    comments_deleted BIGINT NOT NULL DEFAULT 0,
+    requests_deleted BIGINT NOT NULL DEFAULT 0
+    );
+
+ALTER TABLE user_deletions ADD COLUMN IF NOT EXISTS owner VARCHAR(64);
+
+ALTER TABLE user_deletions ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP;
+
+ALTER TABLE user_deletions ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS user_deletions_status_idx ON user_deletions (status, requested_dt);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_idx ON bookings (booker_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_idx ON bookings (item_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS comments_author_idx ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id BIGINT PRIMARY KEY,
+    views BIGINT NOT NULL DEFAULT 0
+    );
+
+CREATE TABLE IF NOT EXISTS booking_changes (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(30) NOT NULL,
+    changed_dt TIMESTAMP NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS booking_changes_booker_idx ON booking_changes (booker_id, seq);
+
+CREATE INDEX IF NOT EXISTS booking_changes_owner_idx ON booking_changes (owner_id, seq);
+
+CREATE TABLE IF NOT EXISTS booking_change_lock (
+    id INT PRIMARY KEY
+    );
+
+INSERT INTO booking_change_lock (id) SELECT 1 WHERE NOT EXISTS (SELECT 1 FROM booking_change_lock);
+
+CREATE TABLE IF NOT EXISTS cache_changes (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cache_name VARCHAR(50) NOT NULL,
+    entry_key BIGINT,
+    changed_dt TIMESTAMP NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS cache_changes_changed_idx ON cache_changes (changed_dt);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id BIGINT NOT NULL,
+    operation VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    response_type VARCHAR(255),
+    response TEXT,
+    created_dt TIMESTAMP NOT NULL,
+    completed_dt TIMESTAMP,
+    UNIQUE (user_id, operation, idempotency_key)
+    );
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_created_idx ON idempotency_keys (created_dt);
@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingChangesTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void longPollReturnsBookingApprovedAfterCursor() throws Exception {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long itemId = id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Лодка\",\"description\":\"Надувная лодка\",\"available\":true}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		long bookingId = id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+								itemId, start, start.plusDays(1))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+
+		MvcResult head = mvc.perform(get("/bookings/changes").header(USER_HEADER, bookerId))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		long cursor = ((Number) JsonPath.read(mvc.perform(asyncDispatch(head))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.bookings.length()").value(0))
+				.andReturn().getResponse().getContentAsString(), "$.cursor")).longValue();
+
+		MvcResult poll = mvc.perform(get("/bookings/changes").header(USER_HEADER, bookerId)
+						.param("since", String.valueOf(cursor))
+						.param("timeout", "10"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(patch("/bookings/{id}", bookingId).param("approved", "true").header(USER_HEADER, ownerId))
+				.andExpect(status().isOk());
+
+		String changes = mvc.perform(asyncDispatch(poll))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.bookings.length()").value(1))
+				.andExpect(jsonPath("$.bookings[0].id").value(bookingId))
+				.andExpect(jsonPath("$.bookings[0].status").value("APPROVED"))
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(((Number) JsonPath.read(changes, "$.cursor")).longValue() > cursor);
+	}
+
+	@Test
+	void changeCommittedLaterIsNotSkippedByCursor() throws Exception {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long first = createBooking(ownerId, bookerId);
+		long second = createBooking(ownerId, bookerId);
+		long cursor = cursor(ownerId);
+		CountDownLatch approved = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// первое изменение сделано раньше второго, но его транзакция коммитится позже
+			Future<?> late = executor.submit(() -> new TransactionTemplate(transactionManager)
+					.executeWithoutResult(tx -> {
+						bookingService.approve(first, true, ownerId);
+						approved.countDown();
+						try {
+							assertTrue(release.await(10, TimeUnit.SECONDS));
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}));
+			assertTrue(approved.await(10, TimeUnit.SECONDS));
+			bookingService.approve(second, true, ownerId);
+
+			BookingChangesDto changes = bookingService.getChanges(ownerId, cursor, 10);
+			assertEquals(List.of(second), ids(changes));
+			release.countDown();
+			late.get();
+			assertEquals(List.of(first), ids(bookingService.getChanges(ownerId, changes.getCursor(), 10)));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<Long> ids(BookingChangesDto changes) {
+		return changes.getBookings().stream().map(BookingOutputDto::getId).toList();
+	}
+
+	private long cursor(long userId) throws Exception {
+		MvcResult head = mvc.perform(get("/bookings/changes").header(USER_HEADER, userId))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return ((Number) JsonPath.read(mvc.perform(asyncDispatch(head))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(), "$.cursor")).longValue();
+	}
+
+	private long createBooking(long ownerId, long bookerId) throws Exception {
+		long itemId = id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Весло\",\"description\":\"Весло для лодки\",\"available\":true}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		return id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+								itemId, start, start.plusDays(1))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@changes.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Changes\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.service.BookingEventStream;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "shareit.booking.stream.max-subscribers=" + BookingEventStreamTests.MAX_SUBSCRIBERS)
+class BookingEventStreamTests {
+	static final int MAX_SUBSCRIBERS = 3;
+	private static final int ATTEMPTS = 32;
+
+	@Autowired
+	private BookingEventStream bookingEventStream;
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void concurrentSubscriptionsDoNotExceedLimit() throws Exception {
+		UserDto user = new UserDto();
+		user.setName("Stream");
+		user.setEmail(UUID.randomUUID() + "@stream.test");
+		long userId = userService.saveUser(user).getId();
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> attempts = new ArrayList<>();
+			for (int i = 0; i < ATTEMPTS; i++) {
+				attempts.add(executor.submit(() -> {
+					start.await();
+					try {
+						bookingEventStream.subscribe(userId);
+						return true;
+					} catch (ConditionsNotMetException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+			int subscribed = 0;
+			for (Future<Boolean> attempt : attempts) {
+				subscribed += attempt.get() ? 1 : 0;
+			}
+			assertEquals(MAX_SUBSCRIBERS, subscribed);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
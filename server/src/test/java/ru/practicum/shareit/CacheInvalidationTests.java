@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.FieldSet;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Два экземпляра приложения на одной базе: изменение на одном вытесняет запись из локального кэша другого.
+ */
+class CacheInvalidationTests {
+	private static final String DATABASE = "jdbc:h2:mem:cache-invalidation;DB_CLOSE_DELAY=-1";
+
+	private static ConfigurableApplicationContext first;
+	private static ConfigurableApplicationContext second;
+
+	@BeforeAll
+	static void start() {
+		first = start("first");
+		second = start("second");
+	}
+
+	@AfterAll
+	static void stop() {
+		second.close();
+		first.close();
+	}
+
+	@Test
+	void updatedUserIsEvictedOnOtherInstance() throws InterruptedException {
+		UserDto user = new UserDto();
+		user.setName("Кэш");
+		user.setEmail(UUID.randomUUID() + "@cache.test");
+		long userId = first.getBean(UserService.class).saveUser(user).getId();
+		assertEquals("Кэш", second.getBean(UserService.class).getUser(userId).getName());
+
+		UserUpdateDto update = new UserUpdateDto();
+		update.setId(userId);
+		update.setName("Новое имя");
+		first.getBean(UserService.class).updateUser(update);
+
+		awaitEquals("Новое имя", () -> second.getBean(UserService.class).getUser(userId).getName());
+	}
+
+	@Test
+	void updatedItemIsEvictedOnOtherInstance() throws InterruptedException {
+		UserDto owner = new UserDto();
+		owner.setName("Владелец");
+		owner.setEmail(UUID.randomUUID() + "@cache.test");
+		long ownerId = first.getBean(UserService.class).saveUser(owner).getId();
+		ItemDto item = new ItemDto();
+		item.setName("Палатка");
+		item.setDescription("Двухместная палатка");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		long itemId = first.getBean(ItemService.class).saveItem(item).getId();
+		assertTrue(second.getBean(ItemService.class).getItem(itemId, ownerId, FieldSet.ALL).getAvailable());
+
+		ItemDto update = new ItemDto();
+		update.setId(itemId);
+		update.setOwner(ownerId);
+		update.setAvailable(false);
+		first.getBean(ItemService.class).updateItem(update);
+
+		awaitEquals(false, () -> second.getBean(ItemService.class).getItem(itemId, ownerId, FieldSet.ALL)
+				.getAvailable());
+	}
+
+	@Test
+	void approvalOnOneInstanceOccupiesCalendarOnOther() throws InterruptedException {
+		long ownerId = saveUser(first, "Владелец");
+		long bookerId = saveUser(first, "Арендатор");
+		ItemDto item = new ItemDto();
+		item.setName("Байдарка");
+		item.setDescription("Двухместная байдарка");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		long itemId = first.getBean(ItemService.class).saveItem(item).getId();
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		LocalDateTime end = start.plusDays(1);
+		Supplier<Boolean> occupied = () -> second.getBean(ItemService.class)
+				.getCalendar(itemId, bookerId, start, end).getSlots().getFirst().isOccupied();
+		assertFalse(occupied.get());
+
+		BookingDto booking = new BookingDto();
+		booking.setItemId(itemId);
+		booking.setStart(start);
+		booking.setEnd(end);
+		long bookingId = first.getBean(BookingService.class).save(booking, bookerId).getId();
+		first.getBean(BookingService.class).approve(bookingId, true, ownerId);
+
+		awaitEquals(true, occupied);
+	}
+
+	private static long saveUser(ConfigurableApplicationContext context, String name) {
+		UserDto user = new UserDto();
+		user.setName(name);
+		user.setEmail(UUID.randomUUID() + "@cache.test");
+		return context.getBean(UserService.class).saveUser(user).getId();
+	}
+
+	private static ConfigurableApplicationContext start(String name) {
+		return new SpringApplicationBuilder(ShareItApp.class)
+				// аргументы, а не properties(): умолчания проигрывают server.port из application.properties
+				.run("--server.port=0",
+						"--spring.application.name=shareit-" + name,
+						"--spring.datasource.url=" + DATABASE,
+						"--spring.jmx.enabled=false",
+						"--shareit.cache.poll-interval=PT0.1S",
+						"--shareit.cache.settle-window=PT0.5S");
+	}
+
+	private static <T> void awaitEquals(T expected, Supplier<T> actual) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!expected.equals(actual.get()) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(expected, actual.get());
+	}
+}
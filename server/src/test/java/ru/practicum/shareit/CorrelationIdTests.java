@@ -0,0 +1,51 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CorrelationIdTests {
+	private static final String HEADER = "X-Request-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void clientRequestIdIsKeptWhenSafe() throws Exception {
+		assertEquals("order-42_retry.1", requestId("order-42_retry.1"));
+	}
+
+	@Test
+	void unsafeRequestIdIsReplacedWithFreshOne() throws Exception {
+		for (String unsafe : new String[]{"a\nlevel=ERROR msg=forged", "id\"quote", "x y", "a".repeat(65), ""}) {
+			String returned = requestId(unsafe);
+			assertNotEquals(unsafe, returned);
+			// свежий идентификатор — UUID
+			assertEquals(returned, UUID.fromString(returned).toString());
+		}
+		assertTrue(requestId(null).length() > 0);
+	}
+
+	private String requestId(String sent) throws Exception {
+		MockHttpServletRequestBuilder request = get("/users");
+		if (sent != null) {
+			request.header(HEADER, sent);
+		}
+		return mvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HEADER);
+	}
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("in-memory")
+@AutoConfigureMockMvc
+class InMemoryStorageTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void updatedAndDeletedUsersAreSeenThroughStoredReferences() throws Exception {
+		String word = "Байдарка" + UUID.randomUUID().toString().substring(0, 8);
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long itemId = id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"%s\",\"description\":\"Двухместная\",\"available\":true}",
+								word)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		long bookingId = id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+								itemId, start, start.plusHours(1))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+
+		// обновление заменяет сохранённого пользователя новым объектом
+		mvc.perform(patch("/users/{id}", bookerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Новое имя\"}"))
+				.andExpect(status().isOk());
+		mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.booker.name").value("Новое имя"));
+
+		mvc.perform(patch("/users/{id}", ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Владелец\"}"))
+				.andExpect(status().isOk());
+		mvc.perform(get("/items/search").param("text", word))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1));
+
+		mvc.perform(delete("/users/{id}", ownerId)).andExpect(status().isOk());
+		mvc.perform(get("/items/search").param("text", word))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	private long createUser() throws Exception {
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"InMemory\",\"email\":\"%s@memory.test\"}",
+								UUID.randomUUID())))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
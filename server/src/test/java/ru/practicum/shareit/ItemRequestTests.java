@@ -0,0 +1,166 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemRequestTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private ItemRequestRepository itemRequestRepository;
+	@Autowired
+	private UserRepository userRepository;
+
+	private long requestorId;
+	private long ownerId;
+	private long viewerId;
+	private long first;
+	private long second;
+	private long third;
+	private long ladder;
+	private long drill;
+	private long hammerDrill;
+
+	// до замера бюджета: он считает каждый HTTP-запрос в теле теста
+	@BeforeEach
+	void createRequestsWithAnswers() throws Exception {
+		requestorId = createUser();
+		ownerId = createUser();
+		viewerId = createUser();
+		first = createRequest(requestorId, "Нужна стремянка");
+		second = createRequest(requestorId, "Нужен перфоратор");
+		third = createRequest(requestorId, "Нужна тачка");
+		ladder = createItem(ownerId, "Стремянка", first);
+		drill = createItem(ownerId, "Перфоратор", second);
+		hammerDrill = createItem(ownerId, "Перфоратор с набором бур", second);
+	}
+
+	@Test
+	@SqlStatementBudget(3)
+	void ownRequestsComeNewestFirstWithTheirAnswers() throws Exception {
+		// ответы на все три запроса — одним IN-запросом, в пределах бюджета
+		mvc.perform(get("/requests").header(USER_HEADER, requestorId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].id").value(third))
+				.andExpect(jsonPath("$[0].items.length()").value(0))
+				.andExpect(jsonPath("$[1].id").value(second))
+				.andExpect(jsonPath("$[1].items[*].id").value(containsInAnyOrder(
+						(int) drill, (int) hammerDrill)))
+				.andExpect(jsonPath("$[1].items[0].ownerId").value(ownerId))
+				.andExpect(jsonPath("$[2].id").value(first))
+				.andExpect(jsonPath("$[2].items[0].id").value(ladder))
+				.andExpect(jsonPath("$[2].items[0].name").value("Стремянка"));
+	}
+
+	@Test
+	@SqlStatementBudget(3)
+	void feedPagesThroughRequestsWithEqualCreated() throws Exception {
+		// одна и та же дата у всех: порядок и курсор держатся на id; дата позже любых других запросов в базе
+		LocalDateTime created = LocalDateTime.of(2100, 1, 1, 0, 0)
+				.plusSeconds(UUID.randomUUID().hashCode() & 0xFFFFF);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ItemRequest request = new ItemRequest();
+			request.setDescription("Запрос " + i);
+			request.setRequestor(userRepository.findById(requestorId).orElseThrow());
+			request.setCreated(created);
+			ids.add(itemRequestRepository.save(request).getId());
+		}
+
+		List<Long> feed = new ArrayList<>();
+		long beforeId = Long.MAX_VALUE;
+		while (feed.size() < ids.size()) {
+			String page = mvc.perform(get("/requests/all").header(USER_HEADER, viewerId)
+							.param("beforeCreated", created.toString())
+							.param("beforeId", String.valueOf(beforeId))
+							.param("size", "2"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(2))
+					.andReturn().getResponse().getContentAsString();
+			for (Number id : JsonPath.<List<Number>>read(page, "$[*].id")) {
+				if (feed.size() < ids.size()) {
+					feed.add(id.longValue());
+				}
+			}
+			beforeId = feed.getLast();
+		}
+
+		// ни пропусков, ни повторов на границах страниц
+		assertEquals(ids.reversed(), feed);
+		// свои запросы в ленту не попадают
+		mvc.perform(get("/requests/all").header(USER_HEADER, requestorId)
+						.param("beforeCreated", created.toString())
+						.param("beforeId", String.valueOf(Long.MAX_VALUE)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.id == %d)]", ids.getFirst()).isEmpty());
+	}
+
+	@Test
+	void cursorWithoutIdIsRejected() throws Exception {
+		mvc.perform(get("/requests/all").header(USER_HEADER, viewerId)
+						.param("beforeCreated", LocalDateTime.now().toString()))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.description").value("Курсор должен содержать и дату создания, и id запроса"));
+		mvc.perform(get("/requests/all").header(USER_HEADER, viewerId)
+						.param("beforeId", "10"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private long createRequest(long userId, String description) throws Exception {
+		return id(mvc.perform(post("/requests").header(USER_HEADER, userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"description\":\"%s\"}", description)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").isNotEmpty())
+				.andExpect(jsonPath("$.items.length()").value(0))
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createItem(long ownerId, String name, long requestId) throws Exception {
+		return id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"%s\",\"description\":\"По запросу\",\"available\":true,"
+								+ "\"requestId\":%d}", name, requestId)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@requests.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Requests\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
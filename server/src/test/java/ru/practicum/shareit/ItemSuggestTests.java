@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.items.suggest.top-k=2")
+@AutoConfigureMockMvc
+class ItemSuggestTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void itemsOfDeletedOwnerAreNotSuggested() throws Exception {
+		String prefix = "Подсказка" + UUID.randomUUID().toString().substring(0, 8);
+		long ownerId = createUser();
+		for (int i = 0; i < 3; i++) {
+			mvc.perform(post("/items").header(USER_HEADER, ownerId)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(String.format("{\"name\":\"%s %d\",\"description\":\"Вещь\",\"available\":true}",
+									prefix, i)))
+					.andExpect(status().isOk());
+		}
+		// limit больше top-k урезается до top-k
+		mvc.perform(get("/items/suggest").param("prefix", prefix).param("limit", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2));
+
+		mvc.perform(delete("/users/{id}", ownerId)).andExpect(status().isOk());
+
+		mvc.perform(get("/items/suggest").param("prefix", prefix))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	private long createUser() throws Exception {
+		String json = mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Suggest\",\"email\":\"%s@suggest.test\"}", UUID.randomUUID())))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.config.sql.JdbcBulkheadDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// размер пула не задан: bulkhead берёт размер пула Hikari по умолчанию
+@SpringBootTest(properties = "shareit.jdbc.bulkhead.enabled=true")
+class JdbcBulkheadTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void bulkheadDefaultsToHikariPoolSize() throws Exception {
+		assertTrue(dataSource.isWrapperFor(JdbcBulkheadDataSource.class));
+		JdbcBulkheadDataSource bulkhead = dataSource.unwrap(JdbcBulkheadDataSource.class);
+
+		assertEquals(1, new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class));
+		assertEquals(10, bulkhead.available());
+	}
+}
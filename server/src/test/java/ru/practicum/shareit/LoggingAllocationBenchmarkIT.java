@@ -0,0 +1,133 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.config.RequestLoggingProperties;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.FieldSet;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Байты, выделенные потоком на один вызов, при выключенном логировании (INFO, без выборки запросов)
+ * и при включённом (DEBUG для сервисов, каждый запрос в лог). MockMvc выполняет запрос в потоке теста,
+ * поэтому счётчик выделений потока покрывает весь путь от фильтров до сервиса. Проверка делается на горячих
+ * методах сервисов, где кроме логов почти ничего не выделяется; HTTP-запросы только попадают в отчёт.
+ * Кроме сравнения режимов выделения без логов ограничены сверху ({@code benchmark.max-bytes.*}),
+ * чтобы выключенный DEBUG не начал незаметно собирать аргументы сообщений.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoggingAllocationBenchmarkIT {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+	private static final String LOGGER = "ru.practicum.shareit";
+	private static final int ROUNDS = 3;
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private LoggingSystem loggingSystem;
+	@Autowired
+	private RequestLoggingProperties requestLogging;
+
+	@Test
+	void disabledLoggingAllocatesLess() throws Exception {
+		int warmup = Integer.getInteger("benchmark.warmup", 1000);
+		int requests = Integer.getInteger("benchmark.requests", 5000);
+		long maxUserBytes = Long.getLong("benchmark.max-bytes.get-user", 256);
+		long maxItemBytes = Long.getLong("benchmark.max-bytes.get-item", 120_000);
+		long userId = id(mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Alloc\",\"email\":\"%s@bench.test\"}", UUID.randomUUID())))
+				.andReturn().getResponse().getContentAsString());
+		long itemId = id(mvc.perform(post("/items").header(USER_HEADER, userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Alloc\",\"description\":\"Вещь для замера\",\"available\":true}"))
+				.andReturn().getResponse().getContentAsString());
+		RequestBuilder userRequest = get("/users/{id}", userId);
+		RequestBuilder itemRequest = get("/items/{id}", itemId).header(USER_HEADER, userId);
+		Call getUser = () -> userService.getUser(userId);
+		Call getItem = () -> itemService.getItem(itemId, userId, FieldSet.ALL);
+
+		double[] user = measure(getUser, warmup, requests);
+		double[] item = measure(getItem, warmup, requests);
+		double[] userHttp = measure(() -> mvc.perform(userRequest).andExpect(status().isOk()), warmup, requests);
+		double[] itemHttp = measure(() -> mvc.perform(itemRequest).andExpect(status().isOk()), warmup, requests);
+		logging(false);
+
+		Files.writeString(Path.of("target", "logging-allocation-benchmark.txt"), String.format(
+				"calls=%d%n"
+						+ "UserService.getUser.logging-off-bytes=%.0f%nUserService.getUser.logging-on-bytes=%.0f%n"
+						+ "ItemService.getItem.logging-off-bytes=%.0f%nItemService.getItem.logging-on-bytes=%.0f%n"
+						+ "GET-users-id.logging-off-bytes=%.0f%nGET-users-id.logging-on-bytes=%.0f%n"
+						+ "GET-items-id.logging-off-bytes=%.0f%nGET-items-id.logging-on-bytes=%.0f%n",
+				requests, user[0], user[1], item[0], item[1], userHttp[0], userHttp[1], itemHttp[0], itemHttp[1]));
+		assertTrue(user[0] < user[1], String.format("getUser: %.0f байт без логов, %.0f с логами", user[0], user[1]));
+		assertTrue(item[0] < item[1], String.format("getItem: %.0f байт без логов, %.0f с логами", item[0], item[1]));
+		assertTrue(user[0] <= maxUserBytes,
+				String.format("getUser без логов: %.0f байт на вызов, допустимо %d", user[0], maxUserBytes));
+		assertTrue(item[0] <= maxItemBytes,
+				String.format("getItem без логов: %.0f байт на вызов, допустимо %d", item[0], maxItemBytes));
+	}
+
+	// {без логов, с логами}: режимы чередуются несколько раундов, берётся минимум, чтобы снять шум прогрева и GC
+	private double[] measure(Call call, int warmup, int calls) throws Exception {
+		double[] result = {Double.MAX_VALUE, Double.MAX_VALUE};
+		for (int round = 0; round < ROUNDS; round++) {
+			for (int mode = 0; mode < 2; mode++) {
+				result[mode] = Math.min(result[mode], measure(call, mode == 1, warmup, calls));
+			}
+		}
+		return result;
+	}
+
+	private double measure(Call call, boolean logging, int warmup, int calls) throws Exception {
+		logging(logging);
+		for (int i = 0; i < warmup; i++) {
+			call.run();
+		}
+		long thread = Thread.currentThread().threadId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < calls; i++) {
+			call.run();
+		}
+		return (double) (threads.getThreadAllocatedBytes(thread) - before) / calls;
+	}
+
+	private void logging(boolean enabled) {
+		loggingSystem.setLogLevel(LOGGER, enabled ? LogLevel.DEBUG : LogLevel.INFO);
+		requestLogging.setSampleRate(enabled ? 1 : 0);
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+
+	@FunctionalInterface
+	private interface Call {
+		void run() throws Exception;
+	}
+}
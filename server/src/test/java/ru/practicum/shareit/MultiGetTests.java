@@ -0,0 +1,190 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.config.sql.SqlRequestStatistics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MultiGetTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+	private static final long ABSENT = Long.MAX_VALUE;
+
+	@Autowired
+	private MockMvc mvc;
+
+	private long ownerId;
+	private long bookerId;
+	private long strangerId;
+	private long deletedId;
+	private long drill;
+	private long saw;
+	private long ladder;
+	private long drillBooking;
+	private long sawBooking;
+	private long strangerBooking;
+
+	// до замера бюджета: он считает каждый HTTP-запрос в теле теста
+	@BeforeEach
+	void createItemsAndBookings() throws Exception {
+		ownerId = createUser("Owner");
+		bookerId = createUser("Booker");
+		strangerId = createUser("Stranger");
+		deletedId = createUser("Deleted");
+		mvc.perform(delete("/users/{id}", deletedId)).andExpect(status().isOk());
+		drill = createItem(ownerId, "Дрель");
+		saw = createItem(ownerId, "Пила");
+		ladder = createItem(ownerId, "Стремянка");
+		drillBooking = createApprovedBooking(drill, bookerId, 1);
+		sawBooking = createApprovedBooking(saw, bookerId, 2);
+		strangerBooking = createApprovedBooking(ladder, strangerId, 3);
+	}
+
+	@Test
+	@SqlStatementBudget(4)
+	void itemsComeInRequestOrderWithMissingIds() throws Exception {
+		RequestBuilder request = get("/items").header(USER_HEADER, ownerId)
+				.param("ids", String.valueOf(ladder), String.valueOf(ABSENT), String.valueOf(drill),
+						String.valueOf(ladder));
+
+		Map<String, Integer> executed = measure(request).getExecutions();
+
+		assertSingleInQuery(executed, "from items");
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[*].id").value(contains((int) ladder, (int) drill)))
+				.andExpect(jsonPath("$.results[1].nextBooking.id").value(drillBooking))
+				.andExpect(jsonPath("$.missing").value(contains(ABSENT)))
+				.andExpect(jsonPath("$.forbidden").value(empty()));
+	}
+
+	@Test
+	@SqlStatementBudget(1)
+	void usersComeInRequestOrderAndDeletedAreMissing() throws Exception {
+		RequestBuilder request = get("/users")
+				.param("ids", String.valueOf(strangerId), String.valueOf(deletedId), String.valueOf(ownerId));
+
+		Map<String, Integer> executed = measure(request).getExecutions();
+
+		assertSingleInQuery(executed, "from users");
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[*].id").value(contains((int) strangerId, (int) ownerId)))
+				.andExpect(jsonPath("$.missing").value(contains((int) deletedId)))
+				.andExpect(jsonPath("$.forbidden").value(empty()));
+	}
+
+	@Test
+	@SqlStatementBudget(2)
+	void bookingsOfOthersAreForbiddenNotFailing() throws Exception {
+		RequestBuilder request = get("/bookings").header(USER_HEADER, bookerId)
+				.param("ids", String.valueOf(sawBooking), String.valueOf(strangerBooking), String.valueOf(ABSENT),
+						String.valueOf(drillBooking));
+
+		Map<String, Integer> executed = measure(request).getExecutions();
+
+		assertSingleInQuery(executed, "from bookings");
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[*].id").value(contains((int) sawBooking, (int) drillBooking)))
+				.andExpect(jsonPath("$.results[0].item.name").value("Пила"))
+				.andExpect(jsonPath("$.forbidden").value(contains((int) strangerBooking)))
+				.andExpect(jsonPath("$.missing").value(contains(ABSENT)));
+		// владелец вещи видит бронирование постороннего
+		mvc.perform(get("/bookings").header(USER_HEADER, ownerId).param("ids", String.valueOf(strangerBooking)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.results[0].booker.id").value(strangerId))
+				.andExpect(jsonPath("$.forbidden").value(empty()));
+	}
+
+	@Test
+	void tooManyIdsAreRejected() throws Exception {
+		String[] ids = new String[101];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = String.valueOf(i + 1);
+		}
+		mvc.perform(get("/users").param("ids", ids))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.description").value(containsString("size must be between 1 and 100")));
+	}
+
+	private static void assertSingleInQuery(Map<String, Integer> executed, String table) {
+		List<Map.Entry<String, Integer>> reads = executed.entrySet().stream()
+				.filter(entry -> entry.getKey().contains(table))
+				.toList();
+		assertEquals(1, reads.size(), executed::toString);
+		assertEquals(1, reads.getFirst().getValue(), executed::toString);
+	}
+
+	private SqlRequestStatistics measure(RequestBuilder request) throws Exception {
+		List<SqlRequestStatistics> completed = new CopyOnWriteArrayList<>();
+		Consumer<SqlRequestStatistics> listener = completed::add;
+		SqlRequestStatistics.addListener(listener);
+		try {
+			mvc.perform(request).andExpect(status().isOk());
+		} finally {
+			SqlRequestStatistics.removeListener(listener);
+		}
+		return completed.getFirst();
+	}
+
+	private long createApprovedBooking(long itemId, long userId, int days) throws Exception {
+		LocalDateTime start = LocalDateTime.now().plusDays(days).withNano(0);
+		long bookingId = id(mvc.perform(post("/bookings").header(USER_HEADER, userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+								itemId, start, start.plusHours(12))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		mvc.perform(patch("/bookings/{id}", bookingId).param("approved", "true").header(USER_HEADER, ownerId))
+				.andExpect(status().isOk());
+		return bookingId;
+	}
+
+	private long createItem(long userId, String name) throws Exception {
+		return id(mvc.perform(post("/items").header(USER_HEADER, userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"%s\",\"description\":\"Пакетное чтение\","
+								+ "\"available\":true}", name)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createUser(String name) throws Exception {
+		String email = UUID.randomUUID() + "@multiget.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"%s\",\"email\":\"%s\"}", name, email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Время восстановления in-memory хранилища в зависимости от размера снапшота: профиль заполняется
+ * пользователями, останавливается (при остановке пишется снапшот) и поднимается заново.
+ */
+class RecoveryBenchmarkIT {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void recoveryTimeBySnapshotSize() throws Exception {
+		int[] sizes = Arrays.stream(System.getProperty("benchmark.recovery.sizes", "10000,50000,100000").split(","))
+				.map(String::trim)
+				.mapToInt(Integer::parseInt)
+				.toArray();
+		StringBuilder report = new StringBuilder();
+		for (int size : sizes) {
+			Path storage = Files.createDirectory(directory.resolve("storage-" + size));
+			try (ConfigurableApplicationContext context = start(storage)) {
+				UserService users = context.getBean(UserService.class);
+				for (int i = 0; i < size; i++) {
+					UserDto user = new UserDto();
+					user.setName("Recovery " + i);
+					user.setEmail("recovery-" + i + "@bench.test");
+					users.saveUser(user);
+				}
+			}
+			try (ConfigurableApplicationContext context = start(storage)) {
+				MeterRegistry registry = context.getBean(MeterRegistry.class);
+				long recoveryMs = (long) registry.get("shareit.in-memory.recovery").timer()
+						.totalTime(TimeUnit.MILLISECONDS);
+				long snapshotBytes = (long) registry.get("shareit.in-memory.snapshot.size").gauge().value();
+				assertEquals(size, context.getBean(UserService.class).getAllUsers().size());
+				report.append(String.format("users=%d snapshot-bytes=%d recovery-ms=%d%n",
+						size, snapshotBytes, recoveryMs));
+			}
+		}
+		Files.writeString(Path.of("target", "recovery-benchmark.txt"), report);
+	}
+
+	private static ConfigurableApplicationContext start(Path storage) {
+		return new SpringApplicationBuilder(ShareItApp.class)
+				.run("--spring.profiles.active=in-memory",
+						"--server.port=0",
+						"--shareit.in-memory.persistence.enabled=true",
+						"--shareit.in-memory.persistence.directory=" + storage,
+						"--shareit.in-memory.persistence.fsync=INTERVAL",
+						"--shareit.logging.requests.sample-rate=0");
+	}
+}
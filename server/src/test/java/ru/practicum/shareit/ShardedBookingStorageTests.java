@@ -0,0 +1,195 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"shareit.booking.sharding.enabled=true",
+		"shareit.booking.sharding.shards[0].url=" + ShardedBookingStorageTests.SHARD_0,
+		"shareit.booking.sharding.shards[1].url=" + ShardedBookingStorageTests.SHARD_1,
+		"shareit.booking.sharding.shards[2].url=" + ShardedBookingStorageTests.SHARD_2
+})
+@AutoConfigureMockMvc
+class ShardedBookingStorageTests {
+	static final String SHARD_0 = "jdbc:h2:mem:bookings-shard-0;DB_CLOSE_DELAY=-1";
+	static final String SHARD_1 = "jdbc:h2:mem:bookings-shard-1;DB_CLOSE_DELAY=-1";
+	static final String SHARD_2 = "jdbc:h2:mem:bookings-shard-2;DB_CLOSE_DELAY=-1";
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+	private static final int ITEMS = 12;
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void bookingsAreSpreadByItemAndMergedByStart() throws Exception {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long countBefore = shardCounts().stream().mapToLong(Long::longValue).sum();
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		List<Long> itemIds = new ArrayList<>();
+		List<Long> bookingIds = new ArrayList<>();
+		for (int i = 0; i < ITEMS; i++) {
+			long itemId = createItem(ownerId);
+			itemIds.add(itemId);
+			// чередуем даты, чтобы порядок по start не совпадал с порядком создания и шардами
+			LocalDateTime bookingStart = start.plusHours((i * 7L) % ITEMS);
+			bookingIds.add(id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+									itemId, bookingStart, bookingStart.plusHours(1))))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString()));
+		}
+
+		List<Long> counts = shardCounts();
+		assertEquals(countBefore + ITEMS, counts.stream().mapToLong(Long::longValue).sum());
+		assertTrue(counts.stream().filter(count -> count > 0).count() > 1, "Все бронирования попали в один шард");
+
+		for (String path : List.of("/bookings/owner", "/bookings")) {
+			long userId = path.equals("/bookings") ? bookerId : ownerId;
+			List<String> starts = JsonPath.read(mvc.perform(get(path).header(USER_HEADER, userId))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(ITEMS))
+					.andReturn().getResponse().getContentAsString(), "$[*].start");
+			List<String> expected = new ArrayList<>(starts);
+			expected.sort(Comparator.comparing(LocalDateTime::parse, Comparator.reverseOrder()));
+			assertEquals(expected, starts);
+		}
+
+		long bookingId = bookingIds.get(0);
+		mvc.perform(patch("/bookings/{id}", bookingId).param("approved", "true").header(USER_HEADER, ownerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("APPROVED"));
+		mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.item.id").value(itemIds.get(0)));
+		mvc.perform(get("/items/{id}", itemIds.get(0)).header(USER_HEADER, ownerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.nextBooking.id").value(bookingId));
+	}
+
+	@Test
+	void insertIsDeletedWhenMainTransactionRollsBack() throws Exception {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long itemId = createItem(ownerId);
+		long countBefore = shardCounts().stream().mapToLong(Long::longValue).sum();
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+		Long bookingId = new TransactionTemplate(transactionManager).execute(tx -> {
+			Booking booking = new Booking();
+			booking.setStart(start);
+			booking.setEnd(start.plusHours(1));
+			booking.setItem(itemRepository.getReferenceById(itemId));
+			booking.setBooker(userRepository.getReferenceById(bookerId));
+			booking.setStatus(BookingStatus.WAITING);
+			bookingRepository.save(booking);
+			tx.setRollbackOnly();
+			return booking.getId();
+		});
+
+		assertNotNull(bookingId);
+		assertEquals(countBefore, shardCounts().stream().mapToLong(Long::longValue).sum());
+		assertTrue(bookingRepository.findById(bookingId).isEmpty());
+	}
+
+	@Test
+	void updateAndStatusChangeAreRevertedWhenMainTransactionRollsBack() throws Exception {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long itemId = createItem(ownerId);
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		long bookingId = id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+								itemId, start, start.plusHours(1))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		transaction.executeWithoutResult(tx -> {
+			Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+			booking.setEnd(start.plusHours(5));
+			booking.setStatus(BookingStatus.APPROVED);
+			bookingRepository.save(booking);
+			tx.setRollbackOnly();
+		});
+		Booking restored = bookingRepository.findById(bookingId).orElseThrow();
+		assertEquals(BookingStatus.WAITING, restored.getStatus());
+		assertEquals(start.plusHours(1), restored.getEnd());
+
+		transaction.executeWithoutResult(tx -> {
+			assertEquals(List.of(bookingId), bookingRepository.updateStatus(List.of(bookingId),
+					BookingStatus.WAITING, BookingStatus.EXPIRED));
+			tx.setRollbackOnly();
+		});
+		assertEquals(BookingStatus.WAITING, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+		assertEquals(List.of(), bookingRepository.updateStatus(List.of(bookingId), BookingStatus.APPROVED,
+				BookingStatus.CANCELED));
+	}
+
+	private List<Long> shardCounts() {
+		return List.of(SHARD_0, SHARD_1, SHARD_2).stream()
+				.map(url -> new JdbcTemplate(new DriverManagerDataSource(url))
+						.queryForObject("SELECT COUNT(*) FROM bookings", Long.class))
+				.toList();
+	}
+
+	private long createItem(long ownerId) throws Exception {
+		return id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Палатка\",\"description\":\"Двухместная палатка\",\"available\":true}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@shards.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Shards\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Максимум SQL-запросов на каждый HTTP-запрос, выполненный в теле теста.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementBudgetExtension.class)
+@interface SqlStatementBudget {
+	int value();
+}
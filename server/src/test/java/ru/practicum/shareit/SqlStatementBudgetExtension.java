@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.practicum.shareit.config.sql.SqlRequestStatistics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SqlStatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+	private static final ExtensionContext.Namespace NAMESPACE =
+			ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		List<SqlRequestStatistics> completed = new CopyOnWriteArrayList<>();
+		Consumer<SqlRequestStatistics> listener = completed::add;
+		SqlRequestStatistics.addListener(listener);
+		context.getStore(NAMESPACE).put("listener", listener);
+		context.getStore(NAMESPACE).put("completed", completed);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterTestExecution(ExtensionContext context) {
+		SqlRequestStatistics.removeListener(context.getStore(NAMESPACE).remove("listener", Consumer.class));
+		List<SqlRequestStatistics> completed = context.getStore(NAMESPACE).remove("completed", List.class);
+		int budget = context.getRequiredTestMethod().getAnnotation(SqlStatementBudget.class).value();
+		assertTrue(!completed.isEmpty(), "Тест не выполнил ни одного HTTP-запроса");
+		for (SqlRequestStatistics statistics : completed) {
+			if (statistics.getStatements() > budget) {
+				fail(String.format("%s %s выполнил %d SQL-запросов при бюджете %d: %s", statistics.getMethod(),
+						statistics.getUri(), statistics.getStatements(), budget, statistics.getExecutions()));
+			}
+		}
+	}
+}
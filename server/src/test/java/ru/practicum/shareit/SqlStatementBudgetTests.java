@@ -0,0 +1,229 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.config.sql.SqlRequestStatistics;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+	private static final int ITEMS = 3;
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private UserRepository userRepository;
+
+	private long ownerId;
+	private long itemId;
+	private long bookerId;
+	private long bookingId;
+
+	@BeforeEach
+	void createItemsWithBookingsFromDistinctBookers() throws Exception {
+		ownerId = createUser();
+		itemId = seed(ITEMS);
+	}
+
+	@Test
+	@SqlStatementBudget(8)
+	void getItemByOwnerStaysWithinBudget() throws Exception {
+		mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlStatementBudget(8)
+	void getOwnerItemsStaysWithinBudget() throws Exception {
+		mvc.perform(get("/items").header(USER_HEADER, ownerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ITEMS));
+	}
+
+	@Test
+	@SqlStatementBudget(6)
+	void getOwnerBookingsStaysWithinBudget() throws Exception {
+		mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(ITEMS * 2));
+	}
+
+	@Test
+	@SqlStatementBudget(1)
+	void itemProjectionSkipsBookingsAndComments() throws Exception {
+		MockHttpServletRequestBuilder request = get("/items/{id}", itemId).header(USER_HEADER, ownerId)
+				.param("fields", "name,available");
+
+		Set<String> executed = measure(request).getExecutions().keySet();
+
+		assertTrue(executed.stream().noneMatch(sql -> sql.contains("from bookings") || sql.contains("from comments")),
+				executed::toString);
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Дрель"))
+				.andExpect(jsonPath("$.available").value(true))
+				.andExpect(jsonPath("$.lastBooking").doesNotExist())
+				.andExpect(jsonPath("$.comments").doesNotExist());
+	}
+
+	@Test
+	@SqlStatementBudget(2)
+	void bookingProjectionSkipsItemAndBooker() throws Exception {
+		MockHttpServletRequestBuilder request = get("/bookings/{id}", bookingId).header(USER_HEADER, ownerId)
+				.param("fields", "status");
+
+		Set<String> executed = measure(request).getExecutions().keySet();
+
+		// владелец для проверки прав берётся соединением, сама вещь и пользователи не загружаются
+		assertTrue(executed.stream().noneMatch(sql -> sql.contains("from items") || sql.contains("from users")),
+				executed::toString);
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("APPROVED"))
+				.andExpect(jsonPath("$.item").doesNotExist())
+				.andExpect(jsonPath("$.booker").doesNotExist());
+	}
+
+	@Test
+	void unknownFieldIsRejected() throws Exception {
+		mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId).param("fields", "name,colour"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.description").value(containsString("Неизвестное поле colour")));
+		mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, ownerId).param("fields", "status,price"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.description").value(containsString("Неизвестное поле price")));
+	}
+
+	@Test
+	void statementCountDoesNotGrowWithRows() throws Exception {
+		RequestBuilder[] requests = {
+				get("/items").header(USER_HEADER, ownerId),
+				get("/items/{id}", itemId).header(USER_HEADER, ownerId),
+				get("/bookings/owner").header(USER_HEADER, ownerId),
+				get("/bookings").header(USER_HEADER, bookerId)
+		};
+		int[] before = statements(requests);
+
+		seed(ITEMS * 2);
+		int[] after = statements(requests);
+
+		// втрое больше вещей, бронирований и арендаторов — столько же запросов: связанные строки грузятся пачкой
+		assertArrayEquals(before, after, String.format("До %s, после %s", Arrays.toString(before),
+				Arrays.toString(after)));
+	}
+
+	// второй прогон каждого запроса: первый может заполнить кэши пользователей и вещей
+	private int[] statements(RequestBuilder... requests) throws Exception {
+		int[] counts = new int[requests.length];
+		for (int i = 0; i < requests.length; i++) {
+			mvc.perform(requests[i]).andExpect(status().isOk());
+			counts[i] = measure(requests[i]).getStatements();
+		}
+		return counts;
+	}
+
+	private SqlRequestStatistics measure(RequestBuilder request) throws Exception {
+		List<SqlRequestStatistics> completed = new CopyOnWriteArrayList<>();
+		Consumer<SqlRequestStatistics> listener = completed::add;
+		SqlRequestStatistics.addListener(listener);
+		try {
+			mvc.perform(request).andExpect(status().isOk());
+		} finally {
+			SqlRequestStatistics.removeListener(listener);
+		}
+		return completed.getFirst();
+	}
+
+	/**
+	 * Вещи владельца, у каждой свой арендатор с подтверждённым будущим бронированием и прошедшим бронированием
+	 * с отзывом. Возвращает id первой вещи; первое будущее бронирование запоминается в {@code bookingId},
+	 * последний арендатор — в {@code bookerId}.
+	 */
+	private long seed(int items) throws Exception {
+		long first = 0;
+		for (int i = 0; i < items; i++) {
+			long item = id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"name\":\"Дрель\",\"description\":\"Ударная дрель\",\"available\":true}"))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			first = first == 0 ? item : first;
+			bookerId = createUser();
+			LocalDateTime start = LocalDateTime.now().plusDays(1 + i).withNano(0);
+			long booking = id(mvc.perform(post("/bookings").header(USER_HEADER, bookerId)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+									item, start, start.plusHours(12))))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			mvc.perform(patch("/bookings/{id}", booking).param("approved", "true").header(USER_HEADER, ownerId))
+					.andExpect(status().isOk());
+			bookingId = bookingId == 0 ? booking : bookingId;
+			createPastBooking(item, bookerId);
+			mvc.perform(post("/items/{id}/comment", item).header(USER_HEADER, bookerId)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"text\":\"Сверлит бетон\"}"))
+					.andExpect(status().isOk());
+		}
+		return first;
+	}
+
+	private void createPastBooking(long item, long booker) {
+		Booking booking = new Booking();
+		booking.setStart(LocalDateTime.now().minusDays(2));
+		booking.setEnd(LocalDateTime.now().minusDays(1));
+		booking.setItem(itemRepository.findById(item).orElseThrow());
+		booking.setBooker(userRepository.findById(booker).orElseThrow());
+		booking.setStatus(BookingStatus.APPROVED);
+		bookingRepository.save(booking);
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@budget.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Budget\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
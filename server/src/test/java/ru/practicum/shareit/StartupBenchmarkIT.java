@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Время от запуска процесса до первого успешного запроса для jar, распакованного профилем fast-startup:
+ * обычный запуск против запуска с CDS-архивом и Spring AOT. Каждый вариант запускается отдельным процессом
+ * несколько раз, в зачёт идёт лучший запуск.
+ */
+class StartupBenchmarkIT {
+	private static final long POLL_MILLIS = 10;
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void fastStartupReachesFirstSuccessfulRequestSooner() throws Exception {
+		long budget = Long.getLong("startup.budget.ms", 15000);
+		int runs = Integer.getInteger("benchmark.runs", 3);
+		Path directory = Path.of(System.getProperty("benchmark.app.dir", "target/application"));
+		String jar = System.getProperty("benchmark.app.jar", "shareit-server-0.0.1-SNAPSHOT.jar");
+		List<String> appArgs = split(System.getProperty("benchmark.app.args", ""));
+		assertTrue(Files.exists(directory.resolve(jar)) && Files.exists(directory.resolve("application.jsa")),
+				"Нет распакованного приложения и CDS-архива: запускайте вместе с профилем fast-startup");
+
+		long plain = best(directory, jar, List.of(), appArgs, runs);
+		long fast = best(directory, jar, List.of("-XX:SharedArchiveFile=application.jsa",
+				"-Dspring.aot.enabled=true"), appArgs, runs);
+
+		Files.writeString(Path.of("target", "startup-benchmark.txt"), String.format(
+				"runs=%d%nplain.time-to-first-successful-request-ms=%d%n"
+						+ "fast.time-to-first-successful-request-ms=%d%nbudget-ms=%d%n", runs, plain, fast, budget));
+		assertTrue(fast <= budget,
+				String.format("Первый успешный запрос через %d мс, бюджет %d мс", fast, budget));
+		assertTrue(fast < plain,
+				String.format("С CDS и AOT первый запрос через %d мс, без них через %d мс", fast, plain));
+	}
+
+	private long best(Path directory, String jar, List<String> jvmArgs, List<String> appArgs, int runs)
+			throws Exception {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < runs; i++) {
+			best = Math.min(best, timeToFirstRequest(directory, jar, jvmArgs, appArgs));
+		}
+		return best;
+	}
+
+	private long timeToFirstRequest(Path directory, String jar, List<String> jvmArgs, List<String> appArgs)
+			throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(ProcessHandle.current().info().command().orElse("java"));
+		command.addAll(jvmArgs);
+		command.addAll(appArgs);
+		command.add("-Dserver.port=" + port);
+		command.add("-jar");
+		command.add(jar);
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+				.timeout(Duration.ofSeconds(1))
+				.build();
+
+		long started = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+				.directory(directory.toFile())
+				.redirectErrorStream(true)
+				.redirectOutput(Path.of("target", "startup-benchmark.log").toFile())
+				.start();
+		try {
+			long deadline = started + TimeUnit.SECONDS.toNanos(120);
+			while (System.nanoTime() < deadline) {
+				assertTrue(process.isAlive(), "Приложение завершилось до первого запроса, см. startup-benchmark.log");
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+					}
+				} catch (IOException e) {
+					// порт ещё не открыт
+				}
+				Thread.sleep(POLL_MILLIS);
+			}
+			throw new AssertionError("Приложение не ответило за 120 с");
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static List<String> split(String args) {
+		return Arrays.stream(args.trim().split("\\s+")).filter(arg -> !arg.isEmpty()).toList();
+	}
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.service.ItemPopularity;
+import ru.practicum.shareit.user.dao.UserDeletionRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserDeletionWorker;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// плановый проход отключён: очистку запускает сам тест
+@SpringBootTest(properties = "shareit.users.deletion.interval=PT1H")
+@AutoConfigureMockMvc
+class UserDeletionTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private UserDeletionWorker worker;
+	@Autowired
+	private UserDeletionRepository deletionRepository;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ItemPopularity itemPopularity;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void deletedUserIsMarkedThenCleanedUpWithDerivedState() throws Exception {
+		long ownerId = createUser();
+		long userId = createUser();
+		long foreignItem = createItem(ownerId);
+		long ownItem = createItem(userId);
+		long bookingId = createPastBooking(foreignItem, userId);
+		bookingService.approve(bookingId, true, ownerId);
+		mvc.perform(post("/items/{id}/comment", foreignItem).header(USER_HEADER, userId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"text\":\"Отличная вещь\"}"))
+				.andExpect(status().isOk());
+		assertEquals(1.5, itemPopularity.score(foreignItem));
+		long cursor = bookingService.getChanges(ownerId, null, 10).getCursor();
+
+		mvc.perform(delete("/users/{id}", userId))
+				.andExpect(status().isOk());
+		mvc.perform(get("/users/{id}/deletion", userId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("PENDING"))
+				.andExpect(jsonPath("$.itemsDeleted").value(0));
+
+		// пока строку держит другой экземпляр, проход её пропускает
+		LocalDateTime now = LocalDateTime.now();
+		assertEquals(1, deletionRepository.claim(userId, "other", now.plusMinutes(5), now));
+		worker.cleanUpDeletedUsers();
+		mvc.perform(get("/users/{id}/deletion", userId))
+				.andExpect(jsonPath("$.status").value("RUNNING"));
+		assertEquals(0, deletionRepository.claim(userId, "another", now.plusMinutes(5), now));
+		assertEquals(1, deletionRepository.release(userId, "other"));
+
+		worker.cleanUpDeletedUsers();
+
+		mvc.perform(get("/users/{id}/deletion", userId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("DONE"))
+				.andExpect(jsonPath("$.itemsDeleted").value(1))
+				.andExpect(jsonPath("$.bookingsDeleted").value(1))
+				.andExpect(jsonPath("$.commentsDeleted").value(1));
+		mvc.perform(get("/items/{id}", ownItem).header(USER_HEADER, ownerId))
+				.andExpect(status().isNotFound());
+		// популярность и лента изменений видят удаление без перезагрузки
+		assertEquals(0.0, itemPopularity.score(foreignItem));
+		assertEquals(List.of(bookingId), bookingService.getChanges(ownerId, cursor, 10).getDeleted());
+	}
+
+	private long createPastBooking(long itemId, long bookerId) {
+		Booking booking = new Booking();
+		booking.setStart(LocalDateTime.now().minusDays(2));
+		booking.setEnd(LocalDateTime.now().minusDays(1));
+		booking.setItem(itemRepository.findById(itemId).orElseThrow());
+		booking.setBooker(userRepository.findById(bookerId).orElseThrow());
+		booking.setStatus(BookingStatus.WAITING);
+		return bookingRepository.save(booking).getId();
+	}
+
+	private long createItem(long ownerId) throws Exception {
+		return id(mvc.perform(post("/items").header(USER_HEADER, ownerId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Палатка\",\"description\":\"Палатка на двоих\",\"available\":true}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@deletion.test";
+		return id(mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Deletion\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static long id(String json) {
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+}
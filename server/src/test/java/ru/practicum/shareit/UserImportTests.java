@@ -0,0 +1,44 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserImportTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void csvHeaderIsSkippedOnlyWhenItIsExactlyTheHeader() throws Exception {
+		String suffix = UUID.randomUUID().toString();
+		String withHeader = "email,name\nfirst-" + suffix + "@import.test,Первый\n";
+		String withoutHeader = "emailbox-" + suffix + "@import.test,Иван\nsecond-" + suffix + "@import.test,Второй\n";
+
+		String[] skipped = importCsv(withHeader);
+		assertEquals(1, skipped.length);
+		assertTrue(skipped[0].contains("\"row\":2") && skipped[0].contains("CREATED"), skipped[0]);
+
+		String[] kept = importCsv(withoutHeader);
+		assertEquals(2, kept.length);
+		assertTrue(kept[0].contains("\"row\":1") && kept[0].contains("emailbox-" + suffix), kept[0]);
+		assertTrue(kept[0].contains("CREATED"), kept[0]);
+	}
+
+	private String[] importCsv(String csv) throws Exception {
+		return mvc.perform(post("/users/import").contentType("text/csv").content(csv))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString().split("\n");
+	}
+}
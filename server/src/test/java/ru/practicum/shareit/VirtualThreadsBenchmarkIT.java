@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузка на /items/search и /bookings/owner при одинаковом числе потоков Tomcat: сначала пул
+ * платформенных потоков, затем виртуальные потоки с bulkhead перед пулом соединений.
+ */
+class VirtualThreadsBenchmarkIT {
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final int ITEMS = 20;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void virtualThreadsImproveThroughput() throws Exception {
+		int concurrency = Integer.getInteger("benchmark.concurrency", 500);
+		int requests = Integer.getInteger("benchmark.requests", 20000);
+		int tomcatThreads = Integer.getInteger("benchmark.tomcat.threads", 50);
+		double minSpeedup = Double.parseDouble(System.getProperty("benchmark.min-speedup", "1.0"));
+
+		double[] platform = measure(false, tomcatThreads, concurrency, requests);
+		double[] virtual = measure(true, tomcatThreads, concurrency, requests);
+
+		Files.writeString(Path.of("target", "virtual-threads-benchmark.txt"), String.format(
+				"concurrency=%d%nrequests=%d%ntomcat-threads=%d%n"
+						+ "platform.search-rps=%.1f%nplatform.owner-bookings-rps=%.1f%n"
+						+ "virtual.search-rps=%.1f%nvirtual.owner-bookings-rps=%.1f%n",
+				concurrency, requests, tomcatThreads, platform[0], platform[1], virtual[0], virtual[1]));
+		assertTrue(virtual[0] >= platform[0] * minSpeedup,
+				String.format("/items/search: %.1f rps на виртуальных потоках против %.1f", virtual[0], platform[0]));
+		assertTrue(virtual[1] >= platform[1] * minSpeedup,
+				String.format("/bookings/owner: %.1f rps на виртуальных потоках против %.1f", virtual[1], platform[1]));
+	}
+
+	private double[] measure(boolean virtualThreads, int tomcatThreads, int concurrency, int requests)
+			throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+				// аргументы, а не properties(): умолчания проигрывают server.port из application.properties
+				.run("--server.port=0",
+						"--spring.threads.virtual.enabled=" + virtualThreads,
+						"--server.tomcat.threads.max=" + tomcatThreads,
+						"--shareit.logging.requests.sample-rate=0",
+						"--shareit.workload.enabled=false")) {
+			String baseUrl = "http://localhost:"
+					+ context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			long ownerId = seed(baseUrl);
+			HttpRequest search = HttpRequest.newBuilder(URI.create(baseUrl + "/items/search?text=benchmark")).build();
+			HttpRequest ownerBookings = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/owner"))
+					.header("X-Sharer-User-Id", String.valueOf(ownerId))
+					.build();
+			throughput(search, concurrency, requests / 10);
+			throughput(ownerBookings, concurrency, requests / 10);
+			return new double[]{throughput(search, concurrency, requests),
+					throughput(ownerBookings, concurrency, requests)};
+		}
+	}
+
+	private long seed(String baseUrl) throws Exception {
+		long ownerId = createUser(baseUrl);
+		long bookerId = createUser(baseUrl);
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		for (int i = 0; i < ITEMS; i++) {
+			long itemId = id(post(baseUrl + "/items", ownerId, String.format(
+					"{\"name\":\"Benchmark %d\",\"description\":\"Вещь для нагрузки\",\"available\":true}", i)));
+			post(baseUrl + "/bookings", bookerId, String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+					itemId, start, start.plusDays(1)));
+		}
+		return ownerId;
+	}
+
+	// клиент на виртуальных потоках, чтобы узким местом был сервер, а не генератор нагрузки
+	private double throughput(HttpRequest request, int concurrency, int requests) throws Exception {
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		long started = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> workers = new ArrayList<>(concurrency);
+			for (int w = 0; w < concurrency; w++) {
+				workers.add(executor.submit(() -> {
+					while (next.getAndIncrement() < requests) {
+						try {
+							if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		double seconds = (System.nanoTime() - started) / 1e9;
+		assertEquals(0, errors.get(), "Ошибки под нагрузкой: " + request.uri());
+		return requests / seconds;
+	}
+
+	private long createUser(String baseUrl) throws Exception {
+		return id(post(baseUrl + "/users", null,
+				String.format("{\"name\":\"Bench\",\"email\":\"%s@bench.test\"}", UUID.randomUUID())));
+	}
+
+	private String post(String url, Long userId, String body) throws Exception {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+		if (userId != null) {
+			builder.header("X-Sharer-User-Id", String.valueOf(userId));
+		}
+		HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		return response.body();
+	}
+
+	private static long id(String json) {
+		Matcher matcher = ID.matcher(json);
+		if (!matcher.find()) {
+			throw new IllegalStateException("В ответе нет id: " + json);
+		}
+		return Long.parseLong(matcher.group(1));
+	}
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.config.workload.Workload;
+import ru.practicum.shareit.config.workload.WorkloadGroup;
+
+import java.sql.SQLTimeoutException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// в группе поиска одно место: его занимает тестовый эндпоинт той же группы
+@SpringBootTest(properties = {"shareit.workload.groups.search.concurrency=1",
+		"shareit.workload.groups.search.max-wait=50ms"})
+@AutoConfigureMockMvc
+@Import(WorkloadTests.Endpoints.class)
+class WorkloadTests {
+	private static final String USER_HEADER = "X-Sharer-User-Id";
+	private static final CountDownLatch ENTERED = new CountDownLatch(1);
+	private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void fullSearchGroupIsRejectedWhileCheapRequestsPass() throws Exception {
+		long userId = createUser();
+		CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+			try {
+				mvc.perform(get("/test/workload/held-search")).andExpect(status().isOk());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		try {
+			assertTrue(ENTERED.await(10, TimeUnit.SECONDS), "Тестовый эндпоинт не занял место в группе");
+
+			mvc.perform(get("/items/search").param("text", "дрель"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(jsonPath("$.error").value("Сервис перегружен"));
+			// эндпоинты без группы и другие группы лимит поиска не задевает
+			mvc.perform(get("/users/{id}", userId))
+					.andExpect(status().isOk());
+			mvc.perform(get("/bookings").header(USER_HEADER, userId))
+					.andExpect(status().isOk());
+		} finally {
+			RELEASE.countDown();
+		}
+		held.get(10, TimeUnit.SECONDS);
+
+		// место освободилось
+		mvc.perform(get("/items/search").param("text", "дрель"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void statementIsCancelledAtDeadline() {
+		long started = System.nanoTime();
+		ServletException e = assertThrows(ServletException.class,
+				() -> mvc.perform(get("/test/workload/slow-query")));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+		// запрос отменила сама БД по таймауту statement'а, а не клиент, переставший ждать
+		QueryTimeoutException timeout = assertInstanceOf(QueryTimeoutException.class, e.getCause());
+		assertInstanceOf(SQLTimeoutException.class, timeout.getCause());
+		assertTrue(elapsedMillis < 5000, String.format("Запрос отменён через %d мс при сроке 1 с", elapsedMillis));
+	}
+
+	private long createUser() throws Exception {
+		String email = UUID.randomUUID() + "@workload.test";
+		String json = mvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(String.format("{\"name\":\"Workload\",\"email\":\"%s\"}", email)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(json, "$.id")).longValue();
+	}
+
+	@RestController
+	static class Endpoints {
+		private final JdbcTemplate jdbcTemplate;
+
+		Endpoints(JdbcTemplate jdbcTemplate) {
+			this.jdbcTemplate = jdbcTemplate;
+		}
+
+		@GetMapping("/test/workload/held-search")
+		@Workload(WorkloadGroup.SEARCH)
+		public String heldSearch() throws InterruptedException {
+			ENTERED.countDown();
+			RELEASE.await(10, TimeUnit.SECONDS);
+			return "ok";
+		}
+
+		// перебор без индекса на десятки минут: заканчивается только отменой
+		@GetMapping("/test/workload/slow-query")
+		@Workload(value = WorkloadGroup.BOOKING_LISTING, deadline = "1s")
+		public Long slowQuery() {
+			return jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000000000) WHERE MOD(X, 7) = 3", Long.class);
+		}
+	}
+}
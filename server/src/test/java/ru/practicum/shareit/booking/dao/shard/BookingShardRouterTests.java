@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.dao.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.config.sql.JdbcBulkheadProperties;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingShardRouterTests {
+
+	@Test
+	void refusesToStartWhenShardSetChangesWithBookingsStored() {
+		List<String> urls = urls(3);
+		router(urls.subList(0, 2)).destroy();
+		new JdbcTemplate(new DriverManagerDataSource(urls.get(0))).update("INSERT INTO bookings " +
+				"(start_dt, end_dt, item_id, owner_id, booker_id, status) " +
+				"VALUES (CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 1, 1, 'WAITING')");
+
+		// прежний состав запускается, добавленный шард и перепутанные адреса — нет
+		router(urls.subList(0, 2)).destroy();
+		assertThrows(IllegalStateException.class, () -> router(urls));
+		assertThrows(IllegalStateException.class, () -> router(List.of(urls.get(1), urls.get(0))));
+	}
+
+	@Test
+	void emptyShardsAcceptNewShardSet() {
+		List<String> urls = urls(3);
+		router(urls.subList(0, 2)).destroy();
+
+		BookingShardRouter router = router(urls);
+		try {
+			assertEquals(3, router.shards().size());
+		} finally {
+			router.destroy();
+		}
+		router(urls).destroy();
+	}
+
+	private static BookingShardRouter router(List<String> urls) {
+		return new BookingShardRouter(properties(urls), new JdbcBulkheadProperties());
+	}
+
+	private static List<String> urls(int count) {
+		String prefix = "jdbc:h2:mem:router-" + UUID.randomUUID() + "-";
+		return IntStream.range(0, count)
+				.mapToObj(i -> prefix + i + ";DB_CLOSE_DELAY=-1")
+				.toList();
+	}
+
+	private static BookingShardingProperties properties(List<String> urls) {
+		BookingShardingProperties properties = new BookingShardingProperties();
+		properties.setEnabled(true);
+		for (String url : urls) {
+			BookingShardingProperties.Shard shard = new BookingShardingProperties.Shard();
+			shard.setUrl(url);
+			shard.setMaximumPoolSize(2);
+			properties.getShards().add(shard);
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"shareit.booking.expiry.chunk-size=2",
+		"shareit.booking.expiry.grace-period=PT1H",
+		"shareit.booking.expiry.interval=PT1H"
+})
+class BookingExpiryJobTests {
+	private static final int STALE = 5;
+
+	@Autowired
+	private BookingExpiryJob expiryJob;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void expiresStaleWaitingBookingsInChunksOnce() {
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long itemId = createItem(ownerId);
+		LocalDateTime now = LocalDateTime.now();
+		// пачка по 2, поэтому 5 просроченных бронирований проходят по трём страницам ключа
+		List<Long> stale = new ArrayList<>();
+		for (int i = 0; i < STALE; i++) {
+			stale.add(createBooking(itemId, bookerId, now.minusHours(2).minusMinutes(i), BookingStatus.WAITING));
+		}
+		long withinGrace = createBooking(itemId, bookerId, now.minusMinutes(30), BookingStatus.WAITING);
+		long approved = createBooking(itemId, bookerId, now.minusHours(3), BookingStatus.APPROVED);
+		long cursor = bookingService.getChanges(bookerId, null, 1).getCursor();
+		double counted = expiredCount();
+
+		int expired = expiryJob.expire();
+
+		assertTrue(expired >= STALE);
+		assertEquals(expired, expiredCount() - counted);
+		stale.forEach(id -> assertEquals(BookingStatus.EXPIRED, status(id)));
+		assertEquals(BookingStatus.WAITING, status(withinGrace));
+		assertEquals(BookingStatus.APPROVED, status(approved));
+		// лаг считается до прохода: самое старое бронирование ждало истечения больше часа
+		assertTrue(meterRegistry.get("shareit.bookings.expiry.lag").gauge().value() >= 3_500);
+
+		List<Long> changed = bookingService.getChanges(bookerId, cursor, 100).getBookings().stream()
+				.map(BookingOutputDto::getId)
+				.sorted()
+				.toList();
+		assertEquals(stale.stream().sorted().toList(), changed);
+
+		// повторный проход и повторное истечение тех же id ничего не меняют и не пишут в журнал
+		expiryJob.expire();
+		assertEquals(0, bookingService.expire(stale));
+		assertEquals(0.0, meterRegistry.get("shareit.bookings.expiry.lag").gauge().value());
+		assertEquals(List.of(), bookingService.getChanges(bookerId,
+				bookingService.getChanges(bookerId, cursor, 100).getCursor(), 100).getBookings());
+	}
+
+	private double expiredCount() {
+		return meterRegistry.get("shareit.bookings.expired").counter().count();
+	}
+
+	private BookingStatus status(long bookingId) {
+		return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+	}
+
+	private long createBooking(long itemId, long bookerId, LocalDateTime start, BookingStatus status) {
+		Booking booking = new Booking();
+		booking.setStart(start);
+		booking.setEnd(start.plusHours(1));
+		booking.setItem(itemRepository.findById(itemId).orElseThrow());
+		booking.setBooker(userRepository.findById(bookerId).orElseThrow());
+		booking.setStatus(status);
+		return bookingRepository.save(booking).getId();
+	}
+
+	private long createItem(long ownerId) {
+		ItemDto item = new ItemDto();
+		item.setName("Палатка");
+		item.setDescription("Палатка на двоих");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		return itemService.saveItem(item).getId();
+	}
+
+	private long createUser() {
+		UserDto user = new UserDto();
+		user.setName("Expiry");
+		user.setEmail(UUID.randomUUID() + "@expiry.test");
+		return userService.saveUser(user).getId();
+	}
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemCalendarTests {
+
+	@Test
+	void disjointIntervalsStaySortedAndSeparate() {
+		long[] intervals = ItemCalendar.insert(new long[0], 30, 40);
+		intervals = ItemCalendar.insert(intervals, 0, 5);
+		intervals = ItemCalendar.insert(intervals, 10, 20);
+
+		assertArrayEquals(new long[]{0, 5, 10, 20, 30, 40}, intervals);
+	}
+
+	@Test
+	void overlappingAndAdjacentIntervalsAreMerged() {
+		long[] intervals = {10, 20, 30, 40};
+
+		assertArrayEquals(new long[]{10, 25, 30, 40}, ItemCalendar.insert(intervals, 15, 25));
+		// [start, end): конец одного совпадает с началом другого — занятость без разрыва
+		assertArrayEquals(new long[]{5, 20, 30, 40}, ItemCalendar.insert(intervals, 5, 10));
+		assertArrayEquals(new long[]{10, 20, 30, 45}, ItemCalendar.insert(intervals, 40, 45));
+		assertArrayEquals(new long[]{10, 40}, ItemCalendar.insert(intervals, 20, 30));
+		assertArrayEquals(new long[]{10, 40}, ItemCalendar.insert(intervals, 18, 32));
+		// исходный массив не меняется: он может лежать в кэше
+		assertArrayEquals(new long[]{10, 20, 30, 40}, intervals);
+	}
+
+	@Test
+	void containedAndContainingIntervals() {
+		long[] intervals = {10, 20, 30, 40};
+
+		assertArrayEquals(new long[]{10, 20, 30, 40}, ItemCalendar.insert(intervals, 12, 18));
+		assertArrayEquals(new long[]{10, 20, 30, 40}, ItemCalendar.insert(intervals, 30, 40));
+		assertArrayEquals(new long[]{5, 50}, ItemCalendar.insert(intervals, 5, 50));
+		assertArrayEquals(new long[]{10, 20, 25, 45}, ItemCalendar.insert(intervals, 25, 45));
+	}
+
+	@Test
+	void emptyIntervalIsIgnored() {
+		long[] intervals = {10, 20};
+
+		assertSame(intervals, ItemCalendar.insert(intervals, 15, 15));
+		assertSame(intervals, ItemCalendar.insert(intervals, 30, 25));
+	}
+
+	@Test
+	void firstEndingAfterSkipsIntervalsEndingAtOrBefore() {
+		long[] intervals = {10, 20, 30, 40};
+
+		assertEquals(0, ItemCalendar.firstEndingAfter(intervals, 5));
+		assertEquals(0, ItemCalendar.firstEndingAfter(intervals, 19));
+		assertEquals(2, ItemCalendar.firstEndingAfter(intervals, 20));
+		assertEquals(2, ItemCalendar.firstEndingAfter(intervals, 25));
+		assertEquals(4, ItemCalendar.firstEndingAfter(intervals, 40));
+		assertEquals(0, ItemCalendar.firstEndingAfter(new long[0], 40));
+	}
+
+	@Test
+	void slotsAreClippedToRange() {
+		long[] intervals = {10, 20, 30, 40};
+
+		assertEquals(List.of("15-20 занято", "20-30 свободно", "30-35 занято"),
+				describe(ItemCalendar.slots(intervals, 15, 35)));
+		assertEquals(List.of("0-10 свободно", "10-20 занято", "20-30 свободно", "30-40 занято", "40-50 свободно"),
+				describe(ItemCalendar.slots(intervals, 0, 50)));
+		assertEquals(List.of("12-18 занято"), describe(ItemCalendar.slots(intervals, 12, 18)));
+		assertEquals(List.of("20-30 свободно"), describe(ItemCalendar.slots(intervals, 20, 30)));
+		assertEquals(List.of("45-60 свободно"), describe(ItemCalendar.slots(intervals, 45, 60)));
+		assertEquals(List.of("0-10 свободно"), describe(ItemCalendar.slots(new long[0], 0, 10)));
+	}
+
+	private static List<String> describe(List<ItemCalendarDto.Slot> slots) {
+		return slots.stream()
+				.map(slot -> slot.getStart().toEpochSecond(ZoneOffset.UTC) + "-"
+						+ slot.getEnd().toEpochSecond(ZoneOffset.UTC) + (slot.isOccupied() ? " занято" : " свободно"))
+				.toList();
+	}
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemNameTrieTests {
+	private static final int TOP_K = 3;
+
+	@Test
+	void splitsEdgeOnPartialMatch() {
+		ItemNameTrie trie = new ItemNameTrie(TOP_K);
+		trie.index(1, "Палатка", true);
+		trie.index(2, "Палас", true);
+
+		assertEquals(List.of("Палас", "Палатка"), texts(trie.suggest("пала", 10)));
+		assertEquals(List.of("Палатка"), texts(trie.suggest("палат", 10)));
+		assertEquals(List.of("Палас"), texts(trie.suggest("палас", 10)));
+		// префикс расходится с серединой ребра
+		assertEquals(List.of(), texts(trie.suggest("палы", 10)));
+	}
+
+	@Test
+	void mergesAndPrunesNodesOnRemove() {
+		ItemNameTrie trie = new ItemNameTrie(TOP_K);
+		trie.index(1, "abc", true);
+		trie.index(2, "abd", true);
+		trie.index(3, "ab", true);
+
+		trie.index(2, "abd", false);
+		assertEquals(List.of("ab", "abc"), texts(trie.suggest("a", 10)));
+		assertEquals(List.of("abc"), texts(trie.suggest("abc", 10)));
+		assertEquals(List.of(), texts(trie.suggest("abd", 10)));
+
+		trie.index(3, "ab", false);
+		assertEquals(List.of("abc"), texts(trie.suggest("ab", 10)));
+
+		trie.index(1, "abc", false);
+		assertEquals(List.of(), texts(trie.suggest("a", 10)));
+		assertEquals(0, trie.size());
+	}
+
+	@Test
+	void renamedItemMovesToNewName() {
+		ItemNameTrie trie = new ItemNameTrie(TOP_K);
+		trie.index(1, "Дрель", true);
+		trie.index(1, "Дрель ударная", true);
+
+		assertEquals(List.of("Дрель ударная"), texts(trie.suggest("дрель", 10)));
+		assertEquals(1, trie.size());
+	}
+
+	@Test
+	void ranksByCountCaseInsensitively() {
+		ItemNameTrie trie = new ItemNameTrie(TOP_K);
+		trie.index(1, "Лодка", true);
+		trie.index(2, "лодка", true);
+		trie.index(3, "Лодка", true);
+		trie.index(4, "Лопата", true);
+
+		List<ItemNameTrie.Completion> suggestions = trie.suggest("ЛО", 10);
+		assertEquals(List.of("Лодка", "Лопата"), texts(suggestions));
+		assertEquals(3, suggestions.getFirst().count());
+		assertEquals(List.of("Лодка"), texts(trie.suggest("ло", 1)));
+	}
+
+	// случайные добавления, переименования и удаления сверяются с полным перебором
+	@Test
+	void matchesBruteForceUnderRandomUpdates() {
+		Random random = new Random(42);
+		String[] words = {"па", "лат", "ка", "с", "лодка", " ", "Дрель", "a", "ab", "b"};
+		ItemNameTrie trie = new ItemNameTrie(TOP_K);
+		Map<Long, String> model = new HashMap<>();
+		for (int step = 0; step < 20_000; step++) {
+			long itemId = random.nextInt(300);
+			if (random.nextInt(4) == 0) {
+				trie.index(itemId, null, false);
+				model.remove(itemId);
+			} else {
+				StringBuilder name = new StringBuilder();
+				for (int i = random.nextInt(3) + 1; i > 0; i--) {
+					name.append(words[random.nextInt(words.length)]);
+				}
+				String text = name.toString();
+				trie.index(itemId, text, true);
+				// пустое название убирает вещь из подсказок
+				if (text.isBlank()) {
+					model.remove(itemId);
+				} else {
+					model.put(itemId, text.strip());
+				}
+			}
+			if (step % 50 == 0) {
+				for (String prefix : List.of("п", "па", "пала", "ло", "д", "a", "ab", "b", "с")) {
+					assertEquals(bruteForce(model, prefix), keys(trie.suggest(prefix, TOP_K)), "префикс " + prefix);
+				}
+			}
+		}
+		assertEquals(model.size(), trie.size());
+	}
+
+	private static List<String> bruteForce(Map<Long, String> model, String prefix) {
+		Map<String, Integer> counts = new HashMap<>();
+		model.values().stream()
+				.map(name -> name.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+				.filter(key -> key.startsWith(prefix))
+				.forEach(key -> counts.merge(key, 1, Integer::sum));
+		List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+		entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+				.thenComparing(Map.Entry.comparingByKey()));
+		return entries.stream().limit(TOP_K).map(Map.Entry::getKey).toList();
+	}
+
+	private static List<String> texts(List<ItemNameTrie.Completion> completions) {
+		return completions.stream().map(ItemNameTrie.Completion::text).toList();
+	}
+
+	private static List<String> keys(List<ItemNameTrie.Completion> completions) {
+		return completions.stream().map(ItemNameTrie.Completion::key).toList();
+	}
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingChangedEvent;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.FieldSet;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemPopularityTests {
+
+	@Autowired
+	private ItemPopularity itemPopularity;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void topRanksByScoreThenById() {
+		// без базы: счётчики только из событий
+		ItemPopularity popularity = new ItemPopularity(null, null, new SearchRankingProperties(),
+				new SimpleMeterRegistry());
+		approve(popularity, 1);
+		approve(popularity, 1);
+		approve(popularity, 2);
+		comment(popularity, 2, 2);
+		comment(popularity, 3, 3);
+		comment(popularity, 5, 1);
+		// неподтверждённое бронирование популярности не добавляет
+		popularity.onBookingChanged(event(4, BookingStatus.WAITING));
+		List<Long> candidates = List.of(5L, 4L, 3L, 2L, 1L);
+
+		assertEquals(2.0, popularity.score(1));
+		assertEquals(2.0, popularity.score(2));
+		assertEquals(0.0, popularity.score(4));
+		// 1 и 2 равны — раньше меньший id
+		assertEquals(List.of(1L, 2L, 3L), popularity.top(candidates, Long::longValue, 3));
+		assertEquals(List.of(1L, 2L, 3L, 5L, 4L), popularity.top(candidates, Long::longValue, 10));
+		assertEquals(List.of(), popularity.top(candidates, Long::longValue, 0));
+	}
+
+	@Test
+	void approvedBookingAndCommentRaiseRankWithoutReload() {
+		String word = "Popularity" + UUID.randomUUID().toString().substring(0, 8);
+		long ownerId = createUser();
+		long bookerId = createUser();
+		long quiet = createItem(ownerId, word);
+		long popular = createItem(ownerId, word);
+		long bookingId = createPastBooking(popular, bookerId);
+		assertEquals(List.of(quiet, popular), search(word));
+
+		bookingService.approve(bookingId, true, ownerId);
+		assertEquals(1.0, itemPopularity.score(popular));
+		assertEquals(List.of(popular, quiet), search(word));
+
+		CommentDto comment = new CommentDto();
+		comment.setText("Отличная вещь");
+		itemService.saveNewComment(comment, popular, bookerId);
+		assertEquals(1.5, itemPopularity.score(popular));
+		assertEquals(0.0, itemPopularity.score(quiet));
+
+		// перезагрузка группировкой даёт те же счётчики
+		itemPopularity.reload();
+		assertEquals(1.5, itemPopularity.score(popular));
+	}
+
+	private List<Long> search(String word) {
+		return itemService.searchItems(word, 10, FieldSet.ALL).stream().map(ItemDto::getId).toList();
+	}
+
+	private static void approve(ItemPopularity popularity, long itemId) {
+		popularity.onBookingChanged(event(itemId, BookingStatus.APPROVED));
+	}
+
+	private static void comment(ItemPopularity popularity, long itemId, int times) {
+		for (int i = 0; i < times; i++) {
+			popularity.onCommentAdded(new CommentAddedEvent(i, itemId, 1));
+		}
+	}
+
+	private static BookingChangedEvent event(long itemId, BookingStatus status) {
+		LocalDateTime start = LocalDateTime.now();
+		return new BookingChangedEvent(1, itemId, 1, 2, status, start, start.plusHours(1));
+	}
+
+	private long createPastBooking(long itemId, long bookerId) {
+		Booking booking = new Booking();
+		booking.setStart(LocalDateTime.now().minusDays(2));
+		booking.setEnd(LocalDateTime.now().minusDays(1));
+		booking.setItem(itemRepository.findById(itemId).orElseThrow());
+		booking.setBooker(userRepository.findById(bookerId).orElseThrow());
+		booking.setStatus(BookingStatus.WAITING);
+		return bookingRepository.save(booking).getId();
+	}
+
+	private long createItem(long ownerId, String word) {
+		ItemDto item = new ItemDto();
+		item.setName(word);
+		item.setDescription("Для проверки популярности");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		return itemService.saveItem(item).getId();
+	}
+
+	private long createUser() {
+		UserDto user = new UserDto();
+		user.setName("Popularity");
+		user.setEmail(UUID.randomUUID() + "@popularity.test");
+		return userService.saveUser(user).getId();
+	}
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Задержка подсказки и обновления дерева на случайных названиях: p50/p99 по отдельным вызовам
+ * после прогрева. Запрос идёт по короткому префиксу случайного названия, как при наборе в строке поиска.
+ */
+class ItemSuggestionsBenchmarkIT {
+	private static final String ALPHABET = "абвгдежзиклмнопрстуфхцчшэюя ";
+
+	@Test
+	void suggestP99WithinBudget() throws Exception {
+		int items = Integer.getInteger("benchmark.suggest.items", 200_000);
+		int queries = Integer.getInteger("benchmark.suggest.queries", 200_000);
+		long budgetNanos = Long.getLong("benchmark.suggest.p99-budget-us", 1000) * 1000;
+		Random random = new Random(7);
+		String[] names = new String[items];
+		ItemNameTrie trie = new ItemNameTrie(10);
+		long[] updates = new long[items];
+		for (int i = 0; i < items; i++) {
+			names[i] = name(random);
+			long started = System.nanoTime();
+			trie.index(i, names[i], true);
+			updates[i] = System.nanoTime() - started;
+		}
+
+		long[] latencies = new long[queries];
+		int found = 0;
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < queries; i++) {
+				String name = names[random.nextInt(items)];
+				String prefix = name.substring(0, 1 + random.nextInt(Math.min(4, name.length())));
+				long started = System.nanoTime();
+				found += trie.suggest(prefix, 10).size();
+				latencies[i] = System.nanoTime() - started;
+			}
+		}
+		Arrays.sort(latencies);
+		Arrays.sort(updates);
+		long p50 = latencies[queries / 2];
+		long p99 = latencies[(int) (queries * 0.99)];
+
+		Files.writeString(Path.of("target", "item-suggest-benchmark.txt"), String.format(
+				"items=%d%nqueries=%d%nsuggest.p50-us=%.1f%nsuggest.p99-us=%.1f%n"
+						+ "index.p50-us=%.1f%nindex.p99-us=%.1f%n",
+				items, queries, p50 / 1e3, p99 / 1e3,
+				updates[items / 2] / 1e3, updates[(int) (items * 0.99)] / 1e3));
+		assertTrue(found > 0);
+		assertTrue(p99 <= budgetNanos, String.format("p99 подсказки %.1f мкс, бюджет %.1f мкс",
+				p99 / 1e3, budgetNanos / 1e3));
+	}
+
+	private static String name(Random random) {
+		StringBuilder name = new StringBuilder();
+		for (int i = 3 + random.nextInt(15); i > 0; i--) {
+			name.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return name.toString();
+	}
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dao.ItemStatsRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserDeletionWorker;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.FieldSet;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// плановые сброс просмотров и очистка удалённых пользователей отключены: их запускает сам тест
+@SpringBootTest(properties = {"shareit.items.stats.flush-interval=PT1H", "shareit.users.deletion.interval=PT1H"})
+class ItemViewCounterTests {
+
+	@Autowired
+	private ItemViewCounter itemViewCounter;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemStatsRepository itemStatsRepository;
+	@Autowired
+	private UserDeletionWorker userDeletionWorker;
+
+	@Test
+	void viewsAreFlushedOnceAndCountedInOwnerItems() {
+		long ownerId = createUser();
+		long viewerId = createUser();
+		long viewed = createItem(ownerId);
+		long quiet = createItem(ownerId);
+		for (int i = 0; i < 3; i++) {
+			itemService.getItem(viewed, viewerId, FieldSet.ALL);
+		}
+
+		// до сброса просмотры видны из памяти
+		assertEquals(3, itemViewCounter.pending(viewed));
+		assertEquals(List.of(3L, 0L), views(ownerId));
+
+		itemViewCounter.flush();
+		itemService.getItem(viewed, viewerId, FieldSet.ALL);
+		itemViewCounter.flush();
+		// повторный сброс без новых просмотров ничего не прибавляет
+		itemViewCounter.flush();
+
+		assertEquals(0, itemViewCounter.pending(viewed));
+		assertEquals(4, itemStatsRepository.findById(viewed).map(ItemStats::getViews).orElseThrow());
+		assertEquals(Optional.empty(), itemStatsRepository.findById(quiet));
+		assertEquals(List.of(4L, 0L), views(ownerId));
+	}
+
+	@Test
+	void viewsOfDeletedItemAreDropped() {
+		long ownerId = createUser();
+		long viewerId = createUser();
+		long itemId = createItem(ownerId);
+		itemService.getItem(itemId, viewerId, FieldSet.ALL);
+		itemService.getItem(itemId, viewerId, FieldSet.ALL);
+
+		userService.deleteUser(ownerId);
+		userDeletionWorker.cleanUpDeletedUsers();
+
+		// счётчик убран по событию удаления
+		assertEquals(0, itemViewCounter.pending(itemId));
+		// просмотр, досчитанный после удаления, сброс отбрасывает вместе со счётчиком
+		itemViewCounter.record(itemId);
+		itemViewCounter.flush();
+		assertEquals(0, itemViewCounter.pending(itemId));
+		assertEquals(Optional.empty(), itemStatsRepository.findById(itemId));
+	}
+
+	private List<Long> views(long ownerId) {
+		return itemService.getUsersItems(ownerId, FieldSet.ALL).stream().map(ItemDto::getViews).toList();
+	}
+
+	private long createItem(long ownerId) {
+		ItemDto item = new ItemDto();
+		item.setName("Проектор");
+		item.setDescription("Для проверки просмотров");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		return itemService.saveItem(item).getId();
+	}
+
+	private long createUser() {
+		UserDto user = new UserDto();
+		user.setName("Views");
+		user.setEmail(UUID.randomUUID() + "@views.test");
+		return userService.saveUser(user).getId();
+	}
+}
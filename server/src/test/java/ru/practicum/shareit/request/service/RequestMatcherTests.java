@@ -0,0 +1,72 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemCreatedEvent;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dao.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class RequestMatcherTests {
+	@Autowired
+	private RequestMatcher requestMatcher;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private ItemRequestRepository itemRequestRepository;
+	@Autowired
+	private ItemRequestMatchRepository matchRepository;
+
+	@Test
+	void rebuildPicksUpRequestsOpenedWithoutEvent() {
+		long ownerId = createUser();
+		long requestorId = createUser();
+		ItemDto item = new ItemDto();
+		item.setName("Надувная лодка");
+		item.setDescription("Лодка с вёслами и насосом");
+		item.setAvailable(true);
+		item.setOwner(ownerId);
+		long itemId = itemService.saveItem(item).getId();
+
+		// как запрос, открытый другим экземпляром: событие сюда не приходит
+		ItemRequest request = new ItemRequest();
+		request.setDescription("Нужна надувная лодка");
+		request.setRequestor(userRepository.getReferenceById(requestorId));
+		request.setCreated(LocalDateTime.now());
+		itemRequestRepository.save(request);
+		ItemCreatedEvent event = new ItemCreatedEvent(itemId, ownerId, null, item.getName(), item.getDescription(),
+				true);
+
+		requestMatcher.match(event);
+		assertEquals(List.of(), matchRepository.findIdsByItemIdIn(List.of(itemId), Pageable.unpaged()));
+
+		requestMatcher.rebuild();
+		requestMatcher.match(event);
+		assertEquals(1, matchRepository.findIdsByItemIdIn(List.of(itemId), Pageable.unpaged()).size());
+	}
+
+	private long createUser() {
+		UserDto user = new UserDto();
+		user.setName("Matcher");
+		user.setEmail(UUID.randomUUID() + "@matcher.test");
+		return userService.saveUser(user).getId();
+	}
+}
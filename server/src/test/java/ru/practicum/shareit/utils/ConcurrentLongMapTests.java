@@ -0,0 +1,135 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongMapTests {
+	private static final int THREADS = 4;
+	private static final int KEYS_PER_THREAD = 20_000;
+
+	@Test
+	void matchesHashMapOnRandomOperations() {
+		ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+		Map<Long, Long> model = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			// небольшой диапазон ключей: много повторных вставок, удалений и сдвигов при удалении
+			long key = random.nextInt(5_000) - 2_500L;
+			if (random.nextInt(3) == 0) {
+				assertEquals(model.remove(key), map.remove(key));
+			} else {
+				assertEquals(model.put(key, (long) i), map.put(key, (long) i));
+			}
+		}
+		assertEquals(model.size(), map.size());
+		for (long key = -2_500; key < 2_500; key++) {
+			assertEquals(model.get(key), map.get(key), "Ключ " + key);
+		}
+	}
+
+	@Test
+	void readersSeeStableKeysWhileOtherKeysArePutRemovedAndResized() throws Exception {
+		ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+		// стабильные ключи отрицательные, чтобы не пересекаться с ключами писателей
+		for (long key = -1; key >= -1_000; key--) {
+			map.put(key, key * 10);
+		}
+		AtomicBoolean writing = new AtomicBoolean(true);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final long base = (long) t * KEYS_PER_THREAD;
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (long key = base; key < base + KEYS_PER_THREAD; key++) {
+						map.put(key, key);
+					}
+					for (long key = base + 1; key < base + KEYS_PER_THREAD; key += 2) {
+						assertEquals(key, map.remove(key));
+					}
+					return null;
+				}));
+			}
+			List<Future<Long>> readers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				readers.add(executor.submit(() -> {
+					start.await();
+					long reads = 0;
+					while (writing.get()) {
+						for (long key = -1; key >= -1_000; key--) {
+							assertEquals(key * 10, map.get(key), "Ключ " + key + " пропал при изменении таблицы");
+							reads++;
+						}
+					}
+					return reads;
+				}));
+			}
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			writing.set(false);
+			for (Future<Long> reader : readers) {
+				assertTrue(reader.get() > 0);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1_000 + THREADS * KEYS_PER_THREAD / 2, map.size());
+		for (long key = 0; key < (long) THREADS * KEYS_PER_THREAD; key++) {
+			if (key % 2 == 0) {
+				assertEquals(key, map.get(key));
+			} else {
+				assertNull(map.get(key));
+			}
+		}
+	}
+
+	@Test
+	void concurrentComputeOnSharedKeysIsAtomic() throws Exception {
+		ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+		int keys = 64;
+		int increments = 10_000;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < increments; i++) {
+						map.compute(i % keys, count -> count == null ? 1 : count + 1);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(keys, map.size());
+		long total = map.values().stream().mapToLong(Long::longValue).sum();
+		assertEquals((long) THREADS * increments, total);
+	}
+}
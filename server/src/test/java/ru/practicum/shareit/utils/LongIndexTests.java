@@ -0,0 +1,77 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIndexTests {
+	private static final int THREADS = 4;
+	private static final int IDS_PER_THREAD = 2_000;
+
+	@Test
+	void keepsIdsSortedAndUnique() {
+		LongIndex index = new LongIndex();
+		index.add(1, 30);
+		index.add(1, 10);
+		index.add(1, 20);
+		index.add(1, 10);
+
+		assertArrayEquals(new long[]{10, 20, 30}, index.get(1));
+		assertArrayEquals(new long[0], index.get(2));
+
+		index.remove(1, 20);
+		index.remove(1, 40);
+		assertArrayEquals(new long[]{10, 30}, index.get(1));
+
+		index.remove(1, 10);
+		index.remove(1, 30);
+		assertArrayEquals(new long[0], index.get(1));
+	}
+
+	@Test
+	void concurrentAddAndRemoveOnSameKeyLoseNothing() throws Exception {
+		LongIndex index = new LongIndex();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					// id потоков чередуются, поэтому все вставки идут в середину одного массива
+					for (long i = 0; i < IDS_PER_THREAD; i++) {
+						index.add(7, i * THREADS + thread);
+						// ключи-соседи заставляют таблицу расти во время изменений общего ключа
+						index.add(1_000 + i * THREADS + thread, i);
+					}
+					for (long i = 1; i < IDS_PER_THREAD; i += 2) {
+						index.remove(7, i * THREADS + thread);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		long[] expected = LongStream.range(0, (long) THREADS * IDS_PER_THREAD)
+				.filter(id -> (id / THREADS) % 2 == 0)
+				.toArray();
+		assertArrayEquals(expected, index.get(7));
+		assertEquals(1, index.get(1_000 + 5).length);
+	}
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.utils.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTests {
+	private static final int DUPLICATES = 4;
+
+	@Test
+	void inFlightKeyIsNotEvictedWhenStoreOverflows() throws Exception {
+		IdempotencyProperties properties = new IdempotencyProperties();
+		properties.setMaxKeys(1);
+		IdempotencyStore store = new IdempotencyStore(properties, new ObjectMapper(), new SimpleMeterRegistry(),
+				(IdempotencyKeyRepository) null);
+		AtomicInteger writes = new AtomicInteger();
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<String> write = () -> {
+			writing.countDown();
+			try {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "booking-" + writes.incrementAndGet();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES + 1);
+		try {
+			Future<String> first = executor.submit(() -> store.execute("key", "create", 1, "body", write));
+			assertTrue(writing.await(10, TimeUnit.SECONDS));
+			// другие ключи переполняют хранилище, пока запись по первому ключу ещё выполняется
+			for (int i = 0; i < 10; i++) {
+				store.execute("other-" + i, "create", 1, "body", () -> "other");
+			}
+			List<Future<String>> duplicates = new ArrayList<>();
+			for (int i = 0; i < DUPLICATES; i++) {
+				duplicates.add(executor.submit(() -> store.execute("key", "create", 1, "body", write)));
+			}
+			release.countDown();
+
+			assertEquals("booking-1", first.get());
+			for (Future<String> duplicate : duplicates) {
+				assertEquals("booking-1", duplicate.get());
+			}
+			assertEquals(1, writes.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.utils.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SharedIdempotencyTests {
+	private static final String OPERATION = "POST /users";
+
+	@Autowired
+	private IdempotencyKeyRepository keys;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void retryOnAnotherInstanceGetsStoredResponse() {
+		// два хранилища с общей базой — как два экземпляра за балансировщиком
+		IdempotencyStore first = store();
+		IdempotencyStore second = store();
+		String key = UUID.randomUUID().toString();
+		AtomicInteger writes = new AtomicInteger();
+		Supplier<UserDto> write = () -> user(writes.incrementAndGet());
+
+		UserDto created = first.execute(key, OPERATION, 1, "body", write);
+		UserDto replayed = second.execute(key, OPERATION, 1, "body", write);
+
+		assertEquals(1, writes.get());
+		assertEquals(created.getId(), replayed.getId());
+		assertEquals(created.getEmail(), replayed.getEmail());
+		assertThrows(IdempotencyKeyReusedException.class,
+				() -> second.execute(key, OPERATION, 1, "other body", write));
+		// ключ привязан к пользователю
+		assertEquals(2L, second.execute(key, OPERATION, 2, "body", write).getId());
+	}
+
+	@Test
+	void retryOnAnotherInstanceWaitsForInFlightRequest() throws Exception {
+		IdempotencyStore first = store();
+		IdempotencyStore second = store();
+		String key = UUID.randomUUID().toString();
+		AtomicInteger writes = new AtomicInteger();
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<UserDto> write = () -> {
+			writing.countDown();
+			try {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return user(writes.incrementAndGet());
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<UserDto> original = executor.submit(() -> first.execute(key, OPERATION, 1, "body", write));
+			assertTrue(writing.await(10, TimeUnit.SECONDS));
+			Future<UserDto> retry = executor.submit(() -> second.execute(key, OPERATION, 1, "body", write));
+			release.countDown();
+
+			assertEquals(1L, original.get().getId());
+			assertEquals(1L, retry.get().getId());
+			assertEquals(1, writes.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void failedWriteReleasesKeyForRetryOnAnotherInstance() {
+		IdempotencyStore first = store();
+		IdempotencyStore second = store();
+		String key = UUID.randomUUID().toString();
+
+		assertThrows(IllegalStateException.class, () -> first.execute(key, OPERATION, 1, "body", () -> {
+			throw new IllegalStateException("Сбой записи");
+		}));
+		assertEquals(7L, second.execute(key, OPERATION, 1, "body", () -> user(7)).getId());
+	}
+
+	private IdempotencyStore store() {
+		return new IdempotencyStore(new IdempotencyProperties(), objectMapper, new SimpleMeterRegistry(), keys);
+	}
+
+	private static UserDto user(long id) {
+		UserDto user = new UserDto();
+		user.setId(id);
+		user.setName("Idempotent");
+		user.setEmail(id + "@idempotency.test");
+		return user;
+	}
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.utils.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.utils.BaseInMemoryRepository;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Восстановление после аварийной остановки: процесс «падает» без {@code destroy()}, то есть без снапшота
+ * при остановке, и хранилище поднимается заново из того, что осталось в каталоге.
+ */
+class InMemoryPersistenceTests {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void walIsReplayedAfterCrashWithoutSnapshot() throws IOException {
+		Notes notes = start();
+		long first = notes.save(new Note("первая")).getId();
+		long second = notes.save(new Note("вторая")).getId();
+		long third = notes.save(new Note("третья")).getId();
+		notes.updateInStorage(first, new Note(first, "первая, исправлена"));
+		notes.removeFromStorage(second);
+
+		Notes recovered = start();
+
+		assertEquals(Map.of(first, "первая, исправлена", third, "третья"), contents(recovered));
+		// счётчик id продолжается после восстановленных записей
+		assertEquals(third + 1, recovered.save(new Note("четвёртая")).getId());
+	}
+
+	@Test
+	void recordWithBadChecksumEndsReplay() throws IOException {
+		Notes notes = start();
+		long first = notes.save(new Note("первая")).getId();
+		notes.save(new Note("вторая"));
+		long[] last = lastRecord();
+		// бит в теле последней записи: CRC не сходится
+		corrupt(last[0] + last[1] - 1, (byte) 0x5A);
+
+		Notes recovered = start();
+
+		assertEquals(Map.of(first, "первая"), contents(recovered));
+		// запись после повреждённой попадает в новый сегмент и переживает следующий перезапуск
+		long next = recovered.save(new Note("после сбоя")).getId();
+		assertEquals(Map.of(first, "первая", next, "после сбоя"), contents(start()));
+	}
+
+	@Test
+	void tornTailRecordIsIgnored() throws IOException {
+		Notes notes = start();
+		long first = notes.save(new Note("первая")).getId();
+		notes.save(new Note("вторая"));
+		long[] last = lastRecord();
+		// обрыв посреди записи: длина и часть тела на месте, конец тела не дописан
+		try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate((int) last[1] / 2), last[0] + last[1] / 2);
+		}
+
+		assertEquals(Map.of(first, "первая"), contents(start()));
+	}
+
+	@Test
+	void recordsNewerThanFuzzySnapshotAreReplayed() throws IOException {
+		Notes notes = start();
+		long first = notes.save(new Note("первая")).getId();
+		long second = notes.save(new Note("вторая")).getId();
+		notes.updateInStorage(first, new Note(first, "первая, исправлена"));
+		notes.removeFromStorage(second);
+		// нечёткий снапшот: помечен записью 2, а содержит состояние после записи 4
+		new SnapshotStore(directory).write(2, List.of(notes));
+		long third = notes.save(new Note("третья")).getId();
+
+		Notes recovered = start();
+
+		// записи 3 и 4 проигрываются повторно поверх снапшота, запись 5 — впервые
+		assertEquals(Map.of(first, "первая, исправлена", third, "третья"), contents(recovered));
+	}
+
+	private Notes start() throws IOException {
+		InMemoryPersistenceProperties properties = new InMemoryPersistenceProperties();
+		properties.setEnabled(true);
+		properties.setDirectory(directory.toString());
+		properties.setFsync(FsyncMode.PER_WRITE);
+		properties.setSegmentSize(64 * 1024);
+		Notes notes = new Notes();
+		new InMemoryPersistence(List.of(notes), properties, new SimpleMeterRegistry()).afterPropertiesSet();
+		return notes;
+	}
+
+	private static Map<Long, String> contents(Notes notes) {
+		Map<Long, String> contents = new TreeMap<>();
+		notes.getFromStorage().forEach(note -> contents.put(note.getId(), note.getText()));
+		return contents;
+	}
+
+	// {смещение, длина} последней записи первого сегмента; записи идут подряд, конец — нулевая длина
+	private long[] lastRecord() throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment()));
+		long[] last = null;
+		int length;
+		while (buffer.remaining() >= Integer.BYTES * 2 && (length = buffer.getInt(buffer.position())) > 0) {
+			last = new long[]{buffer.position(), Integer.BYTES * 2 + length};
+			buffer.position(buffer.position() + Integer.BYTES * 2 + length);
+		}
+		return last;
+	}
+
+	private void corrupt(long position, byte mask) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer value = ByteBuffer.allocate(1);
+			channel.read(value, position);
+			value.put(0, (byte) (value.get(0) ^ mask)).rewind();
+			channel.write(value, position);
+		}
+	}
+
+	private Path segment() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().startsWith("wal-")).sorted().findFirst()
+					.orElseThrow();
+		}
+	}
+
+	private static final class Notes extends BaseInMemoryRepository<Note> {
+		@Override
+		protected Long getId(Note note) {
+			return note.getId();
+		}
+
+		@Override
+		protected void setId(Note note, long id) {
+			note.setId(id);
+		}
+
+		@Override
+		public String storageName() {
+			return "notes";
+		}
+
+		@Override
+		public void writeEntity(Note note, DataOutput out) throws IOException {
+			out.writeUTF(note.getText());
+		}
+
+		@Override
+		public Note readEntity(long id, DataInputStream in) throws IOException {
+			return new Note(id, in.readUTF());
+		}
+	}
+
+	private static final class Note {
+		private Long id;
+		private final String text;
+
+		Note(String text) {
+			this.text = text;
+		}
+
+		Note(long id, String text) {
+			this.id = id;
+			this.text = text;
+		}
+
+		Long getId() {
+			return id;
+		}
+
+		void setId(long id) {
+			this.id = id;
+		}
+
+		String getText() {
+			return text;
+		}
+	}
+}
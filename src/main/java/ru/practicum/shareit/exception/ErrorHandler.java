@@ -1,28 +0,0 @@
-package ru.practicum.shareit.exception;
-
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
-import ru.practicum.shareit.booking.BookingController;
-import ru.practicum.shareit.item.ItemController;
-import ru.practicum.shareit.user.UserController;
-
-@Slf4j
-@RestControllerAdvice(assignableTypes = {ItemController.class, UserController.class, BookingController.class})
-public class ErrorHandler {
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handle(final ConditionsNotMetException e) {
-        log.error("Ошибка валидации", e.getMessage());
-        return new ErrorResponse("Ошибка валидации", e.getMessage());
-    }
-
-    @ExceptionHandler({NotFoundException.class, ValidationException.class})
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final NotFoundException e) {
-        log.error("Не найдено", e.getMessage());
-        return new ErrorResponse("Не найдено", e.getMessage());
-    }
-}
\ No newline at end of file
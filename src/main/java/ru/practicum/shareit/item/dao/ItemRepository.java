@@ -1,20 +0,0 @@
-package ru.practicum.shareit.item.dao;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.item.model.Item;
-
-import java.util.List;
-
-@Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
-
-    List<Item> findByOwnerId(long userId);
-
-    @Query("SELECT i FROM Item i " +
-            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
-            "AND i.available = true")
-    List<Item> findByText(String text);
-}
\ No newline at end of file
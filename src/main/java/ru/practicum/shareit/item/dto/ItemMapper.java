@@ -1,29 +0,0 @@
-package ru.practicum.shareit.item.dto;
-
-import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
-
-@UtilityClass
-public class ItemMapper {
-
-    public static Item dtoToItem(ItemDto itemDto, User user) {
-        Item item = new Item();
-        item.setId(itemDto.getId());
-        item.setName(itemDto.getName());
-        item.setDescription(itemDto.getDescription());
-        item.setAvailable(itemDto.getAvailable());
-        item.setOwner(user);
-        return item;
-    }
-
-    public static ItemDto itemToDto(Item item) {
-        ItemDto itemDto = new ItemDto();
-        itemDto.setId(item.getId());
-        itemDto.setName(item.getName());
-        itemDto.setDescription(item.getDescription());
-        itemDto.setAvailable(item.getAvailable());
-        itemDto.setOwner(item.getOwner().getId());
-        return itemDto;
-    }
-}
@@ -1,30 +0,0 @@
-CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    email VARCHAR(500) UNIQUE NOT NULL
-    );
-
-CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(500) NOT NULL,
-    description VARCHAR(2000) NOT NULL,
-    available BOOLEAN NOT NULL,
-    owner_id BIGINT REFERENCES users (id)
-    );
-
-CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    start_dt TIMESTAMP NOT NULL,
-    end_dt TIMESTAMP NOT NULL,
-    item_id BIGINT REFERENCES items (id),
-    booker_id BIGINT REFERENCES users (id),
-    status varchar(30) NOT NULL
-    );
-
-CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    created_dt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    text VARCHAR(2000) NOT NULL,
-    item_id BIGINT REFERENCES items (id),
-    author_id BIGINT REFERENCES users (id)
-    );
\ No newline at end of file